@@ -1,19 +1,25 @@
 package ir.ramtung.tinyme.domain.entity;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 @Getter
 public class OrderBook {
     private final LinkedList<Order> buyQueue;
     private final LinkedList<Order> sellQueue;
+    @Getter(AccessLevel.NONE)
+    private final Map<Shareholder, Integer> queuedSellQuantityByShareholder;
 
     public OrderBook() {
         buyQueue = new LinkedList<>();
         sellQueue = new LinkedList<>();
+        queuedSellQuantityByShareholder = new HashMap<>();
     }
 
     public boolean enqueue(Order order) {
@@ -27,6 +33,7 @@ public class OrderBook {
         }
         it.add(order);
         order.markAsQueued();
+        addToSellLedger(order, order.getTotalQuantity());
         return true;
     }
 
@@ -47,8 +54,10 @@ public class OrderBook {
         var queue = getQueue(side);
         var it = queue.listIterator();
         while (it.hasNext()) {
-            if (it.next().getOrderId() == orderId) {
+            Order order = it.next();
+            if (order.getOrderId() == orderId) {
                 it.remove();
+                addToSellLedger(order, -order.getTotalQuantity());
                 return true;
             }
         }
@@ -67,6 +76,7 @@ public class OrderBook {
         LinkedList<Order> queue = getQueue(order.getSide());
         order.minimumExecutionQuantitySatisfied(); //why?
         queue.addFirst(order);
+        addToSellLedger(order, order.getTotalQuantity());
     }
 
     public void restoreOrder(Order order) {
@@ -79,13 +89,22 @@ public class OrderBook {
     }
 
     public void removeFirst(Side side) {
-        getQueue(side).removeFirst();
+        Order order = getQueue(side).removeFirst();
+        addToSellLedger(order, -order.getTotalQuantity());
+    }
+
+    public void updateQueuedQuantity(Order order, int previousTotalQuantity) {
+        addToSellLedger(order, order.getTotalQuantity() - previousTotalQuantity);
+    }
+
+    private void addToSellLedger(Order order, int quantity) {
+        if (order.getSide() == Side.BUY || quantity == 0)
+            return;
+        queuedSellQuantityByShareholder.merge(order.getShareholder(), quantity,
+                (current, delta) -> (current + delta == 0) ? null : current + delta);
     }
 
     public int totalSellQuantityByShareholder(Shareholder shareholder) {
-        return sellQueue.stream()
-                .filter(order -> order.getShareholder().equals(shareholder))
-                .mapToInt(Order::getTotalQuantity)
-                .sum();
+        return queuedSellQuantityByShareholder.getOrDefault(shareholder, 0);
     }
 }
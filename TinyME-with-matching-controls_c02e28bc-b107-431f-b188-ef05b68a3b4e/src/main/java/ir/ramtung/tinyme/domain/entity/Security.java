@@ -69,6 +69,7 @@ public class Security {
         }
         Order originalOrder = order.snapshot();
         order.updateFromRequest(updateOrderRq);
+        orderBook.updateQueuedQuantity(order, originalOrder.getTotalQuantity());
         if (!losesPriority) {
             if (updateOrderRq.getSide() == Side.BUY) {
                 order.getBroker().decreaseCreditBy(order.getValue());
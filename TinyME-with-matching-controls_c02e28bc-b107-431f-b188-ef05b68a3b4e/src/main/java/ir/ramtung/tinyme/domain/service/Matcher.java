@@ -41,7 +41,9 @@ public class Matcher {
                         orderBook.enqueue(icebergOrder);
                 }
             } else {
+                int previousQuantity = matchingOrder.getTotalQuantity();
                 matchingOrder.decreaseQuantity(newOrder.getQuantity());
+                orderBook.updateQueuedQuantity(matchingOrder, previousQuantity);
                 newOrder.makeQuantityZero();
             }
         }
@@ -8,7 +8,6 @@ import lombok.ToString;
 
 @ToString
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@Builder
 public class Broker {
 
 	@Getter
@@ -18,29 +17,88 @@ public class Broker {
 	@Getter
 	private String name;
 
-	@Getter
-	private long credit;
+	@ToString.Exclude
+	private final CreditLedger creditLedger;
+
+	@Builder
+	private Broker(long brokerId, String name, long credit) {
+		this.brokerId = brokerId;
+		this.name = name;
+		this.creditLedger = new CreditLedger(credit);
+	}
+
+	@ToString.Include(name = "credit")
+	public long getCredit() {
+		return creditLedger.getAvailable();
+	}
+
+	public long getReservedCredit() {
+		return creditLedger.getReserved();
+	}
 
 	public void increaseCreditBy(long amount) {
 		if (amount < 0) {
 			throw new IllegalArgumentException("negative amount passed to increaseCreditBy method in Broker class");
 		}
 
-		credit += amount;
+		creditLedger.deposit(amount);
 	}
 
 	public void decreaseCreditBy(long amount) {
 		if (amount < 0) {
 			throw new IllegalArgumentException("negative amount passed to decreaseCreditBy method in Broker class");
 		}
-		if (!hasEnoughCredit(amount)) {
+		if (!creditLedger.tryWithdraw(amount)) {
+			throw new NotEnoughCreditException();
+		}
+	}
+
+	public boolean tryDecreaseCreditBy(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("negative amount passed to tryDecreaseCreditBy method in Broker class");
+		}
+
+		return creditLedger.tryWithdraw(amount);
+	}
+
+	public void reserveCredit(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("negative amount passed to reserveCredit method in Broker class");
+		}
+		if (!creditLedger.tryReserve(amount)) {
 			throw new NotEnoughCreditException();
 		}
+	}
+
+	public boolean tryReserveCredit(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("negative amount passed to tryReserveCredit method in Broker class");
+		}
+
+		return creditLedger.tryReserve(amount);
+	}
+
+	public boolean tryReplaceReservedCredit(long reservedAmount, long amount) {
+		if (reservedAmount < 0 || amount < 0) {
+			throw new IllegalArgumentException("negative amount passed to tryReplaceReservedCredit method in Broker class");
+		}
+
+		return creditLedger.tryReplace(reservedAmount, amount);
+	}
+
+	public void commitReservedCredit(long amount) {
+		creditLedger.commit(amount);
+	}
+
+	public void releaseReservedCredit(long amount) {
+		creditLedger.release(amount);
+	}
 
-		credit -= amount;
+	public void reinstateReservedCredit(long amount) {
+		creditLedger.reinstate(amount);
 	}
 
 	public boolean hasEnoughCredit(long amount) {
-		return credit >= amount;
+		return creditLedger.hasAvailable(amount);
 	}
 }
@@ -0,0 +1,63 @@
+package ir.ramtung.tinyme.domain.entity;
+
+/**
+ * Price levels of an order book touched since they were last collected. Only the level is remembered, not
+ * what happened to it, so a level that changes several times within a request is reported once with its
+ * final depth. Past {@link #CAPACITY} levels the set stops tracking and reports an overflow instead.
+ */
+public class ChangedLevels {
+
+	public static final int CAPACITY = 256;
+
+	private final long[] keys = new long[CAPACITY];
+	private int size;
+	private boolean overflowed;
+
+	void mark(Side side, int price) {
+		if (overflowed) {
+			return;
+		}
+
+		long key = key(side, price);
+		for (int i = size - 1; i >= 0; i--) {
+			if (keys[i] == key) {
+				return;
+			}
+		}
+		if (size == CAPACITY) {
+			overflowed = true;
+			size = 0;
+		} else {
+			keys[size++] = key;
+		}
+	}
+
+	public boolean isEmpty() {
+		return size == 0 && !overflowed;
+	}
+
+	public boolean isOverflowed() {
+		return overflowed;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public Side sideAt(int index) {
+		return (keys[index] >>> 32 == 0) ? Side.BUY : Side.SELL;
+	}
+
+	public int priceAt(int index) {
+		return (int) keys[index];
+	}
+
+	public void clear() {
+		size = 0;
+		overflowed = false;
+	}
+
+	private static long key(Side side, int price) {
+		return ((long) side.ordinal() << 32) | Integer.toUnsignedLong(price);
+	}
+}
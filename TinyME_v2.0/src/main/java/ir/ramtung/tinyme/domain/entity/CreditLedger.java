@@ -0,0 +1,75 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CreditLedger {
+
+	private final AtomicLong available;
+	private final LongAdder reserved;
+
+	public CreditLedger(long initialCredit) {
+		this.available = new AtomicLong(initialCredit);
+		this.reserved = new LongAdder();
+	}
+
+	public long getAvailable() {
+		return available.get();
+	}
+
+	public long getReserved() {
+		return reserved.sum();
+	}
+
+	public boolean hasAvailable(long amount) {
+		return available.get() >= amount;
+	}
+
+	public void deposit(long amount) {
+		available.addAndGet(amount);
+	}
+
+	public boolean tryWithdraw(long amount) {
+		long current;
+		do {
+			current = available.get();
+			if (current < amount) {
+				return false;
+			}
+		} while (!available.compareAndSet(current, current - amount));
+		return true;
+	}
+
+	public boolean tryReserve(long amount) {
+		if (!tryWithdraw(amount)) {
+			return false;
+		}
+		reserved.add(amount);
+		return true;
+	}
+
+	public boolean tryReplace(long reservedAmount, long amount) {
+		long current;
+		do {
+			current = available.get();
+			if (current + reservedAmount < amount) {
+				return false;
+			}
+		} while (!available.compareAndSet(current, current + reservedAmount - amount));
+		reserved.add(amount - reservedAmount);
+		return true;
+	}
+
+	public void commit(long amount) {
+		reserved.add(-amount);
+	}
+
+	public void release(long amount) {
+		reserved.add(-amount);
+		available.addAndGet(amount);
+	}
+
+	public void reinstate(long amount) {
+		reserved.add(amount);
+	}
+}
@@ -3,8 +3,6 @@ package ir.ramtung.tinyme.domain.entity;
 import ir.ramtung.tinyme.domain.exception.InvalidIcebergPeakSizeException;
 import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -49,36 +47,6 @@ public class IcebergOrder extends Order {
 		this.displayedQuantity = displayedQuantity;
 	}
 
-	public IcebergOrder(
-		long orderId,
-		Security security,
-		Side side,
-		int quantity,
-		int minimumExecutionQuantity,
-		int price,
-		Broker broker,
-		Shareholder shareholder,
-		List<LocalDateTime> entryTimes,
-		int peakSize,
-		int displayedQuantity,
-		OrderStatus status
-	) {
-		super(
-			orderId,
-			security,
-			side,
-			quantity,
-			minimumExecutionQuantity,
-			price,
-			broker,
-			shareholder,
-			entryTimes,
-			status
-		);
-		this.peakSize = peakSize;
-		this.displayedQuantity = displayedQuantity;
-	}
-
 	public IcebergOrder(
 		long orderId,
 		Security security,
@@ -110,38 +78,6 @@ public class IcebergOrder extends Order {
 		);
 	}
 
-	public IcebergOrder(
-		long orderId,
-		Security security,
-		Side side,
-		int quantity,
-		int minimumExecutionQuantity,
-		int price,
-		Broker broker,
-		Shareholder shareholder,
-		List<LocalDateTime> entryTimes,
-		LocalDateTime expiryDate,
-		int peakSize,
-		OrderStatus status
-	) {
-		this(
-			orderId,
-			security,
-			side,
-			quantity,
-			minimumExecutionQuantity,
-			price,
-			broker,
-			shareholder,
-			entryTimes.getFirst(),
-			expiryDate,
-			peakSize,
-			Math.min(peakSize, quantity),
-			status
-		);
-		this.entryTimes.addAll(entryTimes);
-	}
-
 	public IcebergOrder(
 		long orderId,
 		Security security,
@@ -224,7 +160,7 @@ public class IcebergOrder extends Order {
 
 	@Override
 	public Order snapshot() {
-		return new IcebergOrder(
+		IcebergOrder snapshot = new IcebergOrder(
 			orderId,
 			security,
 			side,
@@ -233,16 +169,18 @@ public class IcebergOrder extends Order {
 			price,
 			broker,
 			shareholder,
-			new ArrayList<>(entryTimes),
+			entryTime,
 			expiryDate,
 			peakSize,
 			OrderStatus.SNAPSHOT
 		);
+		snapshot.copyPriorityFrom(this);
+		return snapshot;
 	}
 
 	@Override
 	public Order snapshotWithQuantity(int newQuantity) {
-		return new IcebergOrder(
+		IcebergOrder snapshot = new IcebergOrder(
 			orderId,
 			security,
 			side,
@@ -251,11 +189,13 @@ public class IcebergOrder extends Order {
 			price,
 			broker,
 			shareholder,
-			entryTimes,
+			entryTime,
 			expiryDate,
 			peakSize,
 			this.status
 		);
+		snapshot.copyPriorityFrom(this);
+		return snapshot;
 	}
 
 	@Override
@@ -289,10 +229,15 @@ public class IcebergOrder extends Order {
 	}
 
 	@Override
-	public void rollback(Order firstVersion) {
-		IcebergOrder fVersion = (IcebergOrder) firstVersion;
-		this.displayedQuantity = fVersion.displayedQuantity;
-		super.rollback(firstVersion);
+	public void restore(
+		int quantity,
+		int displayedQuantity,
+		OrderStatus status,
+		long priorityTime,
+		long prioritySequence
+	) {
+		super.restore(quantity, displayedQuantity, status, priorityTime, prioritySequence);
+		this.displayedQuantity = displayedQuantity;
 	}
 
 	public void replenish() {
@@ -327,8 +272,4 @@ public class IcebergOrder extends Order {
 		IcebergOrder tempIcebergOrder = (IcebergOrder) tempOrder;
 		return this.peakSize < tempIcebergOrder.peakSize;
 	}
-
-	public void addUpdateTime(LocalDateTime updateTime) {
-		entryTimes.add(updateTime);
-	}
 }
@@ -0,0 +1,217 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import ir.ramtung.tinyme.domain.service.OpeningPriceCalculator;
+import java.util.TreeMap;
+
+/**
+ * Keeps the indicative opening price of an auction up to date as the book changes.
+ * <p>
+ * The tracker holds the buy depth at or above, and the sell depth at or below, one cursor price, and adjusts both
+ * in constant time on every change. Tradable quantity rises with price until the sell depth catches up with the
+ * buy depth and falls after that, so a refresh climbs from the cursor to that peak one breakpoint at a time and
+ * then widens the plateau of equal quantity only as far as the last trade price. A small change to the book moves
+ * the peak a few breakpoints at most, and the levels beyond them are never visited.
+ */
+public class IndicativePriceTracker {
+
+	private final TreeMap<Integer, long[]> buyDepth;
+	private final TreeMap<Integer, long[]> sellDepth;
+
+	private int cursor;
+	private long buysAtCursor;
+	private long sellsAtCursor;
+
+	private boolean stale;
+	private int lastTradePrice;
+	private int tickSize;
+	private int openingPrice;
+	private int tradableQuantity;
+
+	private int minPrice;
+	private int lastGridPrice;
+
+	public IndicativePriceTracker() {
+		buyDepth = new TreeMap<>();
+		sellDepth = new TreeMap<>();
+		stale = true;
+	}
+
+	public void apply(Side side, int price, long quantity) {
+		if (quantity == 0) {
+			return;
+		}
+
+		TreeMap<Integer, long[]> depth = (side == Side.BUY) ? buyDepth : sellDepth;
+		long[] levelQuantity = depth.computeIfAbsent(price, p -> new long[1]);
+		levelQuantity[0] += quantity;
+		if (levelQuantity[0] == 0) {
+			depth.remove(price);
+		}
+
+		if (side == Side.BUY && price >= cursor) {
+			buysAtCursor += quantity;
+		} else if (side == Side.SELL && price <= cursor) {
+			sellsAtCursor += quantity;
+		}
+		stale = true;
+	}
+
+	public int getOpeningPrice(int lastTradePrice, int tickSize) {
+		refresh(lastTradePrice, tickSize);
+		return openingPrice;
+	}
+
+	public int getTradableQuantity(int lastTradePrice, int tickSize) {
+		refresh(lastTradePrice, tickSize);
+		return tradableQuantity;
+	}
+
+	private void refresh(int lastTradePrice, int tickSize) {
+		if (!stale && this.lastTradePrice == lastTradePrice && this.tickSize == tickSize) {
+			return;
+		}
+
+		this.lastTradePrice = lastTradePrice;
+		this.tickSize = tickSize;
+		stale = false;
+
+		if (buyDepth.isEmpty() || sellDepth.isEmpty()) {
+			openingPrice = lastTradePrice;
+			tradableQuantity = 0;
+			return;
+		}
+
+		minPrice = buyDepth.firstKey();
+		int maxPrice = sellDepth.lastKey();
+		if (minPrice > maxPrice) {
+			openingPrice = lastTradePrice;
+		} else {
+			lastGridPrice = maxPrice - Math.floorMod(maxPrice - minPrice, tickSize);
+			openingPrice = findOpeningPrice();
+		}
+		moveCursorTo(openingPrice);
+		tradableQuantity = (int) tradableAtCursor();
+	}
+
+	private int findOpeningPrice() {
+		int start = segmentStartAtOrBelow(alignDown(Math.clamp(cursor, minPrice, lastGridPrice)));
+		moveCursorTo(start);
+		long maxTradableQuantity = tradableAtCursor();
+		int from;
+		int to;
+
+		if (sellsAtCursor < buysAtCursor) {
+			for (int next = nextSegmentStart(start); next != Integer.MAX_VALUE; next = nextSegmentStart(start)) {
+				moveCursorTo(next);
+				if (tradableAtCursor() < maxTradableQuantity) {
+					break;
+				}
+				start = next;
+				maxTradableQuantity = tradableAtCursor();
+			}
+			from = start;
+			to = segmentEnd(start);
+			while (from > lastTradePrice && from > minPrice) {
+				int previous = segmentStartAtOrBelow(from - tickSize);
+				moveCursorTo(previous);
+				if (tradableAtCursor() != maxTradableQuantity) {
+					break;
+				}
+				from = previous;
+			}
+		} else {
+			while (start > minPrice) {
+				int previous = segmentStartAtOrBelow(start - tickSize);
+				moveCursorTo(previous);
+				if (tradableAtCursor() < maxTradableQuantity) {
+					break;
+				}
+				start = previous;
+				maxTradableQuantity = tradableAtCursor();
+			}
+			from = start;
+			to = segmentEnd(start);
+			for (int next = nextSegmentStart(start); to < lastTradePrice && next != Integer.MAX_VALUE; next = nextSegmentStart(next)) {
+				moveCursorTo(next);
+				if (tradableAtCursor() != maxTradableQuantity) {
+					break;
+				}
+				to = segmentEnd(next);
+			}
+		}
+
+		if (maxTradableQuantity == 0) {
+			return lastTradePrice;
+		}
+		return OpeningPriceCalculator.closestGridPrice(from, to, lastTradePrice, tickSize);
+	}
+
+	private long tradableAtCursor() {
+		return Math.min(buysAtCursor, sellsAtCursor);
+	}
+
+	private void moveCursorTo(int price) {
+		if (price > cursor) {
+			for (long[] levelQuantity : buyDepth.subMap(cursor, true, price, false).values()) {
+				buysAtCursor -= levelQuantity[0];
+			}
+			for (long[] levelQuantity : sellDepth.subMap(cursor, false, price, true).values()) {
+				sellsAtCursor += levelQuantity[0];
+			}
+		} else if (price < cursor) {
+			for (long[] levelQuantity : buyDepth.subMap(price, true, cursor, false).values()) {
+				buysAtCursor += levelQuantity[0];
+			}
+			for (long[] levelQuantity : sellDepth.subMap(price, false, cursor, true).values()) {
+				sellsAtCursor -= levelQuantity[0];
+			}
+		}
+		cursor = price;
+	}
+
+	/**
+	 * Returns the first grid price of the run of constant depth that contains {@code price}. Sell depth steps up
+	 * at each sell price and buy depth steps down just above each buy price.
+	 */
+	private int segmentStartAtOrBelow(int price) {
+		int start = minPrice;
+		Integer sellPrice = sellDepth.floorKey(price);
+		if (sellPrice != null) {
+			start = Math.max(start, alignUp(sellPrice));
+		}
+		Integer buyPrice = buyDepth.lowerKey(price);
+		if (buyPrice != null) {
+			start = Math.max(start, alignUp(buyPrice + 1));
+		}
+		return start;
+	}
+
+	private int nextSegmentStart(int price) {
+		int next = Integer.MAX_VALUE;
+		Integer sellPrice = sellDepth.higherKey(price);
+		if (sellPrice != null) {
+			next = alignUp(sellPrice);
+		}
+		Integer buyPrice = buyDepth.ceilingKey(price);
+		if (buyPrice != null) {
+			next = Math.min(next, alignUp(buyPrice + 1));
+		}
+		return (next > lastGridPrice) ? Integer.MAX_VALUE : next;
+	}
+
+	private int segmentEnd(int start) {
+		int next = nextSegmentStart(start);
+		return (next == Integer.MAX_VALUE) ? lastGridPrice : next - tickSize;
+	}
+
+	private int alignUp(int price) {
+		if (price <= minPrice) {
+			return minPrice;
+		}
+		return minPrice + Math.ceilDiv(price - minPrice, tickSize) * tickSize;
+	}
+
+	private int alignDown(int price) {
+		return minPrice + Math.floorDiv(price - minPrice, tickSize) * tickSize;
+	}
+}
@@ -3,18 +3,21 @@ package ir.ramtung.tinyme.domain.entity;
 import ir.ramtung.tinyme.domain.exception.CantQueueOrderException;
 import ir.ramtung.tinyme.domain.exception.InvalidPeakSizeException;
 import ir.ramtung.tinyme.domain.exception.InvalidStopLimitPriceException;
+import ir.ramtung.tinyme.domain.exception.NotEnoughCreditException;
 import ir.ramtung.tinyme.domain.exception.UpdateMinimumExecutionQuantityException;
 import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.ZoneOffset;
 
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
 @Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @EqualsAndHashCode
 @ToString
 @Getter
@@ -28,9 +31,27 @@ public class Order {
 	protected int price;
 	protected Broker broker;
 	protected Shareholder shareholder;
-	protected final List<LocalDateTime> entryTimes = new ArrayList<>();
+	protected LocalDateTime entryTime;
+	protected LocalDateTime updateTime;
 	protected LocalDateTime expiryDate;
 
+	@EqualsAndHashCode.Exclude
+	protected long priorityTime;
+
+	@EqualsAndHashCode.Exclude
+	protected long prioritySequence;
+
+	@EqualsAndHashCode.Exclude
+	@Getter(AccessLevel.NONE)
+	protected boolean requeued;
+
+	@EqualsAndHashCode.Exclude
+	protected long heldCredit;
+
+	@EqualsAndHashCode.Exclude
+	@Getter(AccessLevel.NONE)
+	protected long withdrawnCredit;
+
 	@Builder.Default
 	protected OrderStatus status = OrderStatus.NEW;
 
@@ -53,7 +74,8 @@ public class Order {
 		this.quantity = quantity;
 		this.minimumExecutionQuantity = minimumExecutionQuantity;
 		this.price = price;
-		this.entryTimes.add(entryTime);
+		this.entryTime = entryTime;
+		this.priorityTime = toPriorityTime(entryTime);
 		this.broker = broker;
 		this.shareholder = shareholder;
 		this.status = status;
@@ -78,7 +100,8 @@ public class Order {
 		this.quantity = quantity;
 		this.minimumExecutionQuantity = minimumExecutionQuantity;
 		this.price = price;
-		this.entryTimes.add(entryTime);
+		this.entryTime = entryTime;
+		this.priorityTime = toPriorityTime(entryTime);
 		this.broker = broker;
 		this.shareholder = shareholder;
 		this.status = status;
@@ -107,30 +130,6 @@ public class Order {
 		this.status = status;
 	}
 
-	public Order(
-		long orderId,
-		Security security,
-		Side side,
-		int quantity,
-		int minimumExecutionQuantity,
-		int price,
-		Broker broker,
-		Shareholder shareholder,
-		List<LocalDateTime> entryTimes,
-		OrderStatus status
-	) {
-		this.orderId = orderId;
-		this.security = security;
-		this.side = side;
-		this.quantity = quantity;
-		this.minimumExecutionQuantity = minimumExecutionQuantity;
-		this.price = price;
-		this.entryTimes.addAll(entryTimes);
-		this.broker = broker;
-		this.shareholder = shareholder;
-		this.status = status;
-	}
-
 	public Order(
 		long orderId,
 		Security security,
@@ -229,10 +228,11 @@ public class Order {
 			other.price,
 			other.broker,
 			other.shareholder,
-			LocalDateTime.now(),
+			other.entryTime,
 			null,
 			OrderStatus.NEW
 		);
+		losePriority();
 	}
 
 	public static Order createTempOrderByEnterRq(
@@ -257,7 +257,7 @@ public class Order {
 	}
 
 	public Order snapshot() {
-		return new Order(
+		Order snapshot = new Order(
 			orderId,
 			security,
 			side,
@@ -266,13 +266,15 @@ public class Order {
 			price,
 			broker,
 			shareholder,
-			new ArrayList<>(entryTimes),
+			entryTime,
 			OrderStatus.SNAPSHOT
 		);
+		snapshot.copyPriorityFrom(this);
+		return snapshot;
 	}
 
 	public Order snapshotWithQuantity(int newQuantity) {
-		return new Order(
+		Order snapshot = new Order(
 			orderId,
 			security,
 			side,
@@ -281,9 +283,24 @@ public class Order {
 			price,
 			broker,
 			shareholder,
-			entryTimes,
+			entryTime,
 			this.status
 		);
+		snapshot.copyPriorityFrom(this);
+		return snapshot;
+	}
+
+	protected void copyPriorityFrom(Order other) {
+		this.updateTime = other.updateTime;
+		this.priorityTime = other.priorityTime;
+		this.prioritySequence = other.prioritySequence;
+	}
+
+	private static long toPriorityTime(LocalDateTime time) {
+		if (time == null) {
+			return 0;
+		}
+		return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
 	}
 
 	public boolean matches(Order other) {
@@ -309,14 +326,48 @@ public class Order {
 		}
 	}
 
-	public void rollback(Order firstVersion) {
-		this.quantity = firstVersion.quantity;
-		copyEntryTimes(firstVersion.entryTimes);
+	public void restore(
+		int quantity,
+		int displayedQuantity,
+		OrderStatus status,
+		long priorityTime,
+		long prioritySequence
+	) {
+		this.quantity = quantity;
+		this.status = status;
+		this.priorityTime = priorityTime;
+		this.prioritySequence = prioritySequence;
+	}
+
+	public void restorePriority(long priorityTime, long prioritySequence) {
+		this.priorityTime = priorityTime;
+		this.prioritySequence = prioritySequence;
 	}
 
-	private void copyEntryTimes(List<LocalDateTime> entryTimes) {
-		this.entryTimes.clear();
-		entryTimes.forEach(time -> this.entryTimes.add(time));
+	/**
+	 * Lets the order pay for its trades out of a reservation the broker already holds for it, before
+	 * drawing on available credit. The reservation that is left over is swapped for the queued value
+	 * once matching succeeds.
+	 */
+	public void holdCredit(long amount) {
+		heldCredit = amount;
+		withdrawnCredit = 0;
+	}
+
+	public long creditBeyondHeld(long value) {
+		return value - Math.min(value, heldCredit);
+	}
+
+	public void spendCredit(long value, long withdrawn) {
+		heldCredit -= value - withdrawn;
+		withdrawnCredit += withdrawn;
+	}
+
+	public long refundCredit(long value) {
+		long withdrawn = Math.min(value, withdrawnCredit);
+		withdrawnCredit -= withdrawn;
+		heldCredit += value - withdrawn;
+		return withdrawn;
 	}
 
 	public void makeQuantityZero() {
@@ -325,7 +376,7 @@ public class Order {
 
 	public boolean queuesBefore(Order order) {
 		if (price == order.getPrice()) {
-			return entryTimes.getLast().isBefore(order.entryTimes.getLast());
+			return hasPriorityOver(order);
 		}
 
 		if (order.getSide() == Side.BUY) {
@@ -335,6 +386,47 @@ public class Order {
 		}
 	}
 
+	protected boolean hasPriorityOver(Order order) {
+		if (priorityTime != order.priorityTime) {
+			return priorityTime < order.priorityTime;
+		}
+		return prioritySequence < order.prioritySequence;
+	}
+
+	public void resetPriority(LocalDateTime updateTime) {
+		this.updateTime = updateTime;
+		this.priorityTime = toPriorityTime(updateTime);
+		losePriority();
+	}
+
+	/**
+	 * Sends the order to the back of its price level the next time it is
+	 * queued. The rank comes from the book rather than the clock, so a replay
+	 * of the same requests queues it in the same place.
+	 */
+	public void losePriority() {
+		this.prioritySequence = 0;
+		this.requeued = true;
+	}
+
+	boolean takeRequeued() {
+		boolean wasRequeued = requeued;
+		requeued = false;
+		return wasRequeued;
+	}
+
+	void rankBehind(Order order) {
+		priorityTime = Math.max(priorityTime, order.priorityTime);
+	}
+
+	boolean hasPriority() {
+		return prioritySequence != 0;
+	}
+
+	void assignPriority(long prioritySequence) {
+		this.prioritySequence = prioritySequence;
+	}
+
 	public void queue() {
 		if (this.status == OrderStatus.QUEUED) {
 			throw new CantQueueOrderException();
@@ -347,13 +439,20 @@ public class Order {
 	}
 
 	public void updateFromTempOrder(Order tempOrder) {
-		if (!this.willPriorityLostInUpdate(tempOrder) && this.side == Side.BUY) {
-			broker.increaseCreditBy(this.getValue());
-			broker.decreaseCreditBy(tempOrder.getValue());
+		boolean losesPriority = this.willPriorityLostInUpdate(tempOrder);
+		if (!losesPriority && this.side == Side.BUY) {
+			if (!broker.tryReplaceReservedCredit(this.getValue(), tempOrder.getValue())) {
+				throw new NotEnoughCreditException();
+			}
 		} else {
 			this.status = OrderStatus.UPDATING;
 		}
-		this.entryTimes.add(LocalDateTime.now());
+
+		if (losesPriority) {
+			resetPriority(tempOrder.entryTime);
+		} else {
+			this.updateTime = tempOrder.entryTime;
+		}
 		this.quantity = tempOrder.quantity;
 		this.price = tempOrder.price;
 	}
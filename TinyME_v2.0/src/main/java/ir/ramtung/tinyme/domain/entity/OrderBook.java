@@ -1,24 +1,59 @@
 package ir.ramtung.tinyme.domain.entity;
 
 import ir.ramtung.tinyme.domain.exception.NotFoundException;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.ListIterator;
+import ir.ramtung.tinyme.metrics.BookMetrics;
+import ir.ramtung.tinyme.metrics.jfr.StopLimitActivationEvent;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 
 @Getter
 public class OrderBook {
 
-	private final LinkedList<Order> buyQueue;
-	private final LinkedList<Order> sellQueue;
-	private final LinkedList<Order> stopLimitOrderSellQueue;
-	private final LinkedList<Order> stopLimitOrderBuyQueue;
+	private final OrderQueue buyQueue;
+	private final OrderQueue sellQueue;
+	private final OrderQueue stopLimitOrderSellQueue;
+	private final OrderQueue stopLimitOrderBuyQueue;
+
+	@Getter(AccessLevel.NONE)
+	private final Map<Long, PriceLevel.Node> buyOrdersById;
+
+	@Getter(AccessLevel.NONE)
+	private final Map<Long, PriceLevel.Node> sellOrdersById;
+
+	@Getter(AccessLevel.NONE)
+	private final Map<Shareholder, Integer> queuedSellQuantityByShareholder;
+
+	private final IndicativePriceTracker indicativePriceTracker;
+
+	private final ChangedLevels changedLevels;
+
+	private final TopOfBook topOfBook;
+
+	private final UndoJournal undoJournal;
+
+	@Setter
+	private BookMetrics metrics;
+
+	@Getter(AccessLevel.NONE)
+	private long nextPrioritySequence;
 
 	public OrderBook() {
-		buyQueue = new LinkedList<>();
-		sellQueue = new LinkedList<>();
-		stopLimitOrderSellQueue = new LinkedList<>();
-		stopLimitOrderBuyQueue = new LinkedList<>();
+		buyQueue = OrderQueue.createBuyQueue();
+		sellQueue = OrderQueue.createSellQueue();
+		stopLimitOrderSellQueue = OrderQueue.createStopLimitSellQueue();
+		stopLimitOrderBuyQueue = OrderQueue.createStopLimitBuyQueue();
+		buyOrdersById = new HashMap<>();
+		sellOrdersById = new HashMap<>();
+		queuedSellQuantityByShareholder = new HashMap<>();
+		indicativePriceTracker = new IndicativePriceTracker();
+		changedLevels = new ChangedLevels();
+		topOfBook = new TopOfBook(buyQueue, sellQueue);
+		undoJournal = new UndoJournal();
+		metrics = BookMetrics.DISABLED;
+		nextPrioritySequence = 1;
 	}
 
 	public Order getLowestPriorityActiveOrder(Side side) {
@@ -42,23 +77,40 @@ public class OrderBook {
 	}
 
 	public void enqueue(Order order) {
-		List<Order> queue = getQueue(order);
-		ListIterator<Order> it = queue.listIterator();
-		while (it.hasNext()) {
-			if (order.queuesBefore(it.next())) {
-				it.previous();
-				break;
+		OrderQueue queue = getQueue(order);
+		order.queue();
+		stampPriority(order, queue);
+		getIndex(order.getSide()).put(order.getOrderId(), queue.insert(order));
+		addToSellLedger(order, order.getTotalQuantity());
+		addToDepth(order, order.getTotalQuantity());
+	}
+
+	public void enqueueRestored(Order order) {
+		enqueue(order);
+		nextPrioritySequence = Math.max(nextPrioritySequence, order.getPrioritySequence() + 1);
+	}
+
+	private void stampPriority(Order order, OrderQueue queue) {
+		if (order.takeRequeued()) {
+			PriceLevel level = queue.levelOf(order);
+			if (level != null) {
+				order.rankBehind(level.getLast());
 			}
 		}
-		order.queue();
-		it.add(order);
+		if (!order.hasPriority()) {
+			order.assignPriority(nextPrioritySequence++);
+		}
+	}
+
+	private Map<Long, PriceLevel.Node> getIndex(Side side) {
+		return side == Side.BUY ? buyOrdersById : sellOrdersById;
 	}
 
-	private LinkedList<Order> getQueue(Side side) {
+	private OrderQueue getQueue(Side side) {
 		return side == Side.BUY ? buyQueue : sellQueue;
 	}
 
-	private List<Order> getQueue(Order order) {
+	private OrderQueue getQueue(Order order) {
 		if (order instanceof StopLimitOrder) {
 			return (order.getSide() == Side.BUY) ? stopLimitOrderBuyQueue : stopLimitOrderSellQueue;
 		} else {
@@ -67,52 +119,72 @@ public class OrderBook {
 	}
 
 	public Order findByOrderId(Side side, long orderId) {
-		List<Order> queue = (side == Side.BUY) ? buyQueue : sellQueue;
-		Order order = searchForOrderInQueue(side, orderId, queue);
-		if (order != null) {
-			return order;
-		}
-
-		queue = (side == Side.BUY) ? stopLimitOrderBuyQueue : stopLimitOrderSellQueue;
-		order = searchForOrderInQueue(side, orderId, queue);
-
-		if (order == null) {
+		PriceLevel.Node node = getIndex(side).get(orderId);
+		if (node == null) {
 			throw new NotFoundException();
 		}
-		return order;
-	}
-
-	private Order searchForOrderInQueue(Side side, long orderId, List<Order> queue) {
-		for (Order order : queue) {
-			if (order.getOrderId() == orderId) {
-				return order;
-			}
-		}
-		return null;
+		return node.getOrder();
 	}
 
 	public boolean isThereOrderWithId(Side side, long orderId) {
-		try {
-			findByOrderId(side, orderId);
-			return true;
-		} catch (NotFoundException exp) {
-			return false;
-		}
+		return getIndex(side).containsKey(orderId);
 	}
 
 	public void removeByOrderId(Side side, long orderId) {
 		Order targetOrder = findByOrderId(side, orderId);
-		List<Order> queue = getQueue(targetOrder);
 		targetOrder.delete();
-		queue.remove(targetOrder);
+		unlink(targetOrder);
 	}
 
 	public void removeOrder(Order order) {
-		List<Order> queue = getQueue(order);
-		queue.remove(order);
+		unlink(order);
 		order.delete();
 	}
 
+	private void unlink(Order order) {
+		PriceLevel.Node node = getIndex(order.getSide()).remove(order.getOrderId());
+		if (node != null) {
+			getQueue(node.getOrder()).remove(node);
+			addToSellLedger(node.getOrder(), -node.getOrder().getTotalQuantity());
+			addToDepth(node.getOrder(), -node.getOrder().getTotalQuantity());
+		}
+	}
+
+	public void updateQueuedQuantity(Order order, int previousTotalQuantity) {
+		PriceLevel.Node node = getIndex(order.getSide()).get(order.getOrderId());
+		if (node != null && node.getOrder() == order) {
+			node.getLevel().quantityChanged(node, order.getTotalQuantity() - previousTotalQuantity);
+			addToSellLedger(order, order.getTotalQuantity() - previousTotalQuantity);
+			addToDepth(order, order.getTotalQuantity() - previousTotalQuantity);
+		}
+	}
+
+	private void addToDepth(Order order, int quantity) {
+		if (order instanceof StopLimitOrder) {
+			return;
+		}
+
+		changedLevels.mark(order.getSide(), order.getPrice());
+		topOfBook.touched(order.getSide(), order.getPrice());
+		indicativePriceTracker.apply(order.getSide(), order.getPrice(), quantity);
+	}
+
+	private void addToSellLedger(Order order, int quantity) {
+		if (order.isBuy() || quantity == 0) {
+			return;
+		}
+
+		queuedSellQuantityByShareholder.merge(
+			order.getShareholder(),
+			quantity,
+			(current, delta) -> (current + delta == 0) ? null : current + delta
+		);
+	}
+
+	public PriceLevel findLevel(Side side, int price) {
+		return getQueue(side).findLevel(price);
+	}
+
 	public Order findOrderToMatchWith(Order newOrder) {
 		var queue = getQueue(newOrder.getSide().opposite());
 		if (queue.isEmpty()) {
@@ -127,9 +199,12 @@ public class OrderBook {
 	}
 
 	public void putBack(Order order) {
-		LinkedList<Order> queue = getQueue(order.getSide());
+		OrderQueue queue = getQueue(order.getSide());
 		order.queue();
-		queue.addFirst(order);
+		stampPriority(order, queue);
+		getIndex(order.getSide()).put(order.getOrderId(), queue.insertFirst(order));
+		addToSellLedger(order, order.getTotalQuantity());
+		addToDepth(order, order.getTotalQuantity());
 	}
 
 	public void restoreSellOrder(Order sellOrder) {
@@ -142,18 +217,7 @@ public class OrderBook {
 	}
 
 	public int totalSellQuantityByShareholder(Shareholder shareholder) {
-		return (
-			sellQueue
-				.stream()
-				.filter(order -> order.getShareholder().equals(shareholder))
-				.mapToInt(Order::getTotalQuantity)
-				.sum() +
-			stopLimitOrderSellQueue
-				.stream()
-				.filter(order -> order.getShareholder().equals(shareholder))
-				.mapToInt(Order::getTotalQuantity)
-				.sum()
-		);
+		return queuedSellQuantityByShareholder.getOrDefault(shareholder, 0);
 	}
 
 	private StopLimitOrder findSatisfiedStopLimitOrderBuyQueue(int lastTradePrice) {
@@ -174,7 +238,7 @@ public class OrderBook {
 		return sloOrder;
 	}
 
-	private StopLimitOrder findSatisfiedStopLimitOrder(List<Order> queue, int lastTradePrice) {
+	private StopLimitOrder findSatisfiedStopLimitOrder(OrderQueue queue, int lastTradePrice) {
 		if (queue.isEmpty()) {
 			return null;
 		}
@@ -182,7 +246,16 @@ public class OrderBook {
 		StopLimitOrder sloOrder = (StopLimitOrder) queue.getFirst();
 		if (sloOrder.isSatisfied(lastTradePrice)) {
 			sloOrder.delete();
-			queue.remove(sloOrder);
+			unlink(sloOrder);
+
+			StopLimitActivationEvent event = new StopLimitActivationEvent();
+			if (event.shouldCommit()) {
+				event.isin = sloOrder.getSecurity().getIsin();
+				event.orderId = sloOrder.getOrderId();
+				event.stopPrice = sloOrder.getStopPrice();
+				event.lastTradePrice = lastTradePrice;
+				event.commit();
+			}
 			return sloOrder;
 		}
 		return null;
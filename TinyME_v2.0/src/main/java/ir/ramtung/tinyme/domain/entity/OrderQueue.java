@@ -0,0 +1,149 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+public class OrderQueue extends AbstractList<Order> {
+
+	private final TreeMap<Integer, PriceLevel> levels;
+	private final ToIntFunction<Order> levelKey;
+	private int size;
+
+	private OrderQueue(Comparator<Integer> priority, ToIntFunction<Order> levelKey) {
+		this.levels = new TreeMap<>(priority);
+		this.levelKey = levelKey;
+	}
+
+	public static OrderQueue createBuyQueue() {
+		return new OrderQueue(Comparator.reverseOrder(), Order::getPrice);
+	}
+
+	public static OrderQueue createSellQueue() {
+		return new OrderQueue(Comparator.naturalOrder(), Order::getPrice);
+	}
+
+	public static OrderQueue createStopLimitBuyQueue() {
+		return new OrderQueue(Comparator.naturalOrder(), order -> ((StopLimitOrder) order).getStopPrice());
+	}
+
+	public static OrderQueue createStopLimitSellQueue() {
+		return new OrderQueue(Comparator.reverseOrder(), order -> ((StopLimitOrder) order).getStopPrice());
+	}
+
+	public PriceLevel.Node insert(Order order) {
+		PriceLevel level = levels.computeIfAbsent(levelKey.applyAsInt(order), PriceLevel::new);
+		size++;
+		return level.add(order);
+	}
+
+	public PriceLevel.Node insertFirst(Order order) {
+		PriceLevel level = levels.computeIfAbsent(levelKey.applyAsInt(order), PriceLevel::new);
+		size++;
+		return level.addFirst(order);
+	}
+
+	public void remove(PriceLevel.Node node) {
+		PriceLevel level = node.getLevel();
+		level.unlink(node);
+		size--;
+		dropIfEmpty(level);
+	}
+
+	private void dropIfEmpty(PriceLevel level) {
+		if (level.isEmpty()) {
+			levels.remove(level.getPrice());
+		}
+	}
+
+	public Collection<PriceLevel> levels() {
+		return Collections.unmodifiableCollection(levels.values());
+	}
+
+	public PriceLevel firstLevel() {
+		var first = levels.firstEntry();
+		return (first == null) ? null : first.getValue();
+	}
+
+	public PriceLevel levelOf(Order order) {
+		return levels.get(levelKey.applyAsInt(order));
+	}
+
+	public PriceLevel findLevel(int price) {
+		return levels.get(price);
+	}
+
+	public int levelCount() {
+		return levels.size();
+	}
+
+	@Override
+	public Order getFirst() {
+		if (levels.isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return levels.firstEntry().getValue().getFirst();
+	}
+
+	@Override
+	public Order getLast() {
+		if (levels.isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return levels.lastEntry().getValue().getLast();
+	}
+
+	@Override
+	public Order get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+
+		for (PriceLevel level : levels.values()) {
+			if (index < level.getSize()) {
+				return level.get(index);
+			}
+			index -= level.getSize();
+		}
+		throw new IndexOutOfBoundsException(index);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Iterator<Order> iterator() {
+		return new Iterator<>() {
+			private final Iterator<PriceLevel> levelIterator = levels.values().iterator();
+			private Iterator<Order> orderIterator = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!orderIterator.hasNext() && levelIterator.hasNext()) {
+					orderIterator = levelIterator.next().iterator();
+				}
+				return orderIterator.hasNext();
+			}
+
+			@Override
+			public Order next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return orderIterator.next();
+			}
+		};
+	}
+}
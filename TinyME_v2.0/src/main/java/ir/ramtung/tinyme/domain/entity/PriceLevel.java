@@ -0,0 +1,158 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+@Getter
+public class PriceLevel implements Iterable<Order> {
+
+	private final int price;
+	private int size;
+	private long totalQuantity;
+	private long displayedQuantity;
+
+	@Getter(AccessLevel.NONE)
+	private Node head;
+
+	@Getter(AccessLevel.NONE)
+	private Node tail;
+
+	public PriceLevel(int price) {
+		this.price = price;
+	}
+
+	public static final class Node {
+
+		private final Order order;
+		private final PriceLevel level;
+		private int displayedQuantity;
+		private Node prev;
+		private Node next;
+
+		private Node(Order order, PriceLevel level) {
+			this.order = order;
+			this.level = level;
+		}
+
+		public Order getOrder() {
+			return order;
+		}
+
+		public PriceLevel getLevel() {
+			return level;
+		}
+	}
+
+	public Node add(Order order) {
+		Node after = tail;
+		while (after != null && order.queuesBefore(after.order)) {
+			after = after.prev;
+		}
+		return linkAfter(after, order);
+	}
+
+	public Node addFirst(Order order) {
+		return linkAfter(null, order);
+	}
+
+	public void unlink(Node node) {
+		if (node.prev == null) {
+			head = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+
+		if (node.next == null) {
+			tail = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+
+		node.prev = null;
+		node.next = null;
+		size--;
+		totalQuantity -= node.order.getTotalQuantity();
+		displayedQuantity -= node.displayedQuantity;
+	}
+
+	void quantityChanged(Node node, long totalDelta) {
+		totalQuantity += totalDelta;
+		int displayed = node.order.getQuantity();
+		displayedQuantity += displayed - node.displayedQuantity;
+		node.displayedQuantity = displayed;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public Order getFirst() {
+		if (head == null) {
+			throw new NoSuchElementException();
+		}
+		return head.order;
+	}
+
+	public Order getLast() {
+		if (tail == null) {
+			throw new NoSuchElementException();
+		}
+		return tail.order;
+	}
+
+	Order get(int index) {
+		Node node = head;
+		for (int i = 0; i < index; i++) {
+			node = node.next;
+		}
+		return node.order;
+	}
+
+	private Node linkAfter(Node after, Order order) {
+		Node node = new Node(order, this);
+		node.displayedQuantity = order.getQuantity();
+		node.prev = after;
+		node.next = (after == null) ? head : after.next;
+
+		if (node.next == null) {
+			tail = node;
+		} else {
+			node.next.prev = node;
+		}
+
+		if (after == null) {
+			head = node;
+		} else {
+			after.next = node;
+		}
+
+		size++;
+		totalQuantity += order.getTotalQuantity();
+		displayedQuantity += node.displayedQuantity;
+		return node;
+	}
+
+	@Override
+	public Iterator<Order> iterator() {
+		return new Iterator<>() {
+			private Node current = head;
+
+			@Override
+			public boolean hasNext() {
+				return current != null;
+			}
+
+			@Override
+			public Order next() {
+				if (current == null) {
+					throw new NoSuchElementException();
+				}
+				Order order = current.order;
+				current = current.next;
+				return order;
+			}
+		};
+	}
+}
@@ -20,7 +20,6 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Timer;
 
 import lombok.Builder;
 import lombok.Getter;
@@ -59,14 +58,14 @@ public class Security {
 	@Builder.Default
 	private SecurityState state = SecurityState.CONTINUOUS;
 
-	private ExpiringService expiringService = new ExpiringService();
+	private ExpiringService expiringService;
 
 	public SecurityResponse addNewOrder(Order newOrder) {
 		List<SecurityStats> stats = currentBehave.addNewOrder(newOrder, orderBook, lastTradePrice);
 		updateLastTradePrice(stats);
 		activateStopLimitOrders(stats);
 		if (newOrder.getExpiryDate() != null) {
-			expiringService.scheduleexpiryDate(newOrder);
+			scheduleExpiry(newOrder);
 		}
 		return new SecurityResponse(stats);
 	}
@@ -76,20 +75,40 @@ public class Security {
 		List<SecurityStats> stats = currentBehave.updateOrder(tempOrder, mainOrder, orderBook, lastTradePrice);
 		updateLastTradePrice(stats);
 		activateStopLimitOrders(stats);
+		if (!isThereOrderWithId(tempOrder.getSide(), tempOrder.getOrderId())) {
+			cancelExpiry(tempOrder.getSide(), tempOrder.getOrderId());
+		}
 		return new SecurityResponse(stats);
 	}
 
 	private void activateStopLimitOrders(List<SecurityStats> stats) {
+		long started = System.nanoTime();
+		int activatedBefore = orderBook.getStopLimitOrderBuyQueue().size() + orderBook.getStopLimitOrderSellQueue().size();
 		stats.addAll(currentBehave.activateStopLimitOrders(orderBook, lastTradePrice));
 		updateLastTradePrice(stats);
+		int activated = activatedBefore - orderBook.getStopLimitOrderBuyQueue().size() - orderBook.getStopLimitOrderSellQueue().size();
+		orderBook.getMetrics().recordStopLimitActivation(activated, System.nanoTime() - started);
 	}
 
 	public SecurityResponse deleteOrder(Side side, long orderId) {
 		Order order = findByOrderId(side, orderId);
 		List<SecurityStats> stats = currentBehave.deleteOrder(order, orderBook, lastTradePrice);
+		cancelExpiry(side, orderId);
 		return new SecurityResponse(stats);
 	}
 
+	private void scheduleExpiry(Order order) {
+		if (expiringService != null && isThereOrderWithId(order.getSide(), order.getOrderId())) {
+			expiringService.scheduleexpiryDate(order);
+		}
+	}
+
+	private void cancelExpiry(Side side, long orderId) {
+		if (expiringService != null) {
+			expiringService.cancel(this, side, orderId);
+		}
+	}
+
 	public SecurityResponse changeMatchingState(SecurityState newState) {
 		List<SecurityStats> stats = currentBehave.changeMatchingState(orderBook, lastTradePrice, newState);
 		updateLastTradePrice(stats);
@@ -105,6 +124,12 @@ public class Security {
 		}
 	}
 
+	public void restoreState(SecurityState restoredState, int restoredLastTradePrice) {
+		currentBehave = getBehaveForState(restoredState);
+		lastTradePrice = restoredLastTradePrice;
+		setState(restoredState);
+	}
+
 	private void setState(SecurityState newState) {
 		this.state = newState;
 	}
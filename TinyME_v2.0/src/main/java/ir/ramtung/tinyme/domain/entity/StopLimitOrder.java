@@ -3,7 +3,6 @@ package ir.ramtung.tinyme.domain.entity;
 import ir.ramtung.tinyme.domain.exception.InvalidStopLimitPriceException;
 import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
 import java.time.LocalDateTime;
-import java.util.List;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -74,11 +73,11 @@ public class StopLimitOrder extends Order {
 		int price,
 		Broker broker,
 		Shareholder shareholder,
-		List<LocalDateTime> entryTimes,
+		LocalDateTime entryTime,
 		int stopPrice,
 		OrderStatus status
 	) {
-		super(orderId, security, side, quantity, 0, price, broker, shareholder, entryTimes, status);
+		super(orderId, security, side, quantity, 0, price, broker, shareholder, entryTime, status);
 		this.stopPrice = stopPrice;
 	}
 
@@ -106,7 +105,7 @@ public class StopLimitOrder extends Order {
 
 	@Override
 	public StopLimitOrder snapshot() {
-		return new StopLimitOrder(
+		StopLimitOrder snapshot = new StopLimitOrder(
 			orderId,
 			security,
 			side,
@@ -114,17 +113,19 @@ public class StopLimitOrder extends Order {
 			price,
 			broker,
 			shareholder,
-			entryTimes,
+			entryTime,
 			stopPrice,
 			OrderStatus.SNAPSHOT
 		);
+		snapshot.copyPriorityFrom(this);
+		return snapshot;
 	}
 
 	@Override
 	public boolean queuesBefore(Order order) {
 		StopLimitOrder slo = (StopLimitOrder) order;
 		if (stopPrice == slo.stopPrice) {
-			return entryTimes.getLast().isBefore(slo.entryTimes.getLast());
+			return hasPriorityOver(slo);
 		}
 		if (this.side == Side.BUY) {
 			return stopPrice < slo.getStopPrice();
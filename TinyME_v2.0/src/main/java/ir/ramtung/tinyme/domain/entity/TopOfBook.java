@@ -0,0 +1,132 @@
+package ir.ramtung.tinyme.domain.entity;
+
+/**
+ * Best bid and offer of an order book, with the displayed quantity and order count at each best level.
+ * Changes that cannot affect the top are ignored; the rest mark the side stale and the next query
+ * re-reads it from the queue. Queries never throw: an empty side reports {@link #NO_PRICE} and zeros.
+ */
+public class TopOfBook {
+
+	public static final int NO_PRICE = 0;
+
+	private static final class Best {
+
+		private final OrderQueue queue;
+		private final boolean buy;
+		private boolean priceStale = true;
+		private boolean depthStale = true;
+		private int price;
+		private long quantity;
+		private int orders;
+
+		private Best(OrderQueue queue, boolean buy) {
+			this.queue = queue;
+			this.buy = buy;
+		}
+
+		private boolean touched(int changedPrice) {
+			if (priceStale) {
+				return true;
+			}
+			if (price != NO_PRICE && (buy ? changedPrice < price : changedPrice > price)) {
+				return false;
+			}
+			priceStale = true;
+			depthStale = true;
+			return true;
+		}
+
+		private int price() {
+			if (priceStale) {
+				PriceLevel level = queue.firstLevel();
+				price = (level == null) ? NO_PRICE : level.getPrice();
+				priceStale = false;
+			}
+			return price;
+		}
+
+		private void refreshDepth() {
+			if (depthStale) {
+				PriceLevel level = queue.firstLevel();
+				price = (level == null) ? NO_PRICE : level.getPrice();
+				quantity = (level == null) ? 0 : level.getDisplayedQuantity();
+				orders = (level == null) ? 0 : level.getSize();
+				priceStale = false;
+				depthStale = false;
+			}
+		}
+	}
+
+	private final Best bid;
+	private final Best ask;
+	private boolean touchedSinceTaken = true;
+	private int takenBidPrice;
+	private long takenBidQuantity;
+	private int takenAskPrice;
+	private long takenAskQuantity;
+
+	TopOfBook(OrderQueue buyQueue, OrderQueue sellQueue) {
+		bid = new Best(buyQueue, true);
+		ask = new Best(sellQueue, false);
+	}
+
+	void touched(Side side, int price) {
+		if ((side == Side.BUY ? bid : ask).touched(price)) {
+			touchedSinceTaken = true;
+		}
+	}
+
+	private Best best(Side side) {
+		return (side == Side.BUY) ? bid : ask;
+	}
+
+	public int getBestPrice(Side side) {
+		return best(side).price();
+	}
+
+	public long getBestQuantity(Side side) {
+		Best best = best(side);
+		best.refreshDepth();
+		return best.quantity;
+	}
+
+	public int getBestOrderCount(Side side) {
+		Best best = best(side);
+		best.refreshDepth();
+		return best.orders;
+	}
+
+	public boolean isEmpty(Side side) {
+		return best(side).price() == NO_PRICE;
+	}
+
+	public boolean crosses(Order order) {
+		int opposite = best(order.getSide().opposite()).price();
+		return opposite != NO_PRICE && order.canTradeWithPrice(opposite);
+	}
+
+	/**
+	 * Returns whether the best prices or their quantities differ from the last time this returned, and
+	 * remembers the current top for the next call.
+	 */
+	public boolean takeChange() {
+		if (!touchedSinceTaken) {
+			return false;
+		}
+		touchedSinceTaken = false;
+
+		int bidPrice = getBestPrice(Side.BUY);
+		long bidQuantity = getBestQuantity(Side.BUY);
+		int askPrice = getBestPrice(Side.SELL);
+		long askQuantity = getBestQuantity(Side.SELL);
+		boolean changed = bidPrice != takenBidPrice
+			|| bidQuantity != takenBidQuantity
+			|| askPrice != takenAskPrice
+			|| askQuantity != takenAskQuantity;
+		takenBidPrice = bidPrice;
+		takenBidQuantity = bidQuantity;
+		takenAskPrice = askPrice;
+		takenAskQuantity = askQuantity;
+		return changed;
+	}
+}
@@ -16,8 +16,6 @@ public class Trade {
 	private int quantity;
 	private Order buy;
 	private Order sell;
-	private Order sellFirstVersion;
-	private Order buyFirstVersion;
 	private boolean isBuyQueued;
 
 	public Trade(Security security, int price, int quantity, Order order1, Order order2) {
@@ -27,13 +25,9 @@ public class Trade {
 		if (order1.getSide() == Side.BUY) {
 			this.buy = order1;
 			this.sell = order2;
-			this.sellFirstVersion = order2.snapshot();
-			this.buyFirstVersion = order1.snapshot();
 		} else {
 			this.buy = order2;
 			this.sell = order1;
-			this.sellFirstVersion = order1.snapshot();
-			this.buyFirstVersion = order2.snapshot();
 		}
 		this.isBuyQueued = (this.buy.getStatus() == OrderStatus.QUEUED);
 	}
@@ -44,13 +38,9 @@ public class Trade {
 		int quantity,
 		Order order1,
 		Order order2,
-		Order sellFirstVersion,
-		Order buyFirstVersion,
 		boolean isBuyQueued
 	) {
 		this(security, price, quantity, order1, order2);
-		this.sellFirstVersion = sellFirstVersion;
-		this.buyFirstVersion = buyFirstVersion;
 		this.isBuyQueued = isBuyQueued;
 	}
 
@@ -62,13 +52,9 @@ public class Trade {
 		if (order1.getSide() == Side.BUY) {
 			this.buy = order1;
 			this.sell = order2;
-			this.sellFirstVersion = order2.snapshot();
-			this.buyFirstVersion = order1.snapshot();
 		} else {
 			this.buy = order2;
 			this.sell = order1;
-			this.sellFirstVersion = order1.snapshot();
-			this.buyFirstVersion = order2.snapshot();
 		}
 
 		this.isBuyQueued = (this.buy.getStatus() == OrderStatus.QUEUED);
@@ -80,8 +66,6 @@ public class Trade {
 		this.quantity = Math.min(sellOrder.getQuantity(), buyOrder.getQuantity());
 		this.buy = buyOrder;
 		this.sell = sellOrder;
-		this.buyFirstVersion = buyOrder.snapshot();
-		this.sellFirstVersion = sellOrder.snapshot();
 		this.isBuyQueued = (buyOrder.status == OrderStatus.QUEUED);
 	}
 
@@ -89,10 +73,6 @@ public class Trade {
 		return (long) price * quantity;
 	}
 
-	private void decreaseSellersCredit() {
-		sell.getBroker().decreaseCreditBy(getTradedValue());
-	}
-
 	private void increaseSellersCredit() {
 		sell.getBroker().increaseCreditBy(getTradedValue());
 	}
@@ -101,22 +81,10 @@ public class Trade {
 		buy.getBroker().decreaseCreditBy(getTradedValue());
 	}
 
-	private void increaseBuyersCredit() {
-		buy.getBroker().increaseCreditBy(getTradedValue());
-	}
-
 	private void increaseBuyersPosition() {
 		buy.getShareholder().incPosition(security, quantity);
 	}
 
-	private void decreaseBuyersPosition() {
-		buy.getShareholder().decPosition(security, quantity);
-	}
-
-	private void increaseSellersPosition() {
-		sell.getShareholder().incPosition(security, quantity);
-	}
-
 	private void decreaseSellersPosition() {
 		sell.getShareholder().decPosition(security, quantity);
 	}
@@ -135,32 +103,4 @@ public class Trade {
 		buy.decreaseQuantity(quantity);
 		sell.decreaseQuantity(quantity);
 	}
-
-	public void rollback() {
-		if (isBuyQueued) {
-            buyQueuedRollback();
-        }
-        else {
-            sellQueuedRollback();
-        }
-	}
-
-	private void sellQueuedRollback() {
-		increaseBuyersCredit();
-		decreaseSellersCredit();
-		decreaseBuyersPosition();
-		increaseSellersPosition();
-		sell.rollback(sellFirstVersion);
-	}
-
-	private void buyQueuedRollback() {
-		if (buy.getStatus() == OrderStatus.DONE) {
-            increaseBuyersCredit();
-        }
-        
-		decreaseSellersCredit();
-		decreaseBuyersPosition();
-		increaseSellersPosition();
-		buy.rollback(buyFirstVersion);
-	}
 }
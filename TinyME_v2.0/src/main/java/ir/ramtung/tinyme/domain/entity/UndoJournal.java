@@ -0,0 +1,72 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import java.util.Arrays;
+
+public class UndoJournal {
+
+	private static final int INITIAL_CAPACITY = 32;
+
+	private Order[] orders;
+	private int[] quantities;
+	private int[] displayedQuantities;
+	private OrderStatus[] statuses;
+	private long[] priorityTimes;
+	private long[] prioritySequences;
+	private int size;
+
+	public UndoJournal() {
+		orders = new Order[INITIAL_CAPACITY];
+		quantities = new int[INITIAL_CAPACITY];
+		displayedQuantities = new int[INITIAL_CAPACITY];
+		statuses = new OrderStatus[INITIAL_CAPACITY];
+		priorityTimes = new long[INITIAL_CAPACITY];
+		prioritySequences = new long[INITIAL_CAPACITY];
+	}
+
+	public void clear() {
+		Arrays.fill(orders, 0, size, null);
+		size = 0;
+	}
+
+	public void record(Order order) {
+		if (size == orders.length) {
+			grow();
+		}
+
+		orders[size] = order;
+		quantities[size] = order.getTotalQuantity();
+		displayedQuantities[size] = (order instanceof IcebergOrder icebergOrder)
+			? icebergOrder.getDisplayedQuantity()
+			: order.getTotalQuantity();
+		statuses[size] = order.getStatus();
+		priorityTimes[size] = order.getPriorityTime();
+		prioritySequences[size] = order.getPrioritySequence();
+		size++;
+	}
+
+	public Order peekOrder() {
+		return (size == 0) ? null : orders[size - 1];
+	}
+
+	public void restoreLast() {
+		size--;
+		orders[size].restore(
+			quantities[size],
+			displayedQuantities[size],
+			statuses[size],
+			priorityTimes[size],
+			prioritySequences[size]
+		);
+		orders[size] = null;
+	}
+
+	private void grow() {
+		int capacity = orders.length * 2;
+		orders = Arrays.copyOf(orders, capacity);
+		quantities = Arrays.copyOf(quantities, capacity);
+		displayedQuantities = Arrays.copyOf(displayedQuantities, capacity);
+		statuses = Arrays.copyOf(statuses, capacity);
+		priorityTimes = Arrays.copyOf(priorityTimes, capacity);
+		prioritySequences = Arrays.copyOf(prioritySequences, capacity);
+	}
+}
@@ -15,6 +15,7 @@ import ir.ramtung.tinyme.domain.exception.UpdateMinimumExecutionQuantityExceptio
 import ir.ramtung.tinyme.domain.service.ApplicationServiceResponse.ApplicationServiceType;
 import ir.ramtung.tinyme.messaging.Message;
 import ir.ramtung.tinyme.messaging.TradeDTO;
+import ir.ramtung.tinyme.messaging.event.BestBidOfferChangedEvent;
 import ir.ramtung.tinyme.messaging.event.Event;
 import ir.ramtung.tinyme.messaging.event.OpeningPriceEvent;
 import ir.ramtung.tinyme.messaging.event.OrderAcceptedEvent;
@@ -29,13 +30,17 @@ import ir.ramtung.tinyme.messaging.exception.InvalidRequestException;
 import ir.ramtung.tinyme.messaging.request.ChangeMatchingStateRq;
 import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
 import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.messaging.request.ExpireOrderRq;
 import ir.ramtung.tinyme.messaging.request.MatchingState;
+import ir.ramtung.tinyme.metrics.EngineMetrics;
+import ir.ramtung.tinyme.metrics.TraceStage;
 import ir.ramtung.tinyme.repository.BrokerRepository;
 import ir.ramtung.tinyme.repository.SecurityRepository;
 import ir.ramtung.tinyme.repository.ShareholderRepository;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -44,35 +49,57 @@ public class ApplicationServices {
 	private SecurityRepository securityRepository;
 	private BrokerRepository brokerRepository;
 	private ShareholderRepository shareholderRepository;
-	private Security security;
-	private Broker broker;
-	private Shareholder shareholder;
+	private EngineMetrics engineMetrics;
+
+	private record RequestContext(Security security, Broker broker, Shareholder shareholder) {}
 
 	public ApplicationServices(
 		SecurityRepository securityRepository,
 		BrokerRepository brokerRepository,
 		ShareholderRepository shareholderRepository
+	) {
+		this(securityRepository, brokerRepository, shareholderRepository, EngineMetrics.disabled());
+	}
+
+	@Autowired
+	public ApplicationServices(
+		SecurityRepository securityRepository,
+		BrokerRepository brokerRepository,
+		ShareholderRepository shareholderRepository,
+		EngineMetrics engineMetrics
 	) {
 		this.brokerRepository = brokerRepository;
 		this.shareholderRepository = shareholderRepository;
 		this.securityRepository = securityRepository;
+		this.engineMetrics = engineMetrics;
 	}
 
-	private void setEntitiesByRq(EnterOrderRq req) {
-		this.security = securityRepository.findSecurityByIsin(req.getSecurityIsin());
-		this.broker = brokerRepository.findBrokerById(req.getBrokerId());
-		this.shareholder = shareholderRepository.findShareholderById(req.getShareholderId());
+	private RequestContext createContextByRq(EnterOrderRq req) {
+		return new RequestContext(
+			securityRepository.findSecurityByIsin(req.getSecurityIsin()),
+			brokerRepository.findBrokerById(req.getBrokerId()),
+			shareholderRepository.findShareholderById(req.getShareholderId())
+		);
 	}
 
-	private void setEntitiesByRq(DeleteOrderRq req) {
-		this.security = securityRepository.findSecurityByIsin(req.getSecurityIsin());
+	private RequestContext createContextByRq(DeleteOrderRq req) {
+		return new RequestContext(securityRepository.findSecurityByIsin(req.getSecurityIsin()), null, null);
 	}
 
-	private void setEntitiesByRq(ChangeMatchingStateRq req) {
-		this.security = securityRepository.findSecurityByIsin(req.getSecurityIsin());
+	private RequestContext createContextByRq(ChangeMatchingStateRq req) {
+		return new RequestContext(securityRepository.findSecurityByIsin(req.getSecurityIsin()), null, null);
 	}
 
 	private void validateDeleteOrderRq(DeleteOrderRq deleteOrderRq) {
+		long started = System.nanoTime();
+		try {
+			checkDeleteOrderRq(deleteOrderRq);
+		} finally {
+			engineMetrics.recordValidation(System.nanoTime() - started);
+		}
+	}
+
+	private void checkDeleteOrderRq(DeleteOrderRq deleteOrderRq) {
 		List<String> errors = deleteOrderRq.validateYourFields();
 
 		if (!securityRepository.isThereSecurityWithIsin(deleteOrderRq.getSecurityIsin())) {
@@ -97,6 +124,15 @@ public class ApplicationServices {
 	}
 
 	private void generalEnterOrderValidation(EnterOrderRq enterOrderRq) {
+		long started = System.nanoTime();
+		try {
+			checkEnterOrderRq(enterOrderRq);
+		} finally {
+			engineMetrics.recordValidation(System.nanoTime() - started);
+		}
+	}
+
+	private void checkEnterOrderRq(EnterOrderRq enterOrderRq) {
 		List<String> errors = enterOrderRq.validateYourFields();
 		if (!securityRepository.isThereSecurityWithIsin(enterOrderRq.getSecurityIsin())) {
 			errors.add(Message.UNKNOWN_SECURITY_ISIN);
@@ -119,6 +155,15 @@ public class ApplicationServices {
 	}
 
 	private void validateUpdateOrderRq(EnterOrderRq updateOrderRq) {
+		long started = System.nanoTime();
+		try {
+			checkUpdateOrderRq(updateOrderRq);
+		} finally {
+			engineMetrics.recordValidation(System.nanoTime() - started);
+		}
+	}
+
+	private void checkUpdateOrderRq(EnterOrderRq updateOrderRq) {
 		try {
 			Security security = securityRepository.findSecurityByIsin(updateOrderRq.getSecurityIsin());
 			Order order = security.findByOrderId(updateOrderRq.getSide(), updateOrderRq.getOrderId());
@@ -139,6 +184,15 @@ public class ApplicationServices {
 	}
 
 	private void validateChangeMatchingState(ChangeMatchingStateRq req) {
+		long started = System.nanoTime();
+		try {
+			checkChangeMatchingState(req);
+		} finally {
+			engineMetrics.recordValidation(System.nanoTime() - started);
+		}
+	}
+
+	private void checkChangeMatchingState(ChangeMatchingStateRq req) {
 		try {
 			securityRepository.findSecurityByIsin(req.getSecurityIsin());
 		} catch (NotFoundException exp) {
@@ -146,7 +200,11 @@ public class ApplicationServices {
 		}
 	}
 
-	private List<Event> createEventsFormSecurityStats(List<SecurityStats> securityStats, long requestId) {
+	private List<Event> createEventsFormSecurityStats(
+		Security security,
+		List<SecurityStats> securityStats,
+		long requestId
+	) {
 		List<Event> events = new ArrayList<>();
 		for (SecurityStats stats : securityStats) {
 			if (stats instanceof SituationalStats situationalStats) {
@@ -154,17 +212,31 @@ public class ApplicationServices {
 			} else if (stats instanceof ExecuteStats executeStats) {
 				events.addAll(createEventsFromExecuteStats(executeStats, requestId));
 			} else if (stats instanceof StateStats stateStats) {
-				events.add(createSecurityStateChangedEvent(stateStats));
+				events.add(createSecurityStateChangedEvent(security, stateStats));
 			} else if (stats instanceof AuctionStats auctionStats) {
-				events.add(createOpeningPriceEvent(auctionStats));
+				events.add(createOpeningPriceEvent(security, auctionStats));
 			} else {
 				throw new UnknownError("Unknown SecurityStats");
 			}
 		}
+		if (security.getOrderBook().getTopOfBook().takeChange()) {
+			events.add(createBestBidOfferChangedEvent(security));
+		}
 		return events;
 	}
 
-	private Event createOpeningPriceEvent(AuctionStats auctionStats) {
+	private Event createBestBidOfferChangedEvent(Security security) {
+		TopOfBook topOfBook = security.getOrderBook().getTopOfBook();
+		return new BestBidOfferChangedEvent(
+			security.getIsin(),
+			topOfBook.getBestPrice(Side.BUY),
+			topOfBook.getBestQuantity(Side.BUY),
+			topOfBook.getBestPrice(Side.SELL),
+			topOfBook.getBestQuantity(Side.SELL)
+		);
+	}
+
+	private Event createOpeningPriceEvent(Security security, AuctionStats auctionStats) {
 		return new OpeningPriceEvent(
 			security.getIsin(),
 			auctionStats.getOpeningPrice(),
@@ -172,7 +244,7 @@ public class ApplicationServices {
 		);
 	}
 
-	private Event createSecurityStateChangedEvent(StateStats stateStats) {
+	private Event createSecurityStateChangedEvent(Security security, StateStats stateStats) {
 		MatchingState state = (stateStats.getTo() == SecurityState.AUCTION)
 			? MatchingState.AUCTION
 			: MatchingState.CONTINUOUS;
@@ -227,19 +299,41 @@ public class ApplicationServices {
 
 	public ApplicationServiceResponse deleteOrder(DeleteOrderRq req) {
 		validateDeleteOrderRq(req);
-		setEntitiesByRq(req);
+		req.stamp(TraceStage.VALIDATED);
+		RequestContext context = createContextByRq(req);
+		SecurityResponse response = context.security().deleteOrder(req.getSide(), req.getOrderId());
+		req.stamp(TraceStage.MATCHED);
+		List<Event> events = createEventsFormSecurityStats(context.security(), response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.EVENTS_BUILT);
+
+		return new ApplicationServiceResponse(ApplicationServiceType.DELETE_ORDER, events, req);
+	}
+
+	public ApplicationServiceResponse expireOrder(ExpireOrderRq req) {
+		Security security = securityRepository.findSecurityByIsin(req.getSecurityIsin());
+		if (!security.isThereOrderWithId(req.getSide(), req.getOrderId())) {
+			return new ApplicationServiceResponse(ApplicationServiceType.DELETE_ORDER, List.of(), req);
+		}
 		SecurityResponse response = security.deleteOrder(req.getSide(), req.getOrderId());
-		List<Event> events = createEventsFormSecurityStats(response.getStats(), req.getRequestId());
+		List<Event> events = createEventsFormSecurityStats(security, response.getStats(), req.getRequestId());
 
 		return new ApplicationServiceResponse(ApplicationServiceType.DELETE_ORDER, events, req);
 	}
 
 	public ApplicationServiceResponse addLimitOrder(EnterOrderRq req) {
 		generalEnterOrderValidation(req);
-		setEntitiesByRq(req);
-		Order tempOrder = Order.createTempOrderByEnterRq(security, broker, shareholder, req);
-		SecurityResponse response = security.addNewOrder(tempOrder);
-		List<Event> events = createEventsFormSecurityStats(response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.VALIDATED);
+		RequestContext context = createContextByRq(req);
+		Order tempOrder = Order.createTempOrderByEnterRq(
+			context.security(),
+			context.broker(),
+			context.shareholder(),
+			req
+		);
+		SecurityResponse response = context.security().addNewOrder(tempOrder);
+		req.stamp(TraceStage.MATCHED);
+		List<Event> events = createEventsFormSecurityStats(context.security(), response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.EVENTS_BUILT);
 
 		return new ApplicationServiceResponse(ApplicationServiceType.ADD_LIMIT_ORDER, events, req);
 	}
@@ -247,20 +341,36 @@ public class ApplicationServices {
 	public ApplicationServiceResponse updateLimitOrder(EnterOrderRq req) {
 		generalEnterOrderValidation(req);
 		validateUpdateOrderRq(req);
-		setEntitiesByRq(req);
-		Order tempOrder = Order.createTempOrderByEnterRq(security, broker, shareholder, req);
-		SecurityResponse response = security.updateOrder(tempOrder);
-		List<Event> events = createEventsFormSecurityStats(response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.VALIDATED);
+		RequestContext context = createContextByRq(req);
+		Order tempOrder = Order.createTempOrderByEnterRq(
+			context.security(),
+			context.broker(),
+			context.shareholder(),
+			req
+		);
+		SecurityResponse response = context.security().updateOrder(tempOrder);
+		req.stamp(TraceStage.MATCHED);
+		List<Event> events = createEventsFormSecurityStats(context.security(), response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.EVENTS_BUILT);
 
 		return new ApplicationServiceResponse(ApplicationServiceType.UPDATE_LIMIT_ORDER, events, req);
 	}
 
 	public ApplicationServiceResponse addIcebergOrder(EnterOrderRq req) {
 		generalEnterOrderValidation(req);
-		setEntitiesByRq(req);
-		IcebergOrder tempOrder = IcebergOrder.createTempOrderByEnterRq(security, broker, shareholder, req);
-		SecurityResponse response = security.addNewOrder(tempOrder);
-		List<Event> events = createEventsFormSecurityStats(response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.VALIDATED);
+		RequestContext context = createContextByRq(req);
+		IcebergOrder tempOrder = IcebergOrder.createTempOrderByEnterRq(
+			context.security(),
+			context.broker(),
+			context.shareholder(),
+			req
+		);
+		SecurityResponse response = context.security().addNewOrder(tempOrder);
+		req.stamp(TraceStage.MATCHED);
+		List<Event> events = createEventsFormSecurityStats(context.security(), response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.EVENTS_BUILT);
 
 		return new ApplicationServiceResponse(ApplicationServiceType.ADD_ICEBERG_ORDER, events, req);
 	}
@@ -268,20 +378,36 @@ public class ApplicationServices {
 	public ApplicationServiceResponse updateIcebergOrder(EnterOrderRq req) {
 		generalEnterOrderValidation(req);
 		validateUpdateOrderRq(req);
-		setEntitiesByRq(req);
-		IcebergOrder tempOrder = IcebergOrder.createTempOrderByEnterRq(security, broker, shareholder, req);
-		SecurityResponse response = security.updateOrder(tempOrder);
-		List<Event> events = createEventsFormSecurityStats(response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.VALIDATED);
+		RequestContext context = createContextByRq(req);
+		IcebergOrder tempOrder = IcebergOrder.createTempOrderByEnterRq(
+			context.security(),
+			context.broker(),
+			context.shareholder(),
+			req
+		);
+		SecurityResponse response = context.security().updateOrder(tempOrder);
+		req.stamp(TraceStage.MATCHED);
+		List<Event> events = createEventsFormSecurityStats(context.security(), response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.EVENTS_BUILT);
 
 		return new ApplicationServiceResponse(ApplicationServiceType.UPDATE_ICEBERG_ORDER, events, req);
 	}
 
 	public ApplicationServiceResponse addStopLimitOrder(EnterOrderRq req) {
 		generalEnterOrderValidation(req);
-		setEntitiesByRq(req);
-		StopLimitOrder tempOrder = StopLimitOrder.createTempOrderByEnterRq(security, broker, shareholder, req);
-		SecurityResponse response = security.addNewOrder(tempOrder);
-		List<Event> events = createEventsFormSecurityStats(response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.VALIDATED);
+		RequestContext context = createContextByRq(req);
+		StopLimitOrder tempOrder = StopLimitOrder.createTempOrderByEnterRq(
+			context.security(),
+			context.broker(),
+			context.shareholder(),
+			req
+		);
+		SecurityResponse response = context.security().addNewOrder(tempOrder);
+		req.stamp(TraceStage.MATCHED);
+		List<Event> events = createEventsFormSecurityStats(context.security(), response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.EVENTS_BUILT);
 
 		return new ApplicationServiceResponse(ApplicationServiceType.ADD_STOP_LIMIT_ORDER, events, req);
 	}
@@ -289,22 +415,33 @@ public class ApplicationServices {
 	public ApplicationServiceResponse updateStopLimitOrder(EnterOrderRq req) {
 		generalEnterOrderValidation(req);
 		validateUpdateOrderRq(req);
-		setEntitiesByRq(req);
-		StopLimitOrder tempOrder = StopLimitOrder.createTempOrderByEnterRq(security, broker, shareholder, req);
-		SecurityResponse response = security.updateOrder(tempOrder);
-		List<Event> events = createEventsFormSecurityStats(response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.VALIDATED);
+		RequestContext context = createContextByRq(req);
+		StopLimitOrder tempOrder = StopLimitOrder.createTempOrderByEnterRq(
+			context.security(),
+			context.broker(),
+			context.shareholder(),
+			req
+		);
+		SecurityResponse response = context.security().updateOrder(tempOrder);
+		req.stamp(TraceStage.MATCHED);
+		List<Event> events = createEventsFormSecurityStats(context.security(), response.getStats(), req.getRequestId());
+		req.stamp(TraceStage.EVENTS_BUILT);
 
 		return new ApplicationServiceResponse(ApplicationServiceType.UPDATE_STOP_LIMIT_ORDER, events, req);
 	}
 
 	public ApplicationServiceResponse changeMatchingState(ChangeMatchingStateRq req) {
 		validateChangeMatchingState(req);
-		setEntitiesByRq(req);
+		req.stamp(TraceStage.VALIDATED);
+		RequestContext context = createContextByRq(req);
 		SecurityState targetSecurityState = (req.getTargetState() == MatchingState.AUCTION)
 			? SecurityState.AUCTION
 			: SecurityState.CONTINUOUS;
-		SecurityResponse response = security.changeMatchingState(targetSecurityState);
-		List<Event> events = createEventsFormSecurityStats(response.getStats(), 0);
+		SecurityResponse response = context.security().changeMatchingState(targetSecurityState);
+		req.stamp(TraceStage.MATCHED);
+		List<Event> events = createEventsFormSecurityStats(context.security(), response.getStats(), 0);
+		req.stamp(TraceStage.EVENTS_BUILT);
 
 		return new ApplicationServiceResponse(ApplicationServiceType.CHANGE_MATCHING_STATE, events, req);
 	}
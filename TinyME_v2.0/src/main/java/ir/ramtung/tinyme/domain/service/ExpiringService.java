@@ -1,26 +1,81 @@
 package ir.ramtung.tinyme.domain.service;
 
+import java.time.Clock;
 import java.time.Duration;
-import java.util.Timer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Side;
 
 @Service
 public class ExpiringService {
-    private Timer timer;
+    private final Clock clock;
+    private final long tickMillis;
+    private final TimingWheel<ScheduleexpiryDate> wheel;
+    private final Map<ScheduleexpiryDate, TimingWheel.Timeout<ScheduleexpiryDate>> timeouts;
 
-    public ExpiringService() {
-        this.timer = new Timer();
+    @Autowired
+    public ExpiringService(@Value("${engine.expiry-tick-millis:100}") long tickMillis) {
+        this(Clock.systemUTC(), Duration.ofMillis(tickMillis));
     }
 
-    public ExpiringService(Timer timer) {
-        this.timer = timer;
+    public ExpiringService(Clock clock, Duration tick) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("expiry tick must be at least one millisecond");
+        }
+
+        this.clock = clock;
+        this.tickMillis = tick.toMillis();
+        this.wheel = new TimingWheel<>(clock.millis() / tickMillis);
+        this.timeouts = new HashMap<>();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public synchronized void scheduleexpiryDate(Order order) {
+        long delay = Duration.between(order.getEntryTime(), order.getExpiryDate()).toSeconds() * 1000;
+        ScheduleexpiryDate expiration = new ScheduleexpiryDate(order.getSecurity(), order.getSide(), order.getOrderId());
+        cancel(expiration);
+        long deadlineTick = Math.ceilDiv(clock.millis() + delay, tickMillis);
+        timeouts.put(expiration, wheel.schedule(expiration, deadlineTick));
+    }
+
+    public synchronized boolean cancel(Security security, Side side, long orderId) {
+        return cancel(new ScheduleexpiryDate(security, side, orderId));
+    }
+
+    public synchronized boolean isScheduled(Security security, Side side, long orderId) {
+        return timeouts.containsKey(new ScheduleexpiryDate(security, side, orderId));
+    }
+
+    public synchronized Instant getExpiryDeadline(Security security, Side side, long orderId) {
+        TimingWheel.Timeout<ScheduleexpiryDate> timeout = timeouts.get(new ScheduleexpiryDate(security, side, orderId));
+        return (timeout == null) ? null : Instant.ofEpochMilli(timeout.getDeadline() * tickMillis);
+    }
+
+    public synchronized Map<Security, List<ScheduleexpiryDate>> collectDue() {
+        Map<Security, List<ScheduleexpiryDate>> due = new LinkedHashMap<>();
+        wheel.advanceTo(clock.millis() / tickMillis, expiration -> {
+            timeouts.remove(expiration);
+            due.computeIfAbsent(expiration.getSecurity(), security -> new ArrayList<>()).add(expiration);
+        });
+        return due;
     }
 
-    public void scheduleexpiryDate(Order order) {
-        long delay = Duration.between(order.getEntryTimes().get(0), order.getExpiryDate()).toSeconds() * 1000;
-		timer.schedule(new ScheduleexpiryDate(order.getSecurity(), order.getSide(), order.getOrderId()), delay);
+    private boolean cancel(ScheduleexpiryDate expiration) {
+        TimingWheel.Timeout<ScheduleexpiryDate> timeout = timeouts.remove(expiration);
+        return (timeout != null) && wheel.cancel(timeout);
     }
 }
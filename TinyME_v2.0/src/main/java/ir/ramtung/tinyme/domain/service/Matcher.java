@@ -1,10 +1,14 @@
 package ir.ramtung.tinyme.domain.service;
 
 import ir.ramtung.tinyme.domain.entity.*;
+import ir.ramtung.tinyme.domain.entity.stats.AuctionStats;
 import ir.ramtung.tinyme.domain.service.controls.AuctionMatchingControl;
 import ir.ramtung.tinyme.domain.service.controls.ContinuousMatchingControl;
 import ir.ramtung.tinyme.domain.service.controls.ControlResult;
 import ir.ramtung.tinyme.domain.service.controls.MatchingControl;
+import ir.ramtung.tinyme.metrics.jfr.AuctionOpeningEvent;
+import ir.ramtung.tinyme.metrics.jfr.MatchingEvent;
+import ir.ramtung.tinyme.metrics.jfr.TradeCreatedEvent;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -15,6 +19,7 @@ public class Matcher {
 
 	private MatchingControl continuousMatchingControl;
 	private MatchingControl auctionMatchingControl;
+	private OpeningPriceCalculator openingPriceCalculator = new OpeningPriceCalculator();
 
 	public Matcher(ContinuousMatchingControl continuousMatchingControl, AuctionMatchingControl auctionMatchingControl) {
 		this.continuousMatchingControl = continuousMatchingControl;
@@ -30,58 +35,30 @@ public class Matcher {
 			return lastTradePrice;
 		}
 
-		int minPrice = orderBook.getLowestPriorityActiveOrder(Side.BUY).getPrice();
-		int maxPrice = orderBook.getLowestPriorityActiveOrder(Side.SELL).getPrice();
-
-		int maxTradableQuantity = 0;
-		int openingPrice = lastTradePrice;
-
-		for (int price = minPrice; price <= maxPrice; price++) {
-			int currentTradableQuantity = calcTradableQuantity(orderBook, price);
-			if (
-				shouldUpdateOpeningAuctionPrice(
-					openingPrice,
-					price,
-					lastTradePrice,
-					maxTradableQuantity,
-					currentTradableQuantity
-				)
-			) {
-				openingPrice = price;
-				maxTradableQuantity = currentTradableQuantity;
-			}
-		}
-
-		return openingPrice;
-	}
-
-	private boolean shouldUpdateOpeningAuctionPrice(
-		int openingPrice,
-		int newOpeningPrice,
-		int lastTradePrice,
-		int openingTradableQuantity,
-		int newOpeningTradableQuantity
-	) {
-		return (
-			newOpeningTradableQuantity > openingTradableQuantity ||
-			(
-				newOpeningTradableQuantity == openingTradableQuantity &&
-				Math.abs(newOpeningPrice - lastTradePrice) < Math.abs(openingPrice - lastTradePrice)
-			)
-		);
+		int tickSize = orderBook.getHighestPriorityActiveOrder(Side.BUY).getSecurity().getTickSize();
+		return openingPriceCalculator.calcOpeningPrice(orderBook, lastTradePrice, tickSize);
 	}
 
 	public int calcTradableQuantity(OrderBook orderBook, int openingPrice) {
-		int buysQuantity = calcTradableQuantityInQueue(orderBook.getBuyQueue(), openingPrice);
-		int sellsQuantity = calcTradableQuantityInQueue(orderBook.getSellQueue(), openingPrice);
-		return Math.min(buysQuantity, sellsQuantity);
+		return openingPriceCalculator.calcTradableQuantity(orderBook, openingPrice);
 	}
 
-	private int calcTradableQuantityInQueue(List<Order> queue, int price) {
-		return queue.stream().filter(order -> order.canTradeWithPrice(price)).mapToInt(Order::getTotalQuantity).sum();
+	public AuctionStats calcIndicativeAuctionStats(OrderBook orderBook, int lastTradePrice) {
+		if (!hasOrderForAuction(orderBook)) {
+			return AuctionStats.createAuctionStats(lastTradePrice, 0);
+		}
+
+		int tickSize = orderBook.getHighestPriorityActiveOrder(Side.BUY).getSecurity().getTickSize();
+		IndicativePriceTracker tracker = orderBook.getIndicativePriceTracker();
+		return AuctionStats.createAuctionStats(
+			tracker.getOpeningPrice(lastTradePrice, tickSize),
+			tracker.getTradableQuantity(lastTradePrice, tickSize)
+		);
 	}
 
 	private void controllerMatch(Trade trade, OrderBook orderBook, MatchingControl control, List<Trade> trades) {
+		orderBook.getUndoJournal().record(trade.getBuy());
+		orderBook.getUndoJournal().record(trade.getSell());
 		control.actionAtMatch(trade, orderBook);
 		trades.add(trade);
 	}
@@ -100,11 +77,13 @@ public class Matcher {
 		List<Trade> trades = new LinkedList<>();
 		ControlResult controlResult;
 		Order matchingOrder;
+		orderBook.getUndoJournal().clear();
 
 		while ((matchingOrder = getMatchingOrder(order, orderBook)) != null) {
 			Trade trade = createTradeForContinuousMatching(order, matchingOrder);
 			controlResult = continuousMatchingControl.checkBeforeMatch(trade);
-			
+			tradeCreated(trade, controlResult == ControlResult.OK);
+
 			if (controlResult == ControlResult.OK) {
 				controllerMatch(trade, orderBook, continuousMatchingControl, trades);
 			} else {
@@ -124,9 +103,11 @@ public class Matcher {
 		ControlResult controlResult;
 		List<Trade> trades = new ArrayList<>();
 		Trade currentTrade;
+		orderBook.getUndoJournal().clear();
 
 		while ((currentTrade = createTradeForAuctionMatching(orderBook, openingPrice)) != null) {
 			controlResult = auctionMatchingControl.checkBeforeMatch(currentTrade);
+			tradeCreated(currentTrade, controlResult == ControlResult.OK);
 			if (controlResult == ControlResult.OK) {
 				controllerMatch(currentTrade, orderBook, auctionMatchingControl, trades);
 			} else {
@@ -150,7 +131,7 @@ public class Matcher {
 	) {
 		ControlResult result = control.checkAfterMatching(targetOrder, trades);
 		if (result == ControlResult.OK) {
-			control.actionAfterMatching(targetOrder, orderBook);
+			control.actionAfterMatching(targetOrder, trades, orderBook);
 		} else {
 			control.actionAfterFailedMatching(trades, orderBook);
 		}
@@ -174,6 +155,37 @@ public class Matcher {
 	}
 
 	public MatchResult continuousExecuting(Order targetOrder, OrderBook orderBook) {
+		MatchingEvent event = new MatchingEvent();
+		event.begin();
+		long started = System.nanoTime();
+		MatchResult result = executeContinuously(targetOrder, orderBook);
+		orderBook.getMetrics().recordContinuousMatching(System.nanoTime() - started);
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.isin = targetOrder.getSecurity().getIsin();
+			event.orderId = targetOrder.getOrderId();
+			event.outcome = result.outcome().name();
+			event.trades = result.trades().size();
+			event.levelsSwept = countLevels(result.trades());
+			event.commit();
+		}
+		return result;
+	}
+
+	private static int countLevels(List<Trade> trades) {
+		int levels = 0;
+		int lastPrice = 0;
+		for (Trade trade : trades) {
+			if (levels == 0 || trade.getPrice() != lastPrice) {
+				levels++;
+				lastPrice = trade.getPrice();
+			}
+		}
+		return levels;
+	}
+
+	private MatchResult executeContinuously(Order targetOrder, OrderBook orderBook) {
 		ControlResult controlResult = startingExecution(continuousMatchingControl, targetOrder, orderBook);
 
 		if (controlResult != ControlResult.OK) {
@@ -184,6 +196,28 @@ public class Matcher {
 	}
 
 	public MatchResult auctionExecuting(OrderBook orderBook, int lastTradePrice) {
+		AuctionOpeningEvent event = new AuctionOpeningEvent();
+		event.begin();
+		if (event.isEnabled() && hasOrderForAuction(orderBook)) {
+			event.isin = orderBook.getHighestPriorityActiveOrder(Side.BUY).getSecurity().getIsin();
+		}
+		long started = System.nanoTime();
+		MatchResult result = executeAuction(orderBook, lastTradePrice, event);
+		orderBook.getMetrics().recordAuctionMatching(System.nanoTime() - started);
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.outcome = result.outcome().name();
+			event.trades = result.trades().size();
+			for (Trade trade : result.trades()) {
+				event.tradedQuantity += trade.getQuantity();
+			}
+			event.commit();
+		}
+		return result;
+	}
+
+	private MatchResult executeAuction(OrderBook orderBook, int lastTradePrice, AuctionOpeningEvent event) {
 		ControlResult controlResult = startingExecution(auctionMatchingControl, null, orderBook);
 		
 		if (controlResult != ControlResult.OK) {
@@ -191,9 +225,23 @@ public class Matcher {
 		}
 
 		int openingPrice = calcOpeningAuctionPrice(orderBook, lastTradePrice);
+		event.openingPrice = openingPrice;
 		return auctionMatch(orderBook, openingPrice);
 	}
 
+	private static void tradeCreated(Trade trade, boolean accepted) {
+		TradeCreatedEvent event = new TradeCreatedEvent();
+		if (event.shouldCommit()) {
+			event.isin = trade.getSecurity().getIsin();
+			event.price = trade.getPrice();
+			event.quantity = trade.getQuantity();
+			event.buyOrderId = trade.getBuy().getOrderId();
+			event.sellOrderId = trade.getSell().getOrderId();
+			event.accepted = accepted;
+			event.commit();
+		}
+	}
+
 	private ControlResult startingExecution(MatchingControl control, Order targetOrder, OrderBook orderBook) {
 		ControlResult controlResult = control.checkBeforeMatching(targetOrder, orderBook);
 
@@ -207,7 +255,7 @@ public class Matcher {
 	}
 
 	private Order getMatchingOrder(Order targetOrder, OrderBook orderBook) {
-		if (targetOrder.getQuantity() == 0) {
+		if (targetOrder.getQuantity() == 0 || !orderBook.getTopOfBook().crosses(targetOrder)) {
 			return null;
 		}
 		return orderBook.findOrderToMatchWith(targetOrder);
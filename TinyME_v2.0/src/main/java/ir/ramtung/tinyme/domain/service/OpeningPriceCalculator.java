@@ -0,0 +1,153 @@
+package ir.ramtung.tinyme.domain.service;
+
+import ir.ramtung.tinyme.domain.entity.OrderBook;
+import ir.ramtung.tinyme.domain.entity.PriceLevel;
+import java.util.Arrays;
+import java.util.Collection;
+
+public class OpeningPriceCalculator {
+
+	public int calcOpeningPrice(OrderBook orderBook, int lastTradePrice, int tickSize) {
+		return calcOpeningPrice(
+			pricesOf(orderBook.getBuyQueue().levels()),
+			quantitiesOf(orderBook.getBuyQueue().levels()),
+			pricesOf(orderBook.getSellQueue().levels()),
+			quantitiesOf(orderBook.getSellQueue().levels()),
+			lastTradePrice,
+			tickSize
+		);
+	}
+
+	public int calcOpeningPrice(
+		int[] buyPrices,
+		long[] buyQuantities,
+		int[] sellPrices,
+		long[] sellQuantities,
+		int lastTradePrice,
+		int tickSize
+	) {
+		if (buyPrices.length == 0 || sellPrices.length == 0) {
+			return lastTradePrice;
+		}
+
+		int minPrice = buyPrices[buyPrices.length - 1];
+		int maxPrice = sellPrices[sellPrices.length - 1];
+		if (minPrice > maxPrice) {
+			return lastTradePrice;
+		}
+
+		int[] breakpoints = calcBreakpoints(buyPrices, sellPrices, minPrice, maxPrice, tickSize);
+
+		long buyDepth = Arrays.stream(buyQuantities).sum();
+		long sellDepth = 0;
+		int buyIdx = buyPrices.length - 1;
+		int sellIdx = 0;
+
+		long maxTradableQuantity = 0;
+		int openingPrice = lastTradePrice;
+
+		for (int i = 0; i < breakpoints.length; i++) {
+			int from = breakpoints[i];
+			int to = (i + 1 < breakpoints.length)
+				? breakpoints[i + 1] - tickSize
+				: lastGridPrice(minPrice, maxPrice, tickSize);
+
+			while (buyIdx >= 0 && buyPrices[buyIdx] < from) {
+				buyDepth -= buyQuantities[buyIdx--];
+			}
+			while (sellIdx < sellPrices.length && sellPrices[sellIdx] <= from) {
+				sellDepth += sellQuantities[sellIdx++];
+			}
+
+			long tradableQuantity = Math.min(buyDepth, sellDepth);
+			int price = closestGridPrice(from, to, lastTradePrice, tickSize);
+			if (
+				tradableQuantity > maxTradableQuantity ||
+				(
+					tradableQuantity == maxTradableQuantity &&
+					Math.abs((long) price - lastTradePrice) < Math.abs((long) openingPrice - lastTradePrice)
+				)
+			) {
+				openingPrice = price;
+				maxTradableQuantity = tradableQuantity;
+			}
+		}
+
+		return openingPrice;
+	}
+
+	public int calcTradableQuantity(OrderBook orderBook, int price) {
+		long buysQuantity = 0;
+		for (PriceLevel level : orderBook.getBuyQueue().levels()) {
+			if (level.getPrice() < price) {
+				break;
+			}
+			buysQuantity += level.getTotalQuantity();
+		}
+
+		long sellsQuantity = 0;
+		for (PriceLevel level : orderBook.getSellQueue().levels()) {
+			if (level.getPrice() > price) {
+				break;
+			}
+			sellsQuantity += level.getTotalQuantity();
+		}
+
+		return (int) Math.min(buysQuantity, sellsQuantity);
+	}
+
+	private int[] calcBreakpoints(int[] buyPrices, int[] sellPrices, int minPrice, int maxPrice, int tickSize) {
+		int[] breakpoints = new int[buyPrices.length + sellPrices.length + 1];
+		int count = 0;
+		breakpoints[count++] = minPrice;
+
+		for (int buyPrice : buyPrices) {
+			int breakpoint = alignToGrid(buyPrice + tickSize, minPrice, tickSize);
+			if (breakpoint <= maxPrice) {
+				breakpoints[count++] = breakpoint;
+			}
+		}
+
+		for (int sellPrice : sellPrices) {
+			int breakpoint = alignToGrid(sellPrice, minPrice, tickSize);
+			if (breakpoint >= minPrice && breakpoint <= maxPrice) {
+				breakpoints[count++] = breakpoint;
+			}
+		}
+
+		return Arrays.stream(breakpoints, 0, count).sorted().distinct().toArray();
+	}
+
+	private int alignToGrid(int price, int minPrice, int tickSize) {
+		int offset = Math.floorMod(price - minPrice, tickSize);
+		return (offset == 0) ? price : price + (tickSize - offset);
+	}
+
+	private int lastGridPrice(int minPrice, int maxPrice, int tickSize) {
+		return maxPrice - Math.floorMod(maxPrice - minPrice, tickSize);
+	}
+
+	public static int closestGridPrice(int from, int to, int lastTradePrice, int tickSize) {
+		if (lastTradePrice <= from) {
+			return from;
+		}
+		if (lastTradePrice >= to) {
+			return to;
+		}
+
+		int below = from + ((lastTradePrice - from) / tickSize) * tickSize;
+		int above = below + tickSize;
+		if (above <= to && (above - lastTradePrice) < (lastTradePrice - below)) {
+			return above;
+		}
+		return below;
+	}
+
+	private int[] pricesOf(Collection<PriceLevel> levels) {
+		return levels.stream().mapToInt(PriceLevel::getPrice).toArray();
+	}
+
+	private long[] quantitiesOf(Collection<PriceLevel> levels) {
+		return levels.stream().mapToLong(PriceLevel::getTotalQuantity).toArray();
+	}
+}
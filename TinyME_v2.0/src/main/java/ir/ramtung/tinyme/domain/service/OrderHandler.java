@@ -1,5 +1,6 @@
 package ir.ramtung.tinyme.domain.service;
 
+import ir.ramtung.tinyme.marketdata.DepthFeed;
 import ir.ramtung.tinyme.messaging.EventPublisher;
 import ir.ramtung.tinyme.messaging.Message;
 import ir.ramtung.tinyme.messaging.event.*;
@@ -7,10 +8,17 @@ import ir.ramtung.tinyme.messaging.exception.InvalidRequestException;
 import ir.ramtung.tinyme.messaging.request.BaseOrderRq;
 import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
 import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.messaging.request.ExpireOrderRq;
 import ir.ramtung.tinyme.messaging.request.OrderEntryType;
 import ir.ramtung.tinyme.messaging.request.BaseRq;
 import ir.ramtung.tinyme.messaging.request.ChangeMatchingStateRq;
+import ir.ramtung.tinyme.metrics.EngineMetrics;
+import ir.ramtung.tinyme.metrics.TraceCollector;
+import ir.ramtung.tinyme.metrics.TraceStage;
+import ir.ramtung.tinyme.metrics.jfr.ExpirySweepEvent;
+import ir.ramtung.tinyme.metrics.jfr.RequestHandledEvent;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -18,17 +26,39 @@ public class OrderHandler {
 
 	EventPublisher eventPublisher;
 	ApplicationServices services;
+	EngineMetrics engineMetrics;
+	TraceCollector traceCollector;
+	DepthFeed depthFeed;
 
 	public OrderHandler(ApplicationServices services, EventPublisher eventPublisher) {
+		this(services, eventPublisher, EngineMetrics.disabled(), TraceCollector.disabled(), DepthFeed.disabled());
+	}
+
+	@Autowired
+	public OrderHandler(
+		ApplicationServices services,
+		EventPublisher eventPublisher,
+		EngineMetrics engineMetrics,
+		TraceCollector traceCollector,
+		DepthFeed depthFeed
+	) {
 		this.eventPublisher = eventPublisher;
 		this.services = services;
+		this.engineMetrics = engineMetrics;
+		this.traceCollector = traceCollector;
+		this.depthFeed = depthFeed;
 	}
 
 	public void handleRq(BaseRq baseRq) {
+		RequestHandledEvent event = new RequestHandledEvent();
+		event.begin();
+		long started = System.nanoTime();
+		baseRq.stamp(TraceStage.STARTED);
 		try {
 			ApplicationServiceResponse response = callService(baseRq);
 			publishApplicationServiceResponse(response);
 		} catch (InvalidRequestException ex) {
+			event.rejected = true;
 			if (baseRq instanceof BaseOrderRq baseOrderRq) {
 				eventPublisher.publish(
 						new OrderRejectedEvent(baseOrderRq.getRequestId(), baseOrderRq.getOrderId(), ex.getReasons())
@@ -36,6 +66,58 @@ public class OrderHandler {
 			} else {
 				throw ex;
 			}
+		} finally {
+			EngineMetrics.RequestKind kind = EngineMetrics.RequestKind.of(baseRq);
+			engineMetrics.recordRequest(kind, System.nanoTime() - started);
+			commitRequestHandled(event, kind, baseRq);
+			depthFeed.collect(baseRq.getSecurityIsin());
+			baseRq.stamp(TraceStage.HANDED_OFF);
+			traceCollector.complete(baseRq);
+		}
+	}
+
+	private static void commitRequestHandled(RequestHandledEvent event, EngineMetrics.RequestKind kind, BaseRq baseRq) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.requestType = (kind == null) ? baseRq.getClass().getSimpleName() : kind.name();
+			event.isin = baseRq.getSecurityIsin();
+			if (baseRq instanceof BaseOrderRq baseOrderRq) {
+				event.requestId = baseOrderRq.getRequestId();
+				event.orderId = baseOrderRq.getOrderId();
+			}
+			event.commit();
+		}
+	}
+
+	public void replayRq(BaseRq baseRq) {
+		try {
+			callService(baseRq);
+		} catch (InvalidRequestException ignored) {
+			// rejections were already published when the request first arrived
+		}
+	}
+
+	public void handleExpiredOrders(List<ExpireOrderRq> expirations) {
+		ExpirySweepEvent event = new ExpirySweepEvent();
+		event.begin();
+		int expired = 0;
+		for (ExpireOrderRq expiration : expirations) {
+			ApplicationServiceResponse response = services.expireOrder(expiration);
+			if (!response.getEvents().isEmpty()) {
+				publishApplicationServiceResponse(response);
+				expired++;
+			}
+		}
+		if (expired > 0) {
+			depthFeed.collect(expirations.getFirst().getSecurityIsin());
+		}
+
+		event.end();
+		if (!expirations.isEmpty() && event.shouldCommit()) {
+			event.isin = expirations.getFirst().getSecurityIsin();
+			event.due = expirations.size();
+			event.expired = expired;
+			event.commit();
 		}
 	}
 
@@ -46,6 +128,9 @@ public class OrderHandler {
 		if (req instanceof DeleteOrderRq deleteReq) {
 			return callDeleteServices(deleteReq);
 		}
+		if (req instanceof ExpireOrderRq expireReq) {
+			return services.expireOrder(expireReq);
+		}
 
 		if (req instanceof EnterOrderRq enterReq) {
 			OrderEntryType type = enterReq.getRequestType();
@@ -88,6 +173,11 @@ public class OrderHandler {
 
 	private void publishApplicationServiceResponse(ApplicationServiceResponse response) {
 		List<Event> events = response.getEvents();
-		events.forEach(event -> eventPublisher.publish(event));
+		eventPublisher.beginResponse();
+		try {
+			events.forEach(event -> eventPublisher.publish(event));
+		} finally {
+			eventPublisher.endResponse();
+		}
 	}
 }
@@ -1,24 +1,33 @@
 package ir.ramtung.tinyme.domain.service;
 
 import java.util.Objects;
-import java.util.TimerTask;
 
 import ir.ramtung.tinyme.domain.entity.Security;
 import ir.ramtung.tinyme.domain.entity.Side;
 
-public class ScheduleexpiryDate extends TimerTask {
+public class ScheduleexpiryDate {
     private final Security security;
     private final Side orderSide;
     private final long orderId;
 
     public ScheduleexpiryDate(Security security, Side orderSide, long orderId) {
-        super();
         this.security = security;
         this.orderSide = orderSide;
         this.orderId = orderId;
     }
 
-    @Override
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Side getOrderSide() {
+        return orderSide;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
     public void run() {
         security.deleteOrder(orderSide, orderId);
     }
@@ -0,0 +1,138 @@
+package ir.ramtung.tinyme.domain.service;
+
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.messaging.request.ExpireOrderRq;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.List;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ShardedOrderEngine {
+
+	private final Logger log = Logger.getLogger(this.getClass().getName());
+	private final OrderHandler orderHandler;
+	private final ExecutorService[] shards;
+
+	public ShardedOrderEngine(
+		OrderHandler orderHandler,
+		@Value("${engine.shards:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int shardCount,
+		@Value("${engine.shard-queue-capacity:16384}") int queueCapacity
+	) {
+		if (shardCount <= 0) {
+			throw new IllegalArgumentException("engine.shards must be positive");
+		}
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("engine.shard-queue-capacity must be positive");
+		}
+
+		this.orderHandler = orderHandler;
+		this.shards = new ExecutorService[shardCount];
+		for (int i = 0; i < shardCount; i++) {
+			shards[i] = new ThreadPoolExecutor(
+				1,
+				1,
+				0,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				Thread.ofPlatform().name("tinyme-shard-" + i).factory(),
+				ShardedOrderEngine::awaitQueueSpace
+			);
+		}
+	}
+
+	/**
+	 * Blocks the submitting thread until the shard has room. A shard that falls behind therefore stalls the
+	 * ingest thread, and the backlog stays on the broker unacknowledged instead of growing on the heap.
+	 */
+	private static void awaitQueueSpace(Runnable task, ThreadPoolExecutor shard) {
+		if (shard.isShutdown()) {
+			throw new RejectedExecutionException("Shard is shut down");
+		}
+		try {
+			shard.getQueue().put(task);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException("Interrupted while waiting for shard queue space", ex);
+		}
+	}
+
+	public void submit(BaseRq rq) {
+		shards[shardOf(rq.getSecurityIsin())].execute(() -> handle(rq));
+	}
+
+	public void submitExpirations(String securityIsin, List<ExpireOrderRq> expirations) {
+		shards[shardOf(securityIsin)].execute(() -> expire(expirations));
+	}
+
+	public void quiesce(Runnable action) throws InterruptedException {
+		CountDownLatch parked = new CountDownLatch(shards.length);
+		CountDownLatch released = new CountDownLatch(1);
+		for (ExecutorService shard : shards) {
+			shard.execute(() -> {
+				parked.countDown();
+				awaitRelease(released);
+			});
+		}
+
+		try {
+			parked.await();
+			action.run();
+		} finally {
+			released.countDown();
+		}
+	}
+
+	private static void awaitRelease(CountDownLatch released) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				released.await();
+				break;
+			} catch (InterruptedException ex) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public int shardOf(String securityIsin) {
+		return (securityIsin == null) ? 0 : Math.floorMod(securityIsin.hashCode(), shards.length);
+	}
+
+	private void expire(List<ExpireOrderRq> expirations) {
+		try {
+			orderHandler.handleExpiredOrders(expirations);
+		} catch (RuntimeException ex) {
+			log.log(Level.SEVERE, "Failed to expire orders: " + expirations.size(), ex);
+		}
+	}
+
+	private void handle(BaseRq rq) {
+		try {
+			orderHandler.handleRq(rq);
+		} catch (RuntimeException ex) {
+			log.log(Level.SEVERE, "Failed to handle request: " + rq, ex);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		for (ExecutorService shard : shards) {
+			shard.shutdown();
+		}
+		for (ExecutorService shard : shards) {
+			shard.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package ir.ramtung.tinyme.domain.service;
+
+import java.util.function.Consumer;
+
+public class TimingWheel<T> {
+
+	private static final int SLOT_BITS = 8;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+
+	private final Timeout<T>[][] buckets;
+	private long currentTick;
+	private int size;
+
+	public static final class Timeout<T> {
+
+		private final T task;
+		private final long deadline;
+		private Timeout<T> prev;
+		private Timeout<T> next;
+
+		private Timeout(T task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		public T getTask() {
+			return task;
+		}
+
+		public long getDeadline() {
+			return deadline;
+		}
+
+		public boolean isScheduled() {
+			return next != null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long startTick) {
+		this.buckets = new Timeout[LEVELS][SLOTS];
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < SLOTS; slot++) {
+				Timeout<T> head = new Timeout<>(null, 0);
+				head.prev = head;
+				head.next = head;
+				buckets[level][slot] = head;
+			}
+		}
+		this.currentTick = startTick;
+	}
+
+	public long getCurrentTick() {
+		return currentTick;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public Timeout<T> schedule(T task, long deadline) {
+		Timeout<T> timeout = new Timeout<>(task, Math.max(deadline, currentTick + 1));
+		place(timeout);
+		size++;
+		return timeout;
+	}
+
+	public boolean cancel(Timeout<T> timeout) {
+		if (!timeout.isScheduled()) {
+			return false;
+		}
+
+		unlink(timeout);
+		size--;
+		return true;
+	}
+
+	public void advanceTo(long tick, Consumer<T> expired) {
+		if (size == 0) {
+			currentTick = Math.max(currentTick, tick);
+			return;
+		}
+
+		while (currentTick < tick) {
+			currentTick++;
+			if (slotIndex(currentTick, 0) == 0) {
+				cascade(1);
+			}
+			expire(buckets[0][slotIndex(currentTick, 0)], expired);
+		}
+	}
+
+	private void place(Timeout<T> timeout) {
+		long delta = timeout.deadline - currentTick;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+			level++;
+		}
+		link(buckets[level][slotIndex(timeout.deadline, level)], timeout);
+	}
+
+	private void cascade(int level) {
+		if (level >= LEVELS) {
+			return;
+		}
+
+		int slot = slotIndex(currentTick, level);
+		if (slot == 0) {
+			cascade(level + 1);
+		}
+
+		Timeout<T> head = buckets[level][slot];
+		Timeout<T> timeout = detachAll(head);
+		while (timeout != null) {
+			Timeout<T> next = timeout.next;
+			timeout.prev = null;
+			timeout.next = null;
+			place(timeout);
+			timeout = next;
+		}
+	}
+
+	private void expire(Timeout<T> head, Consumer<T> expired) {
+		Timeout<T> timeout = detachAll(head);
+		while (timeout != null) {
+			Timeout<T> next = timeout.next;
+			timeout.prev = null;
+			timeout.next = null;
+			size--;
+			expired.accept(timeout.task);
+			timeout = next;
+		}
+	}
+
+	private Timeout<T> detachAll(Timeout<T> head) {
+		if (head.next == head) {
+			return null;
+		}
+
+		Timeout<T> first = head.next;
+		head.prev.next = null;
+		head.prev = head;
+		head.next = head;
+		return first;
+	}
+
+	private static int slotIndex(long tick, int level) {
+		return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+	}
+
+	private static <T> void link(Timeout<T> head, Timeout<T> timeout) {
+		timeout.prev = head.prev;
+		timeout.next = head;
+		head.prev.next = timeout;
+		head.prev = timeout;
+	}
+
+	private static <T> void unlink(Timeout<T> timeout) {
+		timeout.prev.next = timeout.next;
+		timeout.next.prev = timeout.prev;
+		timeout.prev = null;
+		timeout.next = null;
+	}
+}
@@ -3,6 +3,7 @@ package ir.ramtung.tinyme.domain.service.controls;
 import ir.ramtung.tinyme.domain.entity.Order;
 import ir.ramtung.tinyme.domain.entity.OrderBook;
 import ir.ramtung.tinyme.domain.entity.Trade;
+import ir.ramtung.tinyme.metrics.jfr.RollbackEvent;
 import java.util.List;
 import org.springframework.stereotype.Service;
 
@@ -19,12 +20,17 @@ public class ContinuousMatchingControl extends MatchingControl {
 
 	@Override
 	public ControlResult checkBeforeMatching(Order targetOrder, OrderBook orderBook) {
-		return positionControl.checkPositionForOrder(targetOrder, orderBook);
+		ControlResult controlResult = positionControl.checkPositionForOrder(targetOrder, orderBook);
+		if (controlResult != ControlResult.OK) {
+			return controlResult;
+		}
+
+		return quantityControl.checkMinimumExecutionQuantityReachable(targetOrder, orderBook);
 	}
 
 	@Override
 	public ControlResult checkBeforeMatch(Trade trade) {
-		return creditControl.checkCreditForTrade(trade);
+		return creditControl.withdrawCreditForTrade(trade);
 	}
 
 	@Override
@@ -39,12 +45,12 @@ public class ContinuousMatchingControl extends MatchingControl {
 			return controlResult;
 		}
 
-		return creditControl.checkCreditForBeingQueued(targetOrder);
+		return creditControl.reserveCreditForBeingQueued(targetOrder);
 	}
 
 	@Override
-	public void actionAfterMatching(Order targetOrder, OrderBook orderBook) {
-		creditControl.updateCreditForBeingQueued(targetOrder);
+	public void actionAfterMatching(Order targetOrder, List<Trade> trades, OrderBook orderBook) {
+		super.actionAfterMatching(targetOrder, trades, orderBook);
 		quantityControl.enqueueOrderToOrderBook(targetOrder, orderBook);
 	}
 
@@ -54,10 +60,19 @@ public class ContinuousMatchingControl extends MatchingControl {
 	}
 
 	private void rollbackTrades(List<Trade> trades, OrderBook orderBook) {
+		RollbackEvent event = new RollbackEvent();
+		event.begin();
 		for (Trade trade : trades.reversed()) {
 			quantityControl.updateQuantitiesAtRollbackTrade(trade, orderBook);
 			creditControl.updateCreditsAtRollbackTrade(trade);
 			positionControl.updatePositionsAtRollbackTrade(trade);
 		}
+
+		event.end();
+		if (!trades.isEmpty() && event.shouldCommit()) {
+			event.isin = trades.getFirst().getSecurity().getIsin();
+			event.trades = trades.size();
+			event.commit();
+		}
 	}
 }
@@ -3,28 +3,31 @@ package ir.ramtung.tinyme.domain.service.controls;
 import ir.ramtung.tinyme.domain.entity.Broker;
 import ir.ramtung.tinyme.domain.entity.Order;
 import ir.ramtung.tinyme.domain.entity.Trade;
+import java.util.List;
 import org.springframework.stereotype.Service;
 
 @Service
 public class CreditControl {
 
-	public ControlResult checkCreditForTrade(Trade trade) {
+	public ControlResult withdrawCreditForTrade(Trade trade) {
 		if (trade.isBuyQueued()) {
 			return ControlResult.OK;
 		}
 
 		Order targetOrder = trade.getBuy();
 		long value = trade.getTradedValue();
+		long withdrawn = targetOrder.creditBeyondHeld(value);
 		Broker broker = targetOrder.getBroker();
 
-		if (broker.hasEnoughCredit(value)) {
-			return ControlResult.OK;
-		} else {
+		if (!broker.tryDecreaseCreditBy(withdrawn)) {
 			return ControlResult.NOT_ENOUGH_CREDIT;
 		}
+		broker.commitReservedCredit(value - withdrawn);
+		targetOrder.spendCredit(value, withdrawn);
+		return ControlResult.OK;
 	}
 
-	public ControlResult checkCreditForBeingQueued(Order order) {
+	public ControlResult reserveCreditForBeingQueued(Order order) {
 		if (order.isSell()) {
 			return ControlResult.OK;
 		}
@@ -32,7 +35,36 @@ public class CreditControl {
 		long value = order.getValue();
 		Broker broker = order.getBroker();
 
-		if (broker.hasEnoughCredit(value)) {
+		if (broker.tryReplaceReservedCredit(order.getHeldCredit(), value)) {
+			order.holdCredit(0);
+			return ControlResult.OK;
+		} else {
+			return ControlResult.NOT_ENOUGH_CREDIT;
+		}
+	}
+
+	/**
+	 * Keeps the reservation of a buy order that lost priority in an update while the updated order
+	 * matches: its trades are paid from the reservation first, and reserveCreditForBeingQueued swaps
+	 * what is left for the queued value only if matching succeeds. Nothing is released before matching,
+	 * so a rollback never has to take credit back that another shard may have spent.
+	 */
+	public void holdCreditForUpdate(Order originalOrder, Order updatedOrder) {
+		if (updatedOrder.isBuy()) {
+			updatedOrder.holdCredit(originalOrder.getValue());
+		}
+	}
+
+	public ControlResult replaceCreditForBeingQueued(Order originalOrder, Order updatedOrder) {
+		if (updatedOrder.isSell()) {
+			return ControlResult.OK;
+		}
+
+		long originalValue = originalOrder.getValue();
+		long value = updatedOrder.getValue();
+		Broker broker = updatedOrder.getBroker();
+
+		if (broker.tryReplaceReservedCredit(originalValue, value)) {
 			return ControlResult.OK;
 		} else {
 			return ControlResult.NOT_ENOUGH_CREDIT;
@@ -41,19 +73,19 @@ public class CreditControl {
 
 	public void updateCreditsAtTrade(Trade trade) {
 		updateBuyerCreditAtTrade(trade);
-		updateSellerCreditAtTrade(trade);
 	}
 
 	public void updateCreditsAtRollbackTrade(Trade trade) {
 		updateBuyerCreditAtRollbackTrade(trade);
-		updateSellerCreditAtRollbackTrade(trade);
 	}
 
-	public void updateCreditForBeingQueued(Order targetOrder) {
-		if (targetOrder.isBuy()) {
-			Broker buyerBroker = targetOrder.getBroker();
-			long remainderValue = targetOrder.getValue();
-			buyerBroker.decreaseCreditBy(remainderValue);
+	/**
+	 * Pays sellers once the match has committed, so their proceeds never become spendable on another
+	 * shard while the trades that earned them can still be rolled back.
+	 */
+	public void updateCreditsAfterMatching(List<Trade> trades) {
+		for (Trade trade : trades) {
+			updateSellerCreditAtTrade(trade);
 		}
 	}
 
@@ -61,7 +93,7 @@ public class CreditControl {
 		if (order.isBuy()) {
 			Broker buyerBroker = order.getBroker();
 			long orderValue = order.getValue();
-			buyerBroker.increaseCreditBy(orderValue);
+			buyerBroker.releaseReservedCredit(orderValue);
 		}
 	}
 
@@ -70,12 +102,12 @@ public class CreditControl {
 		Broker buyerBroker = buyOrder.getBroker();
 		long tradeValue = trade.getTradedValue();
 
-		if (!buyOrder.isQueued()) {
-			buyerBroker.decreaseCreditBy(tradeValue);
-		} else {
+		// An incoming buy already paid for the trade in withdrawCreditForTrade
+		if (buyOrder.isQueued()) {
+			buyerBroker.commitReservedCredit(tradeValue);
 			if (trade.getPrice() < buyOrder.getPrice()) {
 				long backCredit = (long) ((buyOrder.getPrice() - trade.getPrice()) * trade.getQuantity());
-				buyOrder.getBroker().increaseCreditBy(backCredit);
+				buyerBroker.releaseReservedCredit(backCredit);
 			}
 		}
 	}
@@ -94,15 +126,11 @@ public class CreditControl {
 		long tradeValue = trade.getTradedValue();
 
 		if (!buyOrder.isQueued()) {
-			buyerBroker.increaseCreditBy(tradeValue);
+			long withdrawn = buyOrder.refundCredit(tradeValue);
+			buyerBroker.increaseCreditBy(withdrawn);
+			buyerBroker.reinstateReservedCredit(tradeValue - withdrawn);
+		} else {
+			buyerBroker.reinstateReservedCredit(tradeValue);
 		}
 	}
-
-	private void updateSellerCreditAtRollbackTrade(Trade trade) {
-		Order sellOrder = trade.getSell();
-		Broker sellerBroker = sellOrder.getBroker();
-		long tradeValue = trade.getTradedValue();
-
-		sellerBroker.decreaseCreditBy(tradeValue);
-	}
 }
@@ -45,7 +45,9 @@ public abstract class MatchingControl {
 		return ControlResult.OK;
 	}
 
-	public void actionAfterMatching(Order targetOrder, OrderBook orderBook) {}
+	public void actionAfterMatching(Order targetOrder, List<Trade> trades, OrderBook orderBook) {
+		creditControl.updateCreditsAfterMatching(trades);
+	}
 
 	public void actionAfterFailedMatching(List<Trade> trades, OrderBook orerrBook) {}
 }
@@ -4,7 +4,8 @@ import ir.ramtung.tinyme.domain.entity.IcebergOrder;
 import ir.ramtung.tinyme.domain.entity.Order;
 import ir.ramtung.tinyme.domain.entity.OrderBook;
 import ir.ramtung.tinyme.domain.entity.Trade;
-import java.time.LocalDateTime;
+import ir.ramtung.tinyme.domain.entity.UndoJournal;
+import ir.ramtung.tinyme.metrics.jfr.IcebergReplenishEvent;
 import java.util.List;
 import org.springframework.stereotype.Service;
 
@@ -24,14 +25,27 @@ public class QuantityControl {
 		}
 	}
 
+	public ControlResult checkMinimumExecutionQuantityReachable(Order order, OrderBook orderBook) {
+		if (!order.isNew() || order.isMinimumExecuteQuantitySatisfied(0)) {
+			return ControlResult.OK;
+		}
+
+		// An order that does not cross the best opposite price cannot execute anything, so fail it before matching
+		if (orderBook.getTopOfBook().crosses(order)) {
+			return ControlResult.OK;
+		} else {
+			return ControlResult.NOT_ENOUGH_EXECUTION;
+		}
+	}
+
 	public void updateQuantitiesAtTrade(Trade trade, OrderBook orderBook) {
 		updateBuyQuantityAtTrade(trade, orderBook);
 		updateSellQuantityAtTrade(trade, orderBook);
 	}
 
 	public void updateQuantitiesAtRollbackTrade(Trade trade, OrderBook orderBook) {
-		updateBuyQuantityAtRollbackTrade(trade, orderBook);
-		updateSellQuantityAtRollbackTrade(trade, orderBook);
+		rollbackLastJournaledQuantity(trade.getSell(), orderBook);
+		rollbackLastJournaledQuantity(trade.getBuy(), orderBook);
 	}
 
 	public void enqueueOrderToOrderBook(Order targetOrder, OrderBook orderBook) {
@@ -52,16 +66,20 @@ public class QuantityControl {
 	private void updateBuyQuantityAtTrade(Trade trade, OrderBook orderBook) {
 		Order buyOrder = trade.getBuy();
 		int tradeQuantity = trade.getQuantity();
+		int previousQuantity = buyOrder.getTotalQuantity();
 
 		buyOrder.decreaseQuantity(tradeQuantity);
+		orderBook.updateQueuedQuantity(buyOrder, previousQuantity);
 		checkQuantityForUnqueued(buyOrder, orderBook);
 	}
 
 	private void updateSellQuantityAtTrade(Trade trade, OrderBook orderBook) {
 		Order sellOrder = trade.getSell();
 		int tradeQuantity = trade.getQuantity();
+		int previousQuantity = sellOrder.getTotalQuantity();
 
 		sellOrder.decreaseQuantity(tradeQuantity);
+		orderBook.updateQueuedQuantity(sellOrder, previousQuantity);
 		checkQuantityForUnqueued(sellOrder, orderBook);
 	}
 
@@ -79,25 +97,30 @@ public class QuantityControl {
 		if (icebergOrder.isDisplayZero() && !icebergOrder.isDone()) {
 			orderBook.removeOrder(icebergOrder);
 			icebergOrder.replenish();
-			icebergOrder.addUpdateTime(LocalDateTime.now());
+			icebergOrder.losePriority();
 			orderBook.enqueue(icebergOrder);
-		}
-	}
-
-	private void updateBuyQuantityAtRollbackTrade(Trade trade, OrderBook orderBook) {
-		Order buyOrder = trade.getBuy();
-		Order originalBuyOrder = trade.getBuyFirstVersion();
 
-		checkQuantityForEnqueue(buyOrder, orderBook);
-		buyOrder.rollback(originalBuyOrder);
+			IcebergReplenishEvent event = new IcebergReplenishEvent();
+			if (event.shouldCommit()) {
+				event.isin = icebergOrder.getSecurity().getIsin();
+				event.orderId = icebergOrder.getOrderId();
+				event.displayedQuantity = icebergOrder.getDisplayedQuantity();
+				event.remainingQuantity = icebergOrder.getTotalQuantity();
+				event.commit();
+			}
+		}
 	}
 
-	private void updateSellQuantityAtRollbackTrade(Trade trade, OrderBook orderBook) {
-		Order sellOrder = trade.getSell();
-		Order originalSellOrder = trade.getSellFirstVersion();
+	private void rollbackLastJournaledQuantity(Order order, OrderBook orderBook) {
+		UndoJournal undoJournal = orderBook.getUndoJournal();
+		if (undoJournal.peekOrder() != order) {
+			throw new IllegalStateException("undo journal does not match the trade being rolled back");
+		}
 
-		checkQuantityForEnqueue(sellOrder, orderBook);
-		sellOrder.rollback(originalSellOrder);
+		checkQuantityForEnqueue(order, orderBook);
+		int previousQuantity = order.getTotalQuantity();
+		undoJournal.restoreLast();
+		orderBook.updateQueuedQuantity(order, previousQuantity);
 	}
 
 	private void checkQuantityForEnqueue(Order order, OrderBook orderBook) {
@@ -37,11 +37,10 @@ public class AuctionBehave implements SecurityBehave {
 		if (positionControl.checkPositionForOrder(newOrder, orderBook) != ControlResult.OK) {
 			return createNotEnoughPositionsStats(newOrder);
 		}
-		if (creditControl.checkCreditForBeingQueued(newOrder) != ControlResult.OK) {
+		if (creditControl.reserveCreditForBeingQueued(newOrder) != ControlResult.OK) {
 			return createNotEnoughCreditStats(newOrder);
 		}
 
-		creditControl.updateCreditForBeingQueued(newOrder);
 		orderBook.enqueue(newOrder);
 
 		List<SecurityStats> stats = new ArrayList<>();
@@ -55,7 +54,6 @@ public class AuctionBehave implements SecurityBehave {
 		boolean losesPriority = mainOrder.willPriorityLostInUpdate(tempOrder);
 		if (losesPriority) {
 			Order originalOrder = mainOrder.snapshot();
-			creditControl.updateCreditAtDelete(mainOrder);
 			orderBook.removeOrder(mainOrder);
 			mainOrder.updateFromTempOrder(tempOrder);
 			return reAddUpdatedOrder(mainOrder, originalOrder, orderBook, lastTradePrice);
@@ -97,9 +95,7 @@ public class AuctionBehave implements SecurityBehave {
 	}
 
 	private AuctionStats createAuctionStats(OrderBook orderBook, int lastTradePrice) {
-		int openingPrice = matcher.calcOpeningAuctionPrice(orderBook, lastTradePrice);
-		int tradableQuantity = matcher.calcTradableQuantity(orderBook, openingPrice);
-		return AuctionStats.createAuctionStats(openingPrice, tradableQuantity);
+		return matcher.calcIndicativeAuctionStats(orderBook, lastTradePrice);
 	}
 
 	private List<SecurityStats> openAuction(OrderBook orderBook, int lastTradePrice) {
@@ -120,7 +116,7 @@ public class AuctionBehave implements SecurityBehave {
 			return handleNotEnoughPositions(originalOrder, orderBook);
 		}
 		
-		if (creditControl.checkCreditForBeingQueued(updatedOrder) != ControlResult.OK) {
+		if (creditControl.replaceCreditForBeingQueued(originalOrder, updatedOrder) != ControlResult.OK) {
 			return handleNotEnoughCredit(originalOrder, orderBook);
 		}
 
@@ -129,7 +125,6 @@ public class AuctionBehave implements SecurityBehave {
 
 	private List<SecurityStats> handleUpdateOrder(Order updatedOrder, Order originalOrder, OrderBook orderBook,
 			int lastTradePrice) {
-		creditControl.updateCreditForBeingQueued(updatedOrder);
 		orderBook.enqueue(updatedOrder);
 
 		return createUpdateStats(originalOrder, orderBook, lastTradePrice);
@@ -143,7 +138,6 @@ public class AuctionBehave implements SecurityBehave {
 	}
 
 	private List<SecurityStats> handleNotEnoughCredit(Order originalOrder, OrderBook orderBook) {
-		creditControl.updateCreditForBeingQueued(originalOrder);
 		orderBook.enqueue(originalOrder);
 		return createNotEnoughCreditStats(originalOrder);
 	}
@@ -155,7 +149,6 @@ public class AuctionBehave implements SecurityBehave {
 	}
 
 	private List<SecurityStats> handleNotEnoughPositions(Order originalOrder, OrderBook orderBook) {
-		creditControl.updateCreditForBeingQueued(originalOrder);
 		orderBook.enqueue(originalOrder);
 		return createNotEnoughPositionsStats(originalOrder);
 	}
@@ -169,7 +162,9 @@ public class AuctionBehave implements SecurityBehave {
 	private List<SecurityStats> updateByKeepingPriority(Order tempOrder, Order mainOrder, 
 														OrderBook orderBook, int lastTradePrice) {
 
+		int previousQuantity = mainOrder.getTotalQuantity();
 		mainOrder.updateFromTempOrder(tempOrder);
+		orderBook.updateQueuedQuantity(mainOrder, previousQuantity);
 		return createUpdateStats(mainOrder, orderBook, lastTradePrice);
 	}
 }
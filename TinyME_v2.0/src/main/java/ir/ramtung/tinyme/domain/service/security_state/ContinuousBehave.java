@@ -51,12 +51,13 @@ public class ContinuousBehave implements SecurityBehave {
 		boolean losesPriority = mainOrder.willPriorityLostInUpdate(tempOrder);
 		if (losesPriority) {
 			Order originalOrder = mainOrder.snapshot();
-			creditControl.updateCreditAtDelete(mainOrder);
 			orderBook.removeOrder(mainOrder);
 			mainOrder.updateFromTempOrder(tempOrder);
 			return reAddUpdatedOrder(mainOrder, originalOrder, orderBook);
 		} else {
+			int previousQuantity = mainOrder.getTotalQuantity();
 			mainOrder.updateFromTempOrder(tempOrder);
+			orderBook.updateQueuedQuantity(mainOrder, previousQuantity);
 			return new ArrayList<SecurityStats>(
 				List.of(SituationalStats.createUpdateOrderStats(mainOrder.getOrderId()))
 			);
@@ -105,13 +106,12 @@ public class ContinuousBehave implements SecurityBehave {
 	}
 
 	private List<SecurityStats> addNewStopLimitOrder(StopLimitOrder newOrder, OrderBook orderBook) {
-		if (creditControl.checkCreditForBeingQueued(newOrder) != ControlResult.OK) {
+		if (creditControl.reserveCreditForBeingQueued(newOrder) != ControlResult.OK) {
 			return new ArrayList<SecurityStats>(
 				List.of(SituationalStats.createNotEnoughCreditStats(newOrder.getOrderId()))
 			);
 		}
 
-		creditControl.updateCreditForBeingQueued(newOrder);
 		orderBook.enqueue(newOrder);
 		return new ArrayList<SecurityStats>(List.of(SituationalStats.createAddOrderStats(newOrder.getOrderId())));
 	}
@@ -138,7 +138,6 @@ public class ContinuousBehave implements SecurityBehave {
 
 	private List<SecurityStats> reAddUpdatedOrder(Order updatedOrder, Order originalOrder, OrderBook orderBook) {
 		if (positionControl.checkPositionForOrder(updatedOrder, orderBook) != ControlResult.OK) {
-			creditControl.updateCreditForBeingQueued(originalOrder);
 			orderBook.enqueue(originalOrder);
 			return new ArrayList<SecurityStats>(
 				List.of(SituationalStats.createNotEnoughPositionsStats(originalOrder.getOrderId()))
@@ -158,15 +157,13 @@ public class ContinuousBehave implements SecurityBehave {
 		StopLimitOrder originalOrder,
 		OrderBook orderBook
 	) {
-		if (creditControl.checkCreditForBeingQueued(updatedOrder) != ControlResult.OK) {
-			creditControl.updateCreditForBeingQueued(originalOrder);
+		if (creditControl.replaceCreditForBeingQueued(originalOrder, updatedOrder) != ControlResult.OK) {
 			orderBook.enqueue(originalOrder);
 			return new ArrayList<SecurityStats>(
 				List.of(SituationalStats.createNotEnoughCreditStats(originalOrder.getOrderId()))
 			);
 		}
 
-		creditControl.updateCreditForBeingQueued(updatedOrder);
 		orderBook.enqueue(updatedOrder);
 
 		List<SecurityStats> stats = new LinkedList<>();
@@ -178,10 +175,10 @@ public class ContinuousBehave implements SecurityBehave {
 		List<SecurityStats> stats = new LinkedList<>();
 		stats.add(SituationalStats.createUpdateOrderStats(originalOrder.getOrderId()));
 
+		creditControl.holdCreditForUpdate(originalOrder, updatedOrder);
 		MatchResult updatedOrderResult = matcher.continuousExecuting(updatedOrder, orderBook);
 
 		if (!updatedOrderResult.isSuccessful()) {
-			creditControl.updateCreditForBeingQueued(originalOrder);
 			orderBook.enqueue(originalOrder);
 			stats.set(
 				0,
@@ -0,0 +1,105 @@
+package ir.ramtung.tinyme.headless;
+
+import ir.ramtung.tinyme.domain.service.ApplicationServices;
+import ir.ramtung.tinyme.domain.service.OrderHandler;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.repository.BrokerRepository;
+import ir.ramtung.tinyme.repository.RequestJournal;
+import ir.ramtung.tinyme.repository.SecurityRepository;
+import ir.ramtung.tinyme.repository.ShareholderRepository;
+import ir.ramtung.tinyme.repository.SnapshotService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Replays a recorded request journal against a snapshot on a single thread, without Spring or JMS.
+ * Events are not timestamped in the fingerprint, so two runs over the same input print the same
+ * fingerprint unless matching behaviour changed.
+ * <p>
+ * Usage: {@code java -cp tinyme-plain.jar:<dependencies> ir.ramtung.tinyme.headless.HeadlessEngine
+ * <snapshot> <journal> [events-out]}
+ */
+public class HeadlessEngine {
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+	private final OrderHandler orderHandler;
+	private final RecordingEventPublisher eventPublisher;
+	private final long firstSequence;
+
+	HeadlessEngine(Path snapshot, RecordingEventPublisher eventPublisher) throws IOException {
+		SecurityRepository securityRepository = new SecurityRepository();
+		BrokerRepository brokerRepository = new BrokerRepository();
+		ShareholderRepository shareholderRepository = new ShareholderRepository();
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			firstSequence =
+				SnapshotService.load(snapshot, brokerRepository, shareholderRepository, securityRepository, pool).sequence();
+		} finally {
+			pool.shutdown();
+		}
+
+		this.eventPublisher = eventPublisher;
+		this.orderHandler = new OrderHandler(
+			new ApplicationServices(securityRepository, brokerRepository, shareholderRepository),
+			eventPublisher
+		);
+	}
+
+	long[] run(List<BaseRq> requests) {
+		long[] latencies = new long[requests.size()];
+		for (int i = 0; i < latencies.length; i++) {
+			long start = System.nanoTime();
+			orderHandler.handleRq(requests.get(i));
+			latencies[i] = System.nanoTime() - start;
+		}
+		return latencies;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2 || args.length > 3) {
+			System.err.println("Usage: HeadlessEngine <snapshot> <journal> [events-out]");
+			System.exit(2);
+		}
+
+		BufferedWriter output = args.length == 3 ? Files.newBufferedWriter(Path.of(args[2])) : null;
+		try {
+			RecordingEventPublisher eventPublisher = new RecordingEventPublisher(output);
+			HeadlessEngine engine = new HeadlessEngine(Path.of(args[0]), eventPublisher);
+			List<BaseRq> requests = new ArrayList<>();
+			RequestJournal.read(Path.of(args[1]), engine.firstSequence, requests::add);
+
+			long start = System.nanoTime();
+			long[] latencies = engine.run(requests);
+			long elapsed = System.nanoTime() - start;
+			report(System.out, latencies, elapsed, eventPublisher);
+		} finally {
+			if (output != null) {
+				output.close();
+			}
+		}
+	}
+
+	private static void report(PrintStream out, long[] latencies, long elapsedNanos, RecordingEventPublisher eventPublisher) {
+		out.printf("requests     %d%n", latencies.length);
+		out.printf("events       %d%n", eventPublisher.getPublished());
+		out.printf("elapsed      %.3f ms%n", elapsedNanos / 1e6);
+		out.printf("throughput   %.0f rq/s%n", elapsedNanos == 0 ? 0.0 : latencies.length * 1e9 / elapsedNanos);
+		if (latencies.length > 0) {
+			Arrays.sort(latencies);
+			for (double percentile : PERCENTILES) {
+				int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+				out.printf("%-12s %d ns%n", "p" + percentile, latencies[Math.max(index, 0)]);
+			}
+			out.printf("max          %d ns%n", latencies[latencies.length - 1]);
+		}
+		out.printf("fingerprint  %s%n", eventPublisher.fingerprint());
+	}
+}
@@ -0,0 +1,52 @@
+package ir.ramtung.tinyme.headless;
+
+import ir.ramtung.tinyme.messaging.EventPublisher;
+import ir.ramtung.tinyme.messaging.event.Event;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+class RecordingEventPublisher extends EventPublisher {
+
+	private final MessageDigest digest;
+	private final Writer output;
+	private long published;
+
+	RecordingEventPublisher(Writer output) {
+		super(null);
+		try {
+			this.digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+		this.output = output;
+	}
+
+	@Override
+	public void publish(Event event) {
+		String line = event.toString();
+		digest.update(line.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) '\n');
+		if (output != null) {
+			try {
+				output.write(line);
+				output.write('\n');
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+		published++;
+	}
+
+	long getPublished() {
+		return published;
+	}
+
+	String fingerprint() {
+		return HexFormat.of().formatHex(digest.digest());
+	}
+}
@@ -0,0 +1,101 @@
+package ir.ramtung.tinyme.marketdata;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.DepthLevelDTO;
+import ir.ramtung.tinyme.messaging.event.DepthSnapshotEvent;
+import ir.ramtung.tinyme.messaging.event.DepthUpdateEvent;
+import ir.ramtung.tinyme.messaging.event.Event;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The feed thread's copy of one security's displayed depth, with the level changes collected since the
+ * last flush. A level that changes back to the value it was last published at is not sent again.
+ */
+class BookDepth {
+
+	private static final Side[] SIDES = Side.values();
+
+	private final String securityIsin;
+	private final TreeMap<Integer, long[]> bids = new TreeMap<>(Comparator.reverseOrder());
+	private final TreeMap<Integer, long[]> asks = new TreeMap<>();
+	private final Map<Long, long[]> changes = new LinkedHashMap<>();
+	private long sequence;
+	private boolean reset;
+	private long nextSnapshotAt;
+
+	BookDepth(String securityIsin) {
+		this.securityIsin = securityIsin;
+	}
+
+	void reset() {
+		bids.clear();
+		asks.clear();
+		changes.clear();
+		reset = true;
+	}
+
+	void apply(Side side, int price, long quantity, int orders) {
+		TreeMap<Integer, long[]> levels = (side == Side.BUY) ? bids : asks;
+		long[] level = levels.get(price);
+		if (!reset) {
+			long key = ((long) side.ordinal() << 32) | Integer.toUnsignedLong(price);
+			long[] change = changes.get(key);
+			if (change == null) {
+				long publishedQuantity = (level == null) ? 0 : level[0];
+				long publishedOrders = (level == null) ? 0 : level[1];
+				changes.put(key, new long[] { side.ordinal(), price, publishedQuantity, publishedOrders, quantity, orders });
+			} else {
+				change[4] = quantity;
+				change[5] = orders;
+			}
+		}
+
+		if (orders == 0) {
+			levels.remove(price);
+		} else if (level == null) {
+			levels.put(price, new long[] { quantity, orders });
+		} else {
+			level[0] = quantity;
+			level[1] = orders;
+		}
+	}
+
+	void flush(long now, long snapshotIntervalNanos, List<Event> events) {
+		if (reset) {
+			reset = false;
+			events.add(snapshot(++sequence));
+			nextSnapshotAt = now + snapshotIntervalNanos;
+			return;
+		}
+
+		if (!changes.isEmpty()) {
+			List<DepthLevelDTO> levels = new ArrayList<>(changes.size());
+			for (long[] change : changes.values()) {
+				if (change[2] != change[4] || change[3] != change[5]) {
+					levels.add(new DepthLevelDTO(SIDES[(int) change[0]], (int) change[1], change[4], (int) change[5]));
+				}
+			}
+			changes.clear();
+			if (!levels.isEmpty()) {
+				events.add(new DepthUpdateEvent(securityIsin, ++sequence, levels));
+			}
+		}
+
+		if (now - nextSnapshotAt >= 0) {
+			events.add(snapshot(sequence));
+			nextSnapshotAt = now + snapshotIntervalNanos;
+		}
+	}
+
+	private DepthSnapshotEvent snapshot(long sequence) {
+		List<DepthLevelDTO> levels = new ArrayList<>(bids.size() + asks.size());
+		bids.forEach((price, level) -> levels.add(new DepthLevelDTO(Side.BUY, price, level[0], (int) level[1])));
+		asks.forEach((price, level) -> levels.add(new DepthLevelDTO(Side.SELL, price, level[0], (int) level[1])));
+		return new DepthSnapshotEvent(securityIsin, sequence, levels);
+	}
+}
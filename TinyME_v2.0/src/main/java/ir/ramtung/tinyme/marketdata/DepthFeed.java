@@ -0,0 +1,270 @@
+package ir.ramtung.tinyme.marketdata;
+
+import ir.ramtung.tinyme.domain.entity.ChangedLevels;
+import ir.ramtung.tinyme.domain.entity.OrderBook;
+import ir.ramtung.tinyme.domain.entity.PriceLevel;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.service.ShardedOrderEngine;
+import ir.ramtung.tinyme.messaging.event.Event;
+import ir.ramtung.tinyme.repository.SecurityRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.Destination;
+import jakarta.jms.MessageProducer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes aggregated price-level depth for every security. After each request a shard copies the
+ * current depth of the levels it touched into its own ring; it never waits for the feed. The
+ * "tinyme-market-data" thread keeps a copy of each book, merges the changes of one conflation window
+ * into a single {@code DepthUpdateEvent} per security and sends a {@code DepthSnapshotEvent} periodically.
+ * <p>
+ * If a shard's ring is full, the book is marked for resync and its next collection sends the whole book,
+ * which the feed publishes as a snapshot under a new sequence.
+ */
+@Component
+public class DepthFeed {
+
+	private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final Side[] SIDES = Side.values();
+
+	private final Logger log = Logger.getLogger(this.getClass().getName());
+	private final SecurityRepository securityRepository;
+	private final ObjectProvider<ShardedOrderEngine> orderEngine;
+	private final JmsTemplate jmsTemplate;
+	private final boolean enabled;
+	private final String destination;
+	private final long conflationNanos;
+	private final long snapshotIntervalNanos;
+	private final int ringSize;
+	private final List<DepthRing> rings = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<DepthRing> producerRing = ThreadLocal.withInitial(this::registerRing);
+	private final Map<String, Integer> bookIndex = new HashMap<>();
+	private OrderBook[] orderBooks;
+	private boolean[] resyncPending;
+	private BookDepth[] depths;
+	private JmsTemplate batchTemplate;
+	private volatile boolean running;
+	private Thread publisher;
+
+	public DepthFeed(
+		SecurityRepository securityRepository,
+		ObjectProvider<ShardedOrderEngine> orderEngine,
+		JmsTemplate jmsTemplate,
+		@Value("${engine.market-data.enabled:false}") boolean enabled,
+		@Value("${engine.market-data.destination:MD}") String destination,
+		@Value("${engine.market-data.conflation-millis:50}") long conflationMillis,
+		@Value("${engine.market-data.snapshot-interval-seconds:10}") long snapshotIntervalSeconds,
+		@Value("${engine.market-data.ring-size:65536}") int ringSize
+	) {
+		if (conflationMillis <= 0 || snapshotIntervalSeconds <= 0) {
+			throw new IllegalArgumentException("engine.market-data intervals must be positive");
+		}
+		if (ringSize <= 0 || Integer.bitCount(ringSize) != 1) {
+			throw new IllegalArgumentException("engine.market-data.ring-size must be a power of two");
+		}
+
+		this.securityRepository = securityRepository;
+		this.orderEngine = orderEngine;
+		this.jmsTemplate = jmsTemplate;
+		this.enabled = enabled;
+		this.destination = destination;
+		this.conflationNanos = TimeUnit.MILLISECONDS.toNanos(conflationMillis);
+		this.snapshotIntervalNanos = TimeUnit.SECONDS.toNanos(snapshotIntervalSeconds);
+		this.ringSize = ringSize;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void start() throws InterruptedException {
+		if (!enabled) {
+			return;
+		}
+
+		List<Security> securities = new ArrayList<>();
+		securityRepository.allSecurities().forEach(securities::add);
+		orderBooks = new OrderBook[securities.size()];
+		resyncPending = new boolean[securities.size()];
+		depths = new BookDepth[securities.size()];
+		for (int i = 0; i < securities.size(); i++) {
+			Security security = securities.get(i);
+			bookIndex.put(security.getIsin(), i);
+			orderBooks[i] = security.getOrderBook();
+			depths[i] = new BookDepth(security.getIsin());
+		}
+		orderEngine.getObject().quiesce(this::seed);
+
+		batchTemplate = new JmsTemplate(jmsTemplate.getConnectionFactory());
+		batchTemplate.setMessageConverter(jmsTemplate.getMessageConverter());
+		batchTemplate.setDestinationResolver(jmsTemplate.getDestinationResolver());
+		batchTemplate.setSessionTransacted(true);
+
+		running = true;
+		publisher = Thread.ofPlatform().name("tinyme-market-data").daemon().start(this::publish);
+	}
+
+	private void seed() {
+		for (int i = 0; i < orderBooks.length; i++) {
+			depths[i].reset();
+			for (PriceLevel level : orderBooks[i].getBuyQueue().levels()) {
+				depths[i].apply(Side.BUY, level.getPrice(), level.getDisplayedQuantity(), level.getSize());
+			}
+			for (PriceLevel level : orderBooks[i].getSellQueue().levels()) {
+				depths[i].apply(Side.SELL, level.getPrice(), level.getDisplayedQuantity(), level.getSize());
+			}
+			orderBooks[i].getChangedLevels().clear();
+		}
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (publisher == null) {
+			return;
+		}
+		running = false;
+		publisher.join(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	/** Returns a feed that never starts, so collecting from it does nothing. */
+	public static DepthFeed disabled() {
+		return new DepthFeed(null, null, null, false, null, 1, 1, 1);
+	}
+
+	public void collect(String securityIsin) {
+		if (running && securityIsin != null) {
+			collectBook(securityIsin);
+		}
+	}
+
+	private void collectBook(String securityIsin) {
+		Integer index = bookIndex.get(securityIsin);
+		if (index == null) {
+			return;
+		}
+
+		OrderBook orderBook = orderBooks[index];
+		ChangedLevels changedLevels = orderBook.getChangedLevels();
+		if (changedLevels.isEmpty() && !resyncPending[index]) {
+			return;
+		}
+
+		DepthRing ring = producerRing.get();
+		boolean whole = resyncPending[index] || changedLevels.isOverflowed();
+		int records = whole
+			? 1 + orderBook.getBuyQueue().levelCount() + orderBook.getSellQueue().levelCount()
+			: changedLevels.size();
+		if (ring.remaining() < records) {
+			resyncPending[index] = true;
+		} else if (whole) {
+			ring.put(index, DepthRing.RESET, 0, 0, 0);
+			putLevels(ring, index, Side.BUY, orderBook);
+			putLevels(ring, index, Side.SELL, orderBook);
+			resyncPending[index] = false;
+		} else {
+			for (int i = 0; i < changedLevels.size(); i++) {
+				Side side = changedLevels.sideAt(i);
+				int price = changedLevels.priceAt(i);
+				PriceLevel level = orderBook.findLevel(side, price);
+				if (level == null) {
+					ring.put(index, side.ordinal(), price, 0, 0);
+				} else {
+					ring.put(index, side.ordinal(), price, level.getDisplayedQuantity(), level.getSize());
+				}
+			}
+		}
+		changedLevels.clear();
+		ring.commit();
+	}
+
+	private static void putLevels(DepthRing ring, int index, Side side, OrderBook orderBook) {
+		var queue = (side == Side.BUY) ? orderBook.getBuyQueue() : orderBook.getSellQueue();
+		for (PriceLevel level : queue.levels()) {
+			ring.put(index, side.ordinal(), level.getPrice(), level.getDisplayedQuantity(), level.getSize());
+		}
+	}
+
+	private DepthRing registerRing() {
+		DepthRing ring = new DepthRing(ringSize);
+		rings.add(ring);
+		return ring;
+	}
+
+	private void publish() {
+		List<Event> batch = new ArrayList<>();
+		long nextFlush = System.nanoTime() + conflationNanos;
+		while (running) {
+			int drained = drain();
+			long now = System.nanoTime();
+			if (now - nextFlush >= 0) {
+				for (BookDepth depth : depths) {
+					depth.flush(now, snapshotIntervalNanos, batch);
+				}
+				if (!batch.isEmpty()) {
+					send(batch);
+					batch.clear();
+				}
+				nextFlush = now + conflationNanos;
+			} else if (drained == 0) {
+				LockSupport.parkNanos(Math.min(nextFlush - now, MAX_IDLE_NANOS));
+			}
+		}
+	}
+
+	private int drain() {
+		int drained = 0;
+		for (DepthRing ring : rings) {
+			drained += ring.drainTo(this::apply);
+		}
+		return drained;
+	}
+
+	private void apply(int book, int side, int price, long quantity, int orders) {
+		if (side == DepthRing.RESET) {
+			depths[book].reset();
+		} else {
+			depths[book].apply(SIDES[side], price, quantity, orders);
+		}
+	}
+
+	private void send(List<Event> batch) {
+		try {
+			batchTemplate.execute(
+				session -> {
+					Destination target = batchTemplate.getDestinationResolver().resolveDestinationName(session, destination, false);
+					MessageConverter converter = batchTemplate.getMessageConverter();
+					MessageProducer producer = session.createProducer(target);
+					try {
+						for (Event event : batch) {
+							producer.send(converter.toMessage(event, session));
+						}
+						session.commit();
+					} finally {
+						producer.close();
+					}
+					return null;
+				},
+				true
+			);
+		} catch (JmsException ex) {
+			log.log(Level.SEVERE, "Failed to publish " + batch.size() + " market data events", ex);
+		}
+	}
+}
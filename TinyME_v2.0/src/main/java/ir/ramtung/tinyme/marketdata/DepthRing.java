@@ -0,0 +1,65 @@
+package ir.ramtung.tinyme.marketdata;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class DepthRing {
+
+	static final int RESET = -1;
+
+	interface Sink {
+		void accept(int book, int side, int price, long quantity, int orders);
+	}
+
+	private static final int WIDTH = 5;
+
+	private final long[] slots;
+	private final int capacity;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private long claimed;
+
+	DepthRing(int capacity) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("ring capacity must be a power of two");
+		}
+		this.slots = new long[capacity * WIDTH];
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+	}
+
+	int remaining() {
+		return capacity - (int) (claimed - tail.get());
+	}
+
+	void put(int book, int side, int price, long quantity, int orders) {
+		int offset = ((int) claimed & mask) * WIDTH;
+		slots[offset] = book;
+		slots[offset + 1] = side;
+		slots[offset + 2] = price;
+		slots[offset + 3] = quantity;
+		slots[offset + 4] = orders;
+		claimed++;
+	}
+
+	void commit() {
+		head.lazySet(claimed);
+	}
+
+	int drainTo(Sink sink) {
+		long first = tail.get();
+		int count = (int) (head.get() - first);
+		for (int i = 0; i < count; i++) {
+			int offset = ((int) (first + i) & mask) * WIDTH;
+			sink.accept(
+				(int) slots[offset],
+				(int) slots[offset + 1],
+				(int) slots[offset + 2],
+				slots[offset + 3],
+				(int) slots[offset + 4]
+			);
+		}
+		tail.lazySet(first + count);
+		return count;
+	}
+}
@@ -0,0 +1,5 @@
+package ir.ramtung.tinyme.messaging;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+
+public record DepthLevelDTO(Side side, int price, long quantity, int orders) {}
@@ -1,26 +1,231 @@
 package ir.ramtung.tinyme.messaging;
 
 import ir.ramtung.tinyme.messaging.event.Event;
+import ir.ramtung.tinyme.metrics.EngineMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.Destination;
+import jakarta.jms.MessageProducer;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.JmsException;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.stereotype.Component;
 
+/**
+ * Sends events to the response queue from a single drainer thread. Publishing threads put events on their
+ * own rings; the drainer empties the rings in batches of up to {@code engine.publish.max-batch} events and
+ * sends each batch in one transaction.
+ */
 @Component
 public class EventPublisher {
 
+	private static final long FULL_RING_BACKOFF_NANOS = 1_000;
+	private static final long MIN_RETRY_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long MAX_RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
 	private final Logger log = Logger.getLogger(this.getClass().getName());
 	private final JmsTemplate jmsTemplate;
+	private final EngineMetrics engineMetrics;
+	private final List<EventRing> rings = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<EventRing> producerRing = ThreadLocal.withInitial(this::registerRing);
+	private volatile boolean running;
+	private volatile boolean drainerParked;
+	private JmsTemplate batchTemplate;
+	private Thread drainer;
 
 	@Value("${responseQueue}")
 	private String responseQueue;
 
+	@Value("${engine.publish.max-batch:256}")
+	private int maxBatch;
+
+	/**
+	 * How long an idle drainer parks before checking the rings again. Publishers wake a parked drainer as soon
+	 * as they publish, so this is not a batching delay; it only bounds how long a lost wakeup could hold events.
+	 */
+	@Value("${engine.publish.max-delay-micros:500}")
+	private long maxDelayMicros;
+
+	@Value("${engine.publish.ring-size:16384}")
+	private int ringSize;
+
+	@Value("${engine.publish.wait-strategy:BLOCKING}")
+	private PublishWaitStrategy waitStrategy;
+
 	public EventPublisher(JmsTemplate jmsTemplate) {
+		this(jmsTemplate, EngineMetrics.disabled());
+	}
+
+	@Autowired
+	public EventPublisher(JmsTemplate jmsTemplate, EngineMetrics engineMetrics) {
 		this.jmsTemplate = jmsTemplate;
+		this.engineMetrics = engineMetrics;
+	}
+
+	@PostConstruct
+	public void start() {
+		if (maxBatch <= 0 || maxDelayMicros <= 0) {
+			throw new IllegalArgumentException("engine.publish limits must be positive");
+		}
+		if (ringSize <= 0 || Integer.bitCount(ringSize) != 1) {
+			throw new IllegalArgumentException("engine.publish.ring-size must be a power of two");
+		}
+
+		batchTemplate = new JmsTemplate(jmsTemplate.getConnectionFactory());
+		batchTemplate.setMessageConverter(jmsTemplate.getMessageConverter());
+		batchTemplate.setDestinationResolver(jmsTemplate.getDestinationResolver());
+		batchTemplate.setSessionTransacted(true);
+
+		running = true;
+		drainer = Thread.ofPlatform().name("tinyme-publisher").daemon().start(this::drain);
 	}
 
 	public void publish(Event event) {
-		log.info("Published : " + event);
-		jmsTemplate.convertAndSend(responseQueue, event);
+		EventRing ring = producerRing.get();
+		while (!ring.offer(event)) {
+			if (!running) {
+				log.severe("Dropped event published after shutdown: " + event);
+				return;
+			}
+			waitStrategy.idle(FULL_RING_BACKOFF_NANOS);
+		}
+		wakeDrainer();
+	}
+
+	/**
+	 * Groups the events this thread publishes until {@link #endResponse()} into one transaction, so a consumer
+	 * never sees part of a response committed without the rest.
+	 */
+	public void beginResponse() {
+		if (drainer != null) {
+			producerRing.get().beginResponse();
+		}
+	}
+
+	public void endResponse() {
+		if (drainer != null) {
+			producerRing.get().endResponse();
+			wakeDrainer();
+		}
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		LockSupport.unpark(drainer);
+		drainer.join(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	/**
+	 * The ring publishes its head with a release store, which a later read may pass. The fence keeps the read of
+	 * {@code drainerParked} after that store, so a drainer that parked on rings it saw empty is always woken.
+	 */
+	private void wakeDrainer() {
+		VarHandle.fullFence();
+		if (drainerParked) {
+			LockSupport.unpark(drainer);
+		}
+	}
+
+	private EventRing registerRing() {
+		EventRing ring = new EventRing(ringSize);
+		rings.add(ring);
+		return ring;
+	}
+
+	private void drain() {
+		List<Event> batch = new ArrayList<>(maxBatch);
+		long idleNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+		long retryBackoffNanos = MIN_RETRY_BACKOFF_NANOS;
+		while (running || !allRingsEmpty() || !batch.isEmpty()) {
+			for (EventRing ring : rings) {
+				if (batch.size() >= maxBatch) {
+					break;
+				}
+				ring.drainTo(batch, maxBatch - batch.size());
+			}
+
+			if (!batch.isEmpty()) {
+				if (flush(batch)) {
+					batch.clear();
+					retryBackoffNanos = MIN_RETRY_BACKOFF_NANOS;
+				} else if (running) {
+					LockSupport.parkNanos(retryBackoffNanos);
+					retryBackoffNanos = Math.min(2 * retryBackoffNanos, MAX_RETRY_BACKOFF_NANOS);
+				} else {
+					log.severe("Dropped " + batch.size() + " unpublished events at shutdown");
+					batch.clear();
+				}
+			} else if (waitStrategy == PublishWaitStrategy.BLOCKING) {
+				drainerParked = true;
+				if (running && allRingsEmpty()) {
+					waitStrategy.idle(idleNanos);
+				}
+				drainerParked = false;
+			} else {
+				waitStrategy.idle(idleNanos);
+			}
+		}
+	}
+
+	private boolean allRingsEmpty() {
+		for (EventRing ring : rings) {
+			if (!ring.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Sends the batch in one transaction. A failed send rolls the whole batch back, so the caller keeps it and
+	 * retries; the rings fill up meanwhile and the full-ring path holds the shards back until the broker recovers.
+	 */
+	private boolean flush(List<Event> batch) {
+		long started = System.nanoTime();
+		try {
+			send(batch);
+			engineMetrics.recordPublish(batch.size(), System.nanoTime() - started);
+			return true;
+		} catch (JmsException ex) {
+			log.log(Level.SEVERE, "Failed to publish batch of " + batch.size() + " events, retrying", ex);
+			return false;
+		}
+	}
+
+	private void send(List<Event> batch) {
+		batchTemplate.execute(
+			session -> {
+				Destination destination = batchTemplate
+					.getDestinationResolver()
+					.resolveDestinationName(session, responseQueue, false);
+				MessageConverter converter = batchTemplate.getMessageConverter();
+				MessageProducer producer = session.createProducer(destination);
+				try {
+					for (Event event : batch) {
+						producer.send(converter.toMessage(event, session));
+					}
+					session.commit();
+				} finally {
+					producer.close();
+				}
+				return null;
+			},
+			true
+		);
+
+		if (log.isLoggable(Level.FINE)) {
+			batch.forEach(event -> log.fine("Published : " + event));
+		}
 	}
 }
@@ -0,0 +1,90 @@
+package ir.ramtung.tinyme.messaging;
+
+import ir.ramtung.tinyme.messaging.event.Event;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+class EventRing {
+
+	private final Event[] slots;
+	private final boolean[] responseEnds;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private long cachedTail;
+	private long written;
+	private boolean inResponse;
+
+	EventRing(int capacity) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("ring capacity must be a power of two");
+		}
+		this.slots = new Event[capacity];
+		this.responseEnds = new boolean[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Holds back the events offered until {@link #endResponse()}, so the consumer sees them all at once and
+	 * drains them into the same batch. A response too large for the free space is released early in parts.
+	 */
+	void beginResponse() {
+		inResponse = true;
+	}
+
+	void endResponse() {
+		inResponse = false;
+		publish();
+	}
+
+	boolean offer(Event event) {
+		long next = written;
+		if (next - cachedTail == slots.length) {
+			cachedTail = tail.get();
+			if (next - cachedTail == slots.length) {
+				publish();
+				return false;
+			}
+		}
+		int slot = (int) next & mask;
+		slots[slot] = event;
+		responseEnds[slot] = !inResponse;
+		written = next + 1;
+		if (!inResponse) {
+			head.lazySet(written);
+		}
+		return true;
+	}
+
+	private void publish() {
+		if (written != head.get()) {
+			responseEnds[(int) (written - 1) & mask] = true;
+			head.lazySet(written);
+		}
+	}
+
+	/**
+	 * Moves up to {@code limit} events to the sink, going past the limit only to finish the response the last
+	 * of them belongs to.
+	 */
+	int drainTo(List<Event> sink, int limit) {
+		long first = tail.get();
+		long available = head.get() - first;
+		int count = 0;
+		while (count < available) {
+			int slot = (int) (first + count) & mask;
+			sink.add(slots[slot]);
+			slots[slot] = null;
+			count++;
+			if (count >= limit && responseEnds[slot]) {
+				break;
+			}
+		}
+		tail.lazySet(first + count);
+		return count;
+	}
+
+	boolean isEmpty() {
+		return head.get() == tail.get();
+	}
+}
@@ -0,0 +1,26 @@
+package ir.ramtung.tinyme.messaging;
+
+import java.util.concurrent.locks.LockSupport;
+
+public enum PublishWaitStrategy {
+	BLOCKING {
+		@Override
+		void idle(long timeoutNanos) {
+			LockSupport.parkNanos(this, timeoutNanos);
+		}
+	},
+	YIELDING {
+		@Override
+		void idle(long timeoutNanos) {
+			Thread.yield();
+		}
+	},
+	BUSY_SPIN {
+		@Override
+		void idle(long timeoutNanos) {
+			Thread.onSpinWait();
+		}
+	};
+
+	abstract void idle(long timeoutNanos);
+}
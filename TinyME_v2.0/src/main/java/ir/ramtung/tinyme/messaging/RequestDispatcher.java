@@ -1,47 +1,239 @@
 package ir.ramtung.tinyme.messaging;
 
-import ir.ramtung.tinyme.domain.service.OrderHandler;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.service.ExpiringService;
+import ir.ramtung.tinyme.domain.service.ScheduleexpiryDate;
+import ir.ramtung.tinyme.domain.service.ShardedOrderEngine;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
 import ir.ramtung.tinyme.messaging.request.ChangeMatchingStateRq;
 import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
 import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.messaging.request.ExpireOrderRq;
+import ir.ramtung.tinyme.metrics.TraceCollector;
+import ir.ramtung.tinyme.metrics.TraceStage;
+import ir.ramtung.tinyme.repository.RequestJournal;
+import ir.ramtung.tinyme.repository.SnapshotService;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.springframework.jms.annotation.JmsListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.stereotype.Component;
 
 @Component
 public class RequestDispatcher {
 
+	private static final long RECONNECT_DELAY_MILLIS = 1_000;
+
 	private final Logger log = Logger.getLogger(this.getClass().getName());
-	private final OrderHandler orderHandler;
+	private final ShardedOrderEngine orderEngine;
+	private final ExpiringService expiringService;
+	private final ConnectionFactory connectionFactory;
+	private final MessageConverter messageConverter;
+	private final RequestJournal journal;
+	private final SnapshotService snapshotService;
+	private final TraceCollector traceCollector;
+	private final Map<String, Class<? extends BaseRq>> requestTypes;
+	private final List<BaseRq> batch = new ArrayList<>();
+	private volatile boolean running;
+	private Thread consumer;
+
+	@Value("${requestQueue}")
+	private String requestQueue;
+
+	@Value("${engine.ingest.max-batch:256}")
+	private int maxBatch;
+
+	@Value("${engine.ingest.receive-timeout-millis:100}")
+	private long receiveTimeoutMillis;
+
+	public RequestDispatcher(
+		ShardedOrderEngine orderEngine,
+		ExpiringService expiringService,
+		ConnectionFactory connectionFactory,
+		MessageConverter messageConverter,
+		RequestJournal journal,
+		SnapshotService snapshotService,
+		TraceCollector traceCollector
+	) {
+		this.orderEngine = orderEngine;
+		this.expiringService = expiringService;
+		this.connectionFactory = connectionFactory;
+		this.messageConverter = messageConverter;
+		this.journal = journal;
+		this.snapshotService = snapshotService;
+		this.traceCollector = traceCollector;
+		this.requestTypes = Map.of(
+			EnterOrderRq.class.getName(), EnterOrderRq.class,
+			DeleteOrderRq.class.getName(), DeleteOrderRq.class,
+			ChangeMatchingStateRq.class.getName(), ChangeMatchingStateRq.class
+		);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (maxBatch <= 0 || receiveTimeoutMillis <= 0) {
+			throw new IllegalArgumentException("engine.ingest limits must be positive");
+		}
 
-	public RequestDispatcher(OrderHandler orderHandler) {
-		this.orderHandler = orderHandler;
+		running = true;
+		consumer = Thread.ofPlatform().name("tinyme-ingest").start(this::consume);
 	}
 
-	@JmsListener(
-			destination = "${requestQueue}",
-			selector = "_type='ir.ramtung.tinyme.messaging.request.EnterOrderRq'"
-	)
-	public void receiveEnterOrderRq(EnterOrderRq enterOrderRq) {
-		log.info("Received message: " + enterOrderRq);
-		orderHandler.handleRq(enterOrderRq);
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		if (consumer != null) {
+			consumer.join(TimeUnit.SECONDS.toMillis(10));
+		}
 	}
 
-	@JmsListener(
-		destination = "${requestQueue}",
-		selector = "_type='ir.ramtung.tinyme.messaging.request.DeleteOrderRq'"
-	)
-	public void receiveDeleteOrderRq(DeleteOrderRq deleteOrderRq) {
-		log.info("Received message: " + deleteOrderRq);
-		orderHandler.handleRq(deleteOrderRq);
+	private void consume() {
+		while (running) {
+			try (Connection connection = connectionFactory.createConnection()) {
+				Session session = connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+				MessageConsumer messageConsumer = session.createConsumer(session.createQueue(requestQueue));
+				connection.start();
+				while (running) {
+					receiveBatch(session, messageConsumer);
+					sweepExpirations();
+					snapshotService.takeSnapshotIfDue();
+				}
+			} catch (JMSException ex) {
+				log.log(Level.SEVERE, "Request consumer failed, reconnecting", ex);
+				pauseBeforeReconnect();
+			} catch (UncheckedIOException ex) {
+				log.log(Level.SEVERE, "Request journal failed, stopping ingest; unacknowledged requests stay queued", ex);
+				running = false;
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				running = false;
+			}
+		}
+	}
+
+	/**
+	 * Journals, submits and acknowledges a batch only once every message in it was dispatched. If one fails,
+	 * none of them is acknowledged: their journal records are cut off and the session redelivers the batch.
+	 */
+	private void receiveBatch(Session session, MessageConsumer messageConsumer) throws JMSException {
+		Message message = messageConsumer.receive(receiveTimeoutMillis);
+		if (message == null) {
+			return;
+		}
+
+		RequestJournal.Mark start = journal.mark();
+		Message last;
+		try {
+			for (int received = 1; ; received++) {
+				dispatch(message);
+				last = message;
+				if (received == maxBatch) {
+					break;
+				}
+				message = messageConsumer.receiveNoWait();
+				if (message == null) {
+					break;
+				}
+			}
+			journal.commit();
+		} catch (RuntimeException | JMSException ex) {
+			abandonBatch(session, start, ex);
+			throw ex;
+		}
+
+		try {
+			batch.forEach(orderEngine::submit);
+		} finally {
+			batch.clear();
+		}
+		last.acknowledge();
+	}
+
+	private void abandonBatch(Session session, RequestJournal.Mark start, Exception cause) {
+		batch.clear();
+		try {
+			journal.truncate(start);
+			session.recover();
+		} catch (RuntimeException | JMSException ex) {
+			cause.addSuppressed(ex);
+		}
+	}
+
+	private void dispatch(Message message) throws JMSException {
+		String type = message.getStringProperty(MessagingConfig.TYPE_ID_PROPERTY);
+		Class<? extends BaseRq> requestType = (type == null) ? null : requestTypes.get(type);
+		if (requestType == null) {
+			log.warning("Dropped request of unknown type: " + type);
+			return;
+		}
+
+		long received = System.nanoTime();
+		BaseRq rq;
+		try {
+			rq = requestType.cast(messageConverter.fromMessage(message));
+		} catch (MessageConversionException | ClassCastException ex) {
+			log.log(Level.SEVERE, "Dropped malformed request of type: " + type, ex);
+			return;
+		}
+		if (traceCollector.isActive()) {
+			rq.startTrace(received);
+			rq.stamp(TraceStage.DECODED);
+		}
+		if (log.isLoggable(Level.FINE)) {
+			log.fine("Received message: " + rq);
+		}
+		journal.append(rq);
+		batch.add(rq);
+	}
+
+	/**
+	 * Journals the expirations that fell due since the last sweep and hands them to the shards. Sweeping on
+	 * the ingest thread keeps them in the same order in the journal as on the shard queues, so a replay
+	 * expires exactly the orders the live run did, between the same requests.
+	 */
+	void sweepExpirations() {
+		Map<Security, List<ScheduleexpiryDate>> due = expiringService.collectDue();
+		if (due.isEmpty()) {
+			return;
+		}
+
+		Map<String, List<ExpireOrderRq>> expirations = new LinkedHashMap<>();
+		for (Map.Entry<Security, List<ScheduleexpiryDate>> entry : due.entrySet()) {
+			String securityIsin = entry.getKey().getIsin();
+			List<ExpireOrderRq> requests = new ArrayList<>(entry.getValue().size());
+			for (ScheduleexpiryDate expiration : entry.getValue()) {
+				ExpireOrderRq rq = new ExpireOrderRq(securityIsin, expiration.getOrderSide(), expiration.getOrderId());
+				journal.append(rq);
+				requests.add(rq);
+			}
+			expirations.put(securityIsin, requests);
+		}
+		journal.commit();
+		expirations.forEach(orderEngine::submitExpirations);
 	}
 
-	@JmsListener(
-			destination = "${requestQueue}",
-			selector = "_type='ir.ramtung.tinyme.messaging.request.ChangeMatchingStateRq'"
-	)
-	public void receiveChangeMatchingStateRq(ChangeMatchingStateRq changeMatchingStateRq) {
-		log.info("Received message: " + changeMatchingStateRq);
-		orderHandler.handleRq(changeMatchingStateRq);
+	private void pauseBeforeReconnect() {
+		try {
+			Thread.sleep(RECONNECT_DELAY_MILLIS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			running = false;
+		}
 	}
 }
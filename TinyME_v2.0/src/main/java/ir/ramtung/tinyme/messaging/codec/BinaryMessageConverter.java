@@ -0,0 +1,63 @@
+package ir.ramtung.tinyme.messaging.codec;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+
+public class BinaryMessageConverter implements MessageConverter {
+
+	private static final int INITIAL_BUFFER_SIZE = 4096;
+
+	private final WireCodec codec = new WireCodec();
+	private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> WireCodec.allocate(INITIAL_BUFFER_SIZE));
+	private final String typeIdPropertyName;
+
+	public BinaryMessageConverter(String typeIdPropertyName) {
+		this.typeIdPropertyName = typeIdPropertyName;
+	}
+
+	@Override
+	public Message toMessage(Object object, Session session) throws JMSException {
+		ByteBuffer buffer = encode(object);
+		BytesMessage message = session.createBytesMessage();
+		message.writeBytes(buffer.array(), 0, buffer.position());
+		message.setStringProperty(typeIdPropertyName, object.getClass().getName());
+		return message;
+	}
+
+	@Override
+	public Object fromMessage(Message message) throws JMSException {
+		if (!(message instanceof BytesMessage bytesMessage)) {
+			throw new MessageConversionException("Expected a BytesMessage but got " + message.getClass().getName());
+		}
+		byte[] body = new byte[(int) bytesMessage.getBodyLength()];
+		bytesMessage.readBytes(body);
+		try {
+			return codec.decode(WireCodec.wrap(body));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException ex) {
+			throw new MessageConversionException("Malformed binary message", ex);
+		}
+	}
+
+	private ByteBuffer encode(Object object) {
+		ByteBuffer buffer = buffers.get();
+		while (true) {
+			buffer.clear();
+			try {
+				codec.encode(object, buffer);
+				return buffer;
+			} catch (BufferOverflowException ex) {
+				buffer = WireCodec.allocate(buffer.capacity() * 2);
+				buffers.set(buffer);
+			} catch (IllegalArgumentException ex) {
+				throw new MessageConversionException(ex.getMessage(), ex);
+			}
+		}
+	}
+}
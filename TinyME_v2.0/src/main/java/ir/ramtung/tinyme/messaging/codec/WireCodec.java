@@ -0,0 +1,424 @@
+package ir.ramtung.tinyme.messaging.codec;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.DepthLevelDTO;
+import ir.ramtung.tinyme.messaging.TradeDTO;
+import ir.ramtung.tinyme.messaging.event.*;
+import ir.ramtung.tinyme.messaging.request.ChangeMatchingStateRq;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.messaging.request.ExpireOrderRq;
+import ir.ramtung.tinyme.messaging.request.MatchingState;
+import ir.ramtung.tinyme.messaging.request.OrderEntryType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WireCodec {
+
+	public static final int SCHEMA_ID = 1;
+	public static final int SCHEMA_VERSION = 1;
+	public static final int HEADER_LENGTH = 8;
+
+	static final int ENTER_ORDER_RQ = 1;
+	static final int DELETE_ORDER_RQ = 2;
+	static final int CHANGE_MATCHING_STATE_RQ = 3;
+	static final int EXPIRE_ORDER_RQ = 4;
+	static final int ORDER_ACCEPTED = 10;
+	static final int ORDER_UPDATED = 11;
+	static final int ORDER_DELETED = 12;
+	static final int ORDER_ACTIVATED = 13;
+	static final int ORDER_REJECTED = 14;
+	static final int ORDER_EXECUTED = 15;
+	static final int TRADE = 16;
+	static final int OPENING_PRICE = 17;
+	static final int SECURITY_STATE_CHANGED = 18;
+	static final int DEPTH_UPDATE = 19;
+	static final int DEPTH_SNAPSHOT = 20;
+	static final int BEST_BID_OFFER_CHANGED = 21;
+
+	private static final int TIME_LENGTH = 12;
+	private static final int ENTER_ORDER_BLOCK = 2 + 8 + 8 + TIME_LENGTH + TIME_LENGTH + 4 + 4 + 8 + 8 + 4 + 4 + 4;
+	private static final int DELETE_ORDER_BLOCK = 1 + 8 + 8 + TIME_LENGTH;
+	private static final int CHANGE_STATE_BLOCK = 1;
+	private static final int EXPIRE_ORDER_BLOCK = 1 + 8 + TIME_LENGTH;
+	private static final int ORDER_IDS_BLOCK = TIME_LENGTH + 8 + 8;
+	private static final int ORDER_ACTIVATED_BLOCK = TIME_LENGTH + 8;
+	private static final int TRADE_BLOCK = TIME_LENGTH + 4 + 4 + 8 + 8;
+	private static final int TRADE_ENTRY_BLOCK = 4 + 4 + 8 + 8;
+	private static final int OPENING_PRICE_BLOCK = TIME_LENGTH + 4 + 4;
+	private static final int STATE_CHANGED_BLOCK = TIME_LENGTH + 1;
+	private static final int DEPTH_BLOCK = TIME_LENGTH + 8;
+	private static final int DEPTH_LEVEL_BLOCK = 1 + 4 + 8 + 4;
+	private static final int BEST_BID_OFFER_BLOCK = TIME_LENGTH + 4 + 8 + 4 + 8;
+	private static final long NULL_TIME = Long.MIN_VALUE;
+	private static final int NULL_LENGTH = 0xFFFF;
+
+	private static final OrderEntryType[] ENTRY_TYPES = OrderEntryType.values();
+	private static final Side[] SIDES = Side.values();
+	private static final MatchingState[] MATCHING_STATES = MatchingState.values();
+
+	public static ByteBuffer allocate(int capacity) {
+		return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public static ByteBuffer wrap(byte[] bytes) {
+		return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public void encode(Object message, ByteBuffer buffer) {
+		if (message instanceof EnterOrderRq rq) {
+			encodeEnterOrder(rq, buffer);
+		} else if (message instanceof DeleteOrderRq rq) {
+			encodeDeleteOrder(rq, buffer);
+		} else if (message instanceof ExpireOrderRq rq) {
+			encodeExpireOrder(rq, buffer);
+		} else if (message instanceof ChangeMatchingStateRq rq) {
+			header(buffer, CHANGE_MATCHING_STATE_RQ, CHANGE_STATE_BLOCK);
+			putEnum(buffer, rq.getTargetState());
+			putString(buffer, rq.getSecurityIsin());
+		} else if (message instanceof Event event) {
+			encodeEvent(event, buffer);
+		} else {
+			throw new IllegalArgumentException("No wire template for " + message.getClass().getName());
+		}
+	}
+
+	public Object decode(ByteBuffer buffer) {
+		int templateId = Short.toUnsignedInt(buffer.getShort());
+		int schemaId = Short.toUnsignedInt(buffer.getShort());
+		int version = Short.toUnsignedInt(buffer.getShort());
+		int blockLength = Short.toUnsignedInt(buffer.getShort());
+		if (schemaId != SCHEMA_ID || version > SCHEMA_VERSION) {
+			throw new IllegalArgumentException("Unsupported wire schema " + schemaId + " version " + version);
+		}
+
+		int block = buffer.position();
+		int varData = block + blockLength;
+		return switch (templateId) {
+			case ENTER_ORDER_RQ -> decodeEnterOrder(buffer, varData);
+			case DELETE_ORDER_RQ -> decodeDeleteOrder(buffer, varData);
+			case EXPIRE_ORDER_RQ -> decodeExpireOrder(buffer, varData);
+			case CHANGE_MATCHING_STATE_RQ -> {
+				MatchingState state = getEnum(buffer, MATCHING_STATES);
+				yield new ChangeMatchingStateRq(getString(buffer.position(varData)), state);
+			}
+			default -> decodeEvent(templateId, buffer, varData);
+		};
+	}
+
+	private void encodeEnterOrder(EnterOrderRq rq, ByteBuffer buffer) {
+		header(buffer, ENTER_ORDER_RQ, ENTER_ORDER_BLOCK);
+		putEnum(buffer, rq.getRequestType());
+		putEnum(buffer, rq.getSide());
+		buffer.putLong(rq.getRequestId());
+		buffer.putLong(rq.getOrderId());
+		putTime(buffer, rq.getEntryTime());
+		putTime(buffer, rq.getExpiryDate());
+		buffer.putInt(rq.getQuantity());
+		buffer.putInt(rq.getPrice());
+		buffer.putLong(rq.getBrokerId());
+		buffer.putLong(rq.getShareholderId());
+		buffer.putInt(rq.getPeakSize());
+		buffer.putInt(rq.getMinimumExecutionQuantity());
+		buffer.putInt(rq.getStopPrice());
+		putString(buffer, rq.getSecurityIsin());
+	}
+
+	private EnterOrderRq decodeEnterOrder(ByteBuffer buffer, int varData) {
+		OrderEntryType type = getEnum(buffer, ENTRY_TYPES);
+		Side side = getEnum(buffer, SIDES);
+		long requestId = buffer.getLong();
+		long orderId = buffer.getLong();
+		LocalDateTime entryTime = getTime(buffer);
+		LocalDateTime expiryDate = getTime(buffer);
+		int quantity = buffer.getInt();
+		int price = buffer.getInt();
+		long brokerId = buffer.getLong();
+		long shareholderId = buffer.getLong();
+		int peakSize = buffer.getInt();
+		int minimumExecutionQuantity = buffer.getInt();
+		int stopPrice = buffer.getInt();
+		String securityIsin = getString(buffer.position(varData));
+
+		EnterOrderRq rq = (type == OrderEntryType.UPDATE_ORDER)
+			? EnterOrderRq.createUpdateOrderRq(requestId, securityIsin, orderId, entryTime, side, quantity, price, brokerId, shareholderId, peakSize, minimumExecutionQuantity, stopPrice)
+			: EnterOrderRq.createNewOrderRq(requestId, securityIsin, orderId, entryTime, side, quantity, price, brokerId, shareholderId, peakSize, minimumExecutionQuantity, stopPrice);
+		rq.setExpiryDate(expiryDate);
+		return rq;
+	}
+
+	private void encodeDeleteOrder(DeleteOrderRq rq, ByteBuffer buffer) {
+		header(buffer, DELETE_ORDER_RQ, DELETE_ORDER_BLOCK);
+		putEnum(buffer, rq.getSide());
+		buffer.putLong(rq.getRequestId());
+		buffer.putLong(rq.getOrderId());
+		putTime(buffer, rq.getEntryTime());
+		putString(buffer, rq.getSecurityIsin());
+	}
+
+	private DeleteOrderRq decodeDeleteOrder(ByteBuffer buffer, int varData) {
+		Side side = getEnum(buffer, SIDES);
+		long requestId = buffer.getLong();
+		long orderId = buffer.getLong();
+		LocalDateTime entryTime = getTime(buffer);
+		DeleteOrderRq rq = new DeleteOrderRq(requestId, getString(buffer.position(varData)), side, orderId);
+		rq.setEntryTime(entryTime);
+		return rq;
+	}
+
+	private void encodeExpireOrder(ExpireOrderRq rq, ByteBuffer buffer) {
+		header(buffer, EXPIRE_ORDER_RQ, EXPIRE_ORDER_BLOCK);
+		putEnum(buffer, rq.getSide());
+		buffer.putLong(rq.getOrderId());
+		putTime(buffer, rq.getEntryTime());
+		putString(buffer, rq.getSecurityIsin());
+	}
+
+	private ExpireOrderRq decodeExpireOrder(ByteBuffer buffer, int varData) {
+		Side side = getEnum(buffer, SIDES);
+		long orderId = buffer.getLong();
+		LocalDateTime entryTime = getTime(buffer);
+		ExpireOrderRq rq = new ExpireOrderRq(getString(buffer.position(varData)), side, orderId);
+		rq.setEntryTime(entryTime);
+		return rq;
+	}
+
+	private void encodeEvent(Event event, ByteBuffer buffer) {
+		if (event instanceof OrderAcceptedEvent e) {
+			orderIds(buffer, ORDER_ACCEPTED, e, e.getRequestId(), e.getOrderId());
+		} else if (event instanceof OrderUpdatedEvent e) {
+			orderIds(buffer, ORDER_UPDATED, e, e.getRequestId(), e.getOrderId());
+		} else if (event instanceof OrderDeletedEvent e) {
+			orderIds(buffer, ORDER_DELETED, e, e.getRequestId(), e.getOrderId());
+		} else if (event instanceof OrderRejectedEvent e) {
+			orderIds(buffer, ORDER_REJECTED, e, e.getRequestId(), e.getOrderId());
+			List<String> errors = e.getErrors();
+			buffer.putShort((short) errors.size());
+			errors.forEach(error -> putString(buffer, error));
+		} else if (event instanceof OrderExecutedEvent e) {
+			orderIds(buffer, ORDER_EXECUTED, e, e.getRequestId(), e.getOrderId());
+			List<TradeDTO> trades = e.getTrades();
+			buffer.putShort((short) TRADE_ENTRY_BLOCK);
+			buffer.putShort((short) trades.size());
+			for (TradeDTO trade : trades) {
+				buffer.putInt(trade.price());
+				buffer.putInt(trade.quantity());
+				buffer.putLong(trade.buyOrderId());
+				buffer.putLong(trade.sellOrderId());
+				putString(buffer, trade.securityIsin());
+			}
+		} else if (event instanceof OrderActivatedEvent e) {
+			header(buffer, ORDER_ACTIVATED, ORDER_ACTIVATED_BLOCK);
+			putTime(buffer, e.getTime());
+			buffer.putLong(e.getOrderId());
+		} else if (event instanceof TradeEvent e) {
+			header(buffer, TRADE, TRADE_BLOCK);
+			putTime(buffer, e.getTime());
+			buffer.putInt(e.getPrice());
+			buffer.putInt(e.getQuantity());
+			buffer.putLong(e.getBuyId());
+			buffer.putLong(e.getSellId());
+			putString(buffer, e.getSecurityIsin());
+		} else if (event instanceof OpeningPriceEvent e) {
+			header(buffer, OPENING_PRICE, OPENING_PRICE_BLOCK);
+			putTime(buffer, e.getTime());
+			buffer.putInt(e.getOpeningPrice());
+			buffer.putInt(e.getTradableQuantity());
+			putString(buffer, e.getSecurityIsin());
+		} else if (event instanceof SecurityStateChangedEvent e) {
+			header(buffer, SECURITY_STATE_CHANGED, STATE_CHANGED_BLOCK);
+			putTime(buffer, e.getTime());
+			putEnum(buffer, e.getState());
+			putString(buffer, e.getSecurityIsin());
+		} else if (event instanceof DepthUpdateEvent e) {
+			depth(buffer, DEPTH_UPDATE, e, e.getSecurityIsin(), e.getSequence(), e.getLevels());
+		} else if (event instanceof DepthSnapshotEvent e) {
+			depth(buffer, DEPTH_SNAPSHOT, e, e.getSecurityIsin(), e.getSequence(), e.getLevels());
+		} else if (event instanceof BestBidOfferChangedEvent e) {
+			header(buffer, BEST_BID_OFFER_CHANGED, BEST_BID_OFFER_BLOCK);
+			putTime(buffer, e.getTime());
+			buffer.putInt(e.getBidPrice());
+			buffer.putLong(e.getBidQuantity());
+			buffer.putInt(e.getAskPrice());
+			buffer.putLong(e.getAskQuantity());
+			putString(buffer, e.getSecurityIsin());
+		} else {
+			throw new IllegalArgumentException("No wire template for " + event.getClass().getName());
+		}
+	}
+
+	private Event decodeEvent(int templateId, ByteBuffer buffer, int varData) {
+		LocalDateTime time = getTime(buffer);
+		Event event = switch (templateId) {
+			case ORDER_ACCEPTED -> new OrderAcceptedEvent(buffer.getLong(), buffer.getLong());
+			case ORDER_UPDATED -> new OrderUpdatedEvent(buffer.getLong(), buffer.getLong());
+			case ORDER_DELETED -> new OrderDeletedEvent(buffer.getLong(), buffer.getLong());
+			case ORDER_REJECTED -> {
+				long requestId = buffer.getLong();
+				long orderId = buffer.getLong();
+				buffer.position(varData);
+				int count = Short.toUnsignedInt(buffer.getShort());
+				List<String> errors = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					errors.add(getString(buffer));
+				}
+				yield new OrderRejectedEvent(requestId, orderId, errors);
+			}
+			case ORDER_EXECUTED -> {
+				long requestId = buffer.getLong();
+				long orderId = buffer.getLong();
+				buffer.position(varData);
+				int entryBlock = Short.toUnsignedInt(buffer.getShort());
+				int count = Short.toUnsignedInt(buffer.getShort());
+				List<TradeDTO> trades = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					int entry = buffer.position();
+					int price = buffer.getInt();
+					int quantity = buffer.getInt();
+					long buyOrderId = buffer.getLong();
+					long sellOrderId = buffer.getLong();
+					buffer.position(entry + entryBlock);
+					trades.add(new TradeDTO(getString(buffer), price, quantity, buyOrderId, sellOrderId));
+				}
+				yield new OrderExecutedEvent(requestId, orderId, trades);
+			}
+			case ORDER_ACTIVATED -> new OrderActivatedEvent(buffer.getLong());
+			case TRADE -> {
+				int price = buffer.getInt();
+				int quantity = buffer.getInt();
+				long buyId = buffer.getLong();
+				long sellId = buffer.getLong();
+				yield new TradeEvent(getString(buffer.position(varData)), price, quantity, buyId, sellId);
+			}
+			case OPENING_PRICE -> {
+				int openingPrice = buffer.getInt();
+				int tradableQuantity = buffer.getInt();
+				yield new OpeningPriceEvent(getString(buffer.position(varData)), openingPrice, tradableQuantity);
+			}
+			case SECURITY_STATE_CHANGED -> {
+				MatchingState state = getEnum(buffer, MATCHING_STATES);
+				yield new SecurityStateChangedEvent(getString(buffer.position(varData)), state);
+			}
+			case DEPTH_UPDATE -> {
+				long sequence = buffer.getLong();
+				String securityIsin = getString(buffer.position(varData));
+				yield new DepthUpdateEvent(securityIsin, sequence, getDepthLevels(buffer));
+			}
+			case DEPTH_SNAPSHOT -> {
+				long sequence = buffer.getLong();
+				String securityIsin = getString(buffer.position(varData));
+				yield new DepthSnapshotEvent(securityIsin, sequence, getDepthLevels(buffer));
+			}
+			case BEST_BID_OFFER_CHANGED -> {
+				int bidPrice = buffer.getInt();
+				long bidQuantity = buffer.getLong();
+				int askPrice = buffer.getInt();
+				long askQuantity = buffer.getLong();
+				yield new BestBidOfferChangedEvent(getString(buffer.position(varData)), bidPrice, bidQuantity, askPrice, askQuantity);
+			}
+			default -> throw new IllegalArgumentException("Unknown wire template " + templateId);
+		};
+		event.setTime(time);
+		return event;
+	}
+
+	private void orderIds(ByteBuffer buffer, int templateId, Event event, long requestId, long orderId) {
+		header(buffer, templateId, ORDER_IDS_BLOCK);
+		putTime(buffer, event.getTime());
+		buffer.putLong(requestId);
+		buffer.putLong(orderId);
+	}
+
+	private void depth(ByteBuffer buffer, int templateId, Event event, String securityIsin, long sequence, List<DepthLevelDTO> levels) {
+		header(buffer, templateId, DEPTH_BLOCK);
+		putTime(buffer, event.getTime());
+		buffer.putLong(sequence);
+		putString(buffer, securityIsin);
+		buffer.putShort((short) DEPTH_LEVEL_BLOCK);
+		buffer.putInt(levels.size());
+		for (DepthLevelDTO level : levels) {
+			putEnum(buffer, level.side());
+			buffer.putInt(level.price());
+			buffer.putLong(level.quantity());
+			buffer.putInt(level.orders());
+		}
+	}
+
+	private List<DepthLevelDTO> getDepthLevels(ByteBuffer buffer) {
+		int entryBlock = Short.toUnsignedInt(buffer.getShort());
+		int count = buffer.getInt();
+		List<DepthLevelDTO> levels = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int entry = buffer.position();
+			Side side = getEnum(buffer, SIDES);
+			int price = buffer.getInt();
+			long quantity = buffer.getLong();
+			int orders = buffer.getInt();
+			buffer.position(entry + entryBlock);
+			levels.add(new DepthLevelDTO(side, price, quantity, orders));
+		}
+		return levels;
+	}
+
+	private static void header(ByteBuffer buffer, int templateId, int blockLength) {
+		buffer.putShort((short) templateId);
+		buffer.putShort((short) SCHEMA_ID);
+		buffer.putShort((short) SCHEMA_VERSION);
+		buffer.putShort((short) blockLength);
+	}
+
+	public static void putTime(ByteBuffer buffer, LocalDateTime time) {
+		if (time == null) {
+			buffer.putLong(NULL_TIME);
+			buffer.putInt(0);
+		} else {
+			buffer.putLong(time.toEpochSecond(ZoneOffset.UTC));
+			buffer.putInt(time.getNano());
+		}
+	}
+
+	public static LocalDateTime getTime(ByteBuffer buffer) {
+		long seconds = buffer.getLong();
+		int nanos = buffer.getInt();
+		return (seconds == NULL_TIME) ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+	}
+
+	private static void putEnum(ByteBuffer buffer, Enum<?> value) {
+		buffer.put((value == null) ? -1 : (byte) value.ordinal());
+	}
+
+	private static <E extends Enum<E>> E getEnum(ByteBuffer buffer, E[] values) {
+		byte ordinal = buffer.get();
+		return (ordinal < 0) ? null : values[ordinal];
+	}
+
+	public static void putString(ByteBuffer buffer, String value) {
+		if (value == null) {
+			buffer.putShort((short) NULL_LENGTH);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		buffer.putShort((short) bytes.length);
+		buffer.put(bytes);
+	}
+
+	public static String getString(ByteBuffer buffer) {
+		int length = Short.toUnsignedInt(buffer.getShort());
+		if (length == NULL_LENGTH) {
+			return null;
+		}
+		if (!buffer.hasArray()) {
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+		String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+}
@@ -0,0 +1,23 @@
+package ir.ramtung.tinyme.messaging.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * The best bid or offer of a security moved, or the displayed quantity at it changed. An empty side has a
+ * price and quantity of zero.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor
+@NoArgsConstructor
+public class BestBidOfferChangedEvent extends Event {
+
+	private String securityIsin;
+	private int bidPrice;
+	private long bidQuantity;
+	private int askPrice;
+	private long askQuantity;
+}
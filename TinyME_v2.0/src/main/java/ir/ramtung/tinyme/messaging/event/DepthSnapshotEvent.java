@@ -0,0 +1,23 @@
+package ir.ramtung.tinyme.messaging.event;
+
+import ir.ramtung.tinyme.messaging.DepthLevelDTO;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Every displayed price level of one security, best prices first. The snapshot includes all updates up to
+ * and including {@code sequence}; a consumer applies only the updates that follow it.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor
+@NoArgsConstructor
+public class DepthSnapshotEvent extends Event {
+
+	private String securityIsin;
+	private long sequence;
+	private List<DepthLevelDTO> levels;
+}
@@ -0,0 +1,23 @@
+package ir.ramtung.tinyme.messaging.event;
+
+import ir.ramtung.tinyme.messaging.DepthLevelDTO;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Price levels of one security whose displayed depth changed since the previous update. A level with no
+ * orders left has been removed. Sequences are consecutive per security, so a gap means an update was missed.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor
+@NoArgsConstructor
+public class DepthUpdateEvent extends Event {
+
+	private String securityIsin;
+	private long sequence;
+	private List<DepthLevelDTO> levels;
+}
@@ -7,14 +7,16 @@ import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import java.time.LocalDateTime;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.Setter;
 
 @EqualsAndHashCode
 public abstract class Event {
 
 	@Getter
+	@Setter
 	@JsonSerialize(using = LocalDateTimeSerializer.class)
 	@JsonDeserialize(using = LocalDateTimeDeserializer.class)
-	private final LocalDateTime time;
+	private LocalDateTime time;
 
 	public Event() {
 		time = LocalDateTime.now();
@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 @Getter
 @NoArgsConstructor
@@ -18,9 +19,12 @@ public abstract class BaseOrderRq extends BaseRq {
 	protected Side side;
 	protected long orderId;
 
+	@Setter
 	@JsonSerialize(using = LocalDateTimeSerializer.class)
 	@JsonDeserialize(using = LocalDateTimeDeserializer.class)
 	protected LocalDateTime entryTime = LocalDateTime.now();
+
+	@Setter
 	protected LocalDateTime expiryDate = null;
 
 	protected BaseOrderRq(long requestId, String securityIsin, Side side, long orderId) {
@@ -1,8 +1,28 @@
 package ir.ramtung.tinyme.messaging.request;
 
+import ir.ramtung.tinyme.metrics.TraceStage;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 @Getter
 public abstract class BaseRq {
     protected String securityIsin;
+
+    @Getter(AccessLevel.NONE)
+    private long[] trace;
+
+    public void startTrace(long receivedAt) {
+        trace = new long[TraceStage.COUNT];
+        trace[TraceStage.RECEIVED.ordinal()] = receivedAt;
+    }
+
+    public void stamp(TraceStage stage) {
+        if (trace != null) {
+            trace[stage.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public long[] trace() {
+        return trace;
+    }
 }
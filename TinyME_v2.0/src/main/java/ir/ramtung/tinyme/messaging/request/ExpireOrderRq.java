@@ -0,0 +1,25 @@
+package ir.ramtung.tinyme.messaging.request;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import java.util.List;
+
+/**
+ * Removes an order whose expiry date has passed. Only the engine creates these, when it sweeps the due
+ * expirations; they are journaled under their own wire template and are never accepted from clients.
+ */
+public class ExpireOrderRq extends BaseOrderRq {
+
+	public ExpireOrderRq(String securityIsin, Side side, long orderId) {
+		super(0, securityIsin, side, orderId);
+	}
+
+	@Override
+	public String toString() {
+		return "ExpireOrderRq(" + this.getAllPropertiesString() + ")";
+	}
+
+	@Override
+	public List<String> validateYourFields() {
+		return List.of();
+	}
+}
@@ -0,0 +1,45 @@
+package ir.ramtung.tinyme.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching meters of one order book. {@link EngineMetrics} attaches them to the book when it registers it,
+ * so the matcher records into the book it is working on.
+ */
+public class BookMetrics {
+
+	public static final BookMetrics DISABLED = new BookMetrics(null, null, null, null);
+
+	private final Timer continuousMatching;
+	private final Timer auctionMatching;
+	private final Timer stopLimitActivation;
+	private final Counter stopLimitActivations;
+
+	BookMetrics(Timer continuousMatching, Timer auctionMatching, Timer stopLimitActivation, Counter stopLimitActivations) {
+		this.continuousMatching = continuousMatching;
+		this.auctionMatching = auctionMatching;
+		this.stopLimitActivation = stopLimitActivation;
+		this.stopLimitActivations = stopLimitActivations;
+	}
+
+	public void recordContinuousMatching(long nanos) {
+		if (this != DISABLED) {
+			continuousMatching.record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public void recordAuctionMatching(long nanos) {
+		if (this != DISABLED) {
+			auctionMatching.record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public void recordStopLimitActivation(int activated, long nanos) {
+		if (this != DISABLED && activated > 0) {
+			stopLimitActivation.record(nanos, TimeUnit.NANOSECONDS);
+			stopLimitActivations.increment(activated);
+		}
+	}
+}
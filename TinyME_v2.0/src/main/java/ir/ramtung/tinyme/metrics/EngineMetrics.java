@@ -0,0 +1,162 @@
+package ir.ramtung.tinyme.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ir.ramtung.tinyme.domain.entity.OrderBook;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.messaging.request.ChangeMatchingStateRq;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.messaging.request.OrderEntryType;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters for the request and matching pipeline. Every meter is registered up front, so recording only
+ * looks up an existing meter and never allocates.
+ * <p>
+ * Per-book matching meters are created by {@link #registerBooks} and attached to each {@link OrderBook}.
+ */
+@Component
+public class EngineMetrics {
+
+	public enum RequestKind {
+		NEW_ORDER("new"),
+		UPDATE_ORDER("update"),
+		DELETE_ORDER("delete"),
+		CHANGE_MATCHING_STATE("change-state");
+
+		private final String tag;
+
+		RequestKind(String tag) {
+			this.tag = tag;
+		}
+
+		public static RequestKind of(BaseRq rq) {
+			if (rq instanceof ChangeMatchingStateRq) {
+				return CHANGE_MATCHING_STATE;
+			}
+			if (rq instanceof DeleteOrderRq) {
+				return DELETE_ORDER;
+			}
+			if (rq instanceof EnterOrderRq enterOrderRq) {
+				return enterOrderRq.getRequestType() == OrderEntryType.UPDATE_ORDER ? UPDATE_ORDER : NEW_ORDER;
+			}
+			return null;
+		}
+	}
+
+	private static final EngineMetrics DISABLED = new EngineMetrics();
+
+	private final MeterRegistry registry;
+	private final boolean enabled;
+	private final Timer[] requests;
+	private final Timer validation;
+	private final Timer publish;
+	private final Counter publishedEvents;
+
+	private EngineMetrics() {
+		this.registry = null;
+		this.enabled = false;
+		this.requests = null;
+		this.validation = null;
+		this.publish = null;
+		this.publishedEvents = null;
+	}
+
+	public EngineMetrics(MeterRegistry registry) {
+		this.registry = registry;
+		this.enabled = true;
+		RequestKind[] kinds = RequestKind.values();
+		this.requests = new Timer[kinds.length];
+		for (RequestKind kind : kinds) {
+			requests[kind.ordinal()] = Timer
+				.builder("tinyme.request")
+				.description("Time spent in OrderHandler.handleRq")
+				.tag("type", kind.tag)
+				.publishPercentileHistogram()
+				.register(registry);
+		}
+		this.validation = Timer
+			.builder("tinyme.validation")
+			.description("Time spent validating requests in ApplicationServices")
+			.register(registry);
+		this.publish = Timer
+			.builder("tinyme.publish.batch")
+			.description("Time spent sending one batch of events to the response queue")
+			.publishPercentileHistogram()
+			.register(registry);
+		this.publishedEvents = Counter.builder("tinyme.publish.events").register(registry);
+	}
+
+	/** Returns an instance that records nothing, for engines that run without a meter registry. */
+	public static EngineMetrics disabled() {
+		return DISABLED;
+	}
+
+	public void registerBooks(Iterable<Security> securities) {
+		if (!enabled) {
+			return;
+		}
+		for (Security security : securities) {
+			security.getOrderBook().setMetrics(register(security));
+		}
+	}
+
+	private BookMetrics register(Security security) {
+		String isin = security.getIsin();
+		OrderBook orderBook = security.getOrderBook();
+		// Gauges are read on the scrape thread without synchronizing with the shard, so they may lag by a request.
+		Gauge.builder("tinyme.book.depth", orderBook, book -> book.getBuyQueue().levelCount())
+			.description("Price levels on one side of the book")
+			.tags("security", isin, "side", "buy")
+			.register(registry);
+		Gauge.builder("tinyme.book.depth", orderBook, book -> book.getSellQueue().levelCount())
+			.tags("security", isin, "side", "sell")
+			.register(registry);
+		Gauge.builder("tinyme.book.orders", orderBook, book -> book.getBuyQueue().size())
+			.description("Resting orders on one side of the book")
+			.tags("security", isin, "side", "buy")
+			.register(registry);
+		Gauge.builder("tinyme.book.orders", orderBook, book -> book.getSellQueue().size())
+			.tags("security", isin, "side", "sell")
+			.register(registry);
+		Gauge.builder(
+				"tinyme.book.stop_limit_backlog",
+				orderBook,
+				book -> book.getStopLimitOrderBuyQueue().size() + book.getStopLimitOrderSellQueue().size()
+			)
+			.description("Inactive stop-limit orders waiting for their stop price")
+			.tag("security", isin)
+			.register(registry);
+
+		return new BookMetrics(
+			Timer.builder("tinyme.matching").tags("security", isin, "mode", "continuous").publishPercentileHistogram().register(registry),
+			Timer.builder("tinyme.matching").tags("security", isin, "mode", "auction").register(registry),
+			Timer.builder("tinyme.stop_limit.activation").tag("security", isin).register(registry),
+			Counter.builder("tinyme.stop_limit.activated").tag("security", isin).register(registry)
+		);
+	}
+
+	public void recordRequest(RequestKind kind, long nanos) {
+		if (enabled && kind != null) {
+			requests[kind.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public void recordValidation(long nanos) {
+		if (enabled) {
+			validation.record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public void recordPublish(int events, long nanos) {
+		if (enabled) {
+			publish.record(nanos, TimeUnit.NANOSECONDS);
+			publishedEvents.increment(events);
+		}
+	}
+}
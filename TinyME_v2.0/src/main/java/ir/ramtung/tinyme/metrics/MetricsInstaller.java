@@ -0,0 +1,26 @@
+package ir.ramtung.tinyme.metrics;
+
+import ir.ramtung.tinyme.repository.SecurityRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MetricsInstaller {
+
+	private final EngineMetrics engineMetrics;
+	private final SecurityRepository securityRepository;
+
+	public MetricsInstaller(EngineMetrics engineMetrics, SecurityRepository securityRepository) {
+		this.engineMetrics = engineMetrics;
+		this.securityRepository = securityRepository;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void install() {
+		engineMetrics.registerBooks(securityRepository.allSecurities());
+	}
+}
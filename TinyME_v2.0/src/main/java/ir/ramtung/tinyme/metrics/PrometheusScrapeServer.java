@@ -0,0 +1,63 @@
+package ir.ramtung.tinyme.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "engine.metrics.prometheus.enabled", havingValue = "true")
+public class PrometheusScrapeServer {
+
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private final Logger log = Logger.getLogger(this.getClass().getName());
+	private final PrometheusMeterRegistry registry;
+	private final TraceCollector traceCollector;
+	private final int port;
+	private HttpServer server;
+
+	public PrometheusScrapeServer(
+		PrometheusMeterRegistry registry,
+		TraceCollector traceCollector,
+		@Value("${engine.metrics.prometheus.port:9464}") int port
+	) {
+		this.registry = registry;
+		this.traceCollector = traceCollector;
+		this.port = port;
+	}
+
+	@PostConstruct
+	public void start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.createContext("/metrics", exchange -> respond(exchange, registry.scrape()));
+		server.createContext("/traces", exchange -> respond(exchange, traceCollector.describeSlowest()));
+		server.setExecutor(Executors.newSingleThreadExecutor(Thread.ofPlatform().name("tinyme-metrics").daemon().factory()));
+		server.start();
+		log.info("Prometheus metrics served on port " + port);
+	}
+
+	private static void respond(HttpExchange exchange, String text) throws IOException {
+		byte[] body = text.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		server.stop(0);
+	}
+}
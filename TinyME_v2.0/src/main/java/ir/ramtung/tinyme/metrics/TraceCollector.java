@@ -0,0 +1,212 @@
+package ir.ramtung.tinyme.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ir.ramtung.tinyme.messaging.request.BaseOrderRq;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates completed request traces off the matching threads. Each shard copies its finished traces into
+ * its own single-producer ring; a background thread drains the rings into per-stage timers and keeps the
+ * slowest traces seen so far. A full ring drops the trace rather than stall the shard.
+ */
+@Component
+public class TraceCollector {
+
+	private static final int WIDTH = TraceStage.COUNT + 1;
+	private static final int REQUEST_ID = WIDTH - 1;
+	private static final int TOTAL = WIDTH;
+	private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final boolean enabled;
+	private final int ringSize;
+	private final int slowestCount;
+	private final List<TraceRing> rings = new CopyOnWriteArrayList<>();
+	private final ThreadLocal<TraceRing> producerRing = ThreadLocal.withInitial(this::registerRing);
+	private final Timer[] stages = new Timer[TraceStage.COUNT];
+	private final Timer total;
+	private final Counter dropped;
+	private final PriorityQueue<long[]> slowest;
+	private volatile boolean running;
+	private Thread aggregator;
+
+	private TraceCollector() {
+		this.enabled = false;
+		this.ringSize = 0;
+		this.slowestCount = 0;
+		this.total = null;
+		this.dropped = null;
+		this.slowest = new PriorityQueue<>(Comparator.comparingLong(TraceCollector::totalOf));
+	}
+
+	public TraceCollector(
+		MeterRegistry registry,
+		@Value("${engine.trace.enabled:false}") boolean enabled,
+		@Value("${engine.trace.ring-size:4096}") int ringSize,
+		@Value("${engine.trace.slowest:32}") int slowestCount
+	) {
+		if (ringSize <= 0 || Integer.bitCount(ringSize) != 1) {
+			throw new IllegalArgumentException("engine.trace.ring-size must be a power of two");
+		}
+		if (slowestCount <= 0) {
+			throw new IllegalArgumentException("engine.trace.slowest must be positive");
+		}
+
+		this.enabled = enabled;
+		this.ringSize = ringSize;
+		this.slowestCount = slowestCount;
+		for (TraceStage stage : TraceStage.values()) {
+			if (stage.label() != null) {
+				stages[stage.ordinal()] = Timer
+					.builder("tinyme.trace.stage")
+					.description("Time a request spent reaching this stage from the previous one")
+					.tag("stage", stage.label())
+					.publishPercentileHistogram()
+					.register(registry);
+			}
+		}
+		this.total = Timer
+			.builder("tinyme.trace.total")
+			.description("Time from receiving a request to handing its events to the publisher")
+			.publishPercentileHistogram()
+			.register(registry);
+		this.dropped = Counter.builder("tinyme.trace.dropped").register(registry);
+		this.slowest = new PriorityQueue<>(slowestCount, Comparator.comparingLong(TraceCollector::totalOf));
+	}
+
+	/** Returns a collector that is never active and drops every trace. */
+	public static TraceCollector disabled() {
+		return new TraceCollector();
+	}
+
+	public boolean isActive() {
+		return running;
+	}
+
+	public void complete(BaseRq rq) {
+		long[] stamps = rq.trace();
+		if (!running || stamps == null) {
+			return;
+		}
+		long requestId = (rq instanceof BaseOrderRq orderRq) ? orderRq.getRequestId() : 0;
+		if (!producerRing.get().offer(stamps, requestId)) {
+			dropped.increment();
+		}
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		aggregator = Thread.ofPlatform().name("tinyme-tracer").daemon().start(this::aggregate);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (aggregator == null) {
+			return;
+		}
+		running = false;
+		aggregator.join(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	public List<long[]> slowestTraces() {
+		synchronized (slowest) {
+			List<long[]> traces = new ArrayList<>(slowest);
+			traces.sort(Comparator.comparingLong(TraceCollector::totalOf).reversed());
+			return traces;
+		}
+	}
+
+	public String describeSlowest() {
+		StringBuilder out = new StringBuilder("requestId total_us");
+		for (TraceStage stage : TraceStage.values()) {
+			if (stage.label() != null) {
+				out.append(' ').append(stage.label()).append("_us");
+			}
+		}
+		out.append('\n');
+		for (long[] trace : slowestTraces()) {
+			out.append(trace[REQUEST_ID]).append(' ').append(trace[TOTAL] / 1_000);
+			long previous = trace[TraceStage.RECEIVED.ordinal()];
+			for (int stage = 1; stage < TraceStage.COUNT; stage++) {
+				out.append(' ');
+				if (trace[stage] == 0) {
+					out.append('-');
+				} else {
+					out.append((trace[stage] - previous) / 1_000);
+					previous = trace[stage];
+				}
+			}
+			out.append('\n');
+		}
+		return out.toString();
+	}
+
+	private TraceRing registerRing() {
+		TraceRing ring = new TraceRing(ringSize, WIDTH);
+		rings.add(ring);
+		return ring;
+	}
+
+	private void aggregate() {
+		while (running) {
+			if (drain() == 0) {
+				LockSupport.parkNanos(IDLE_NANOS);
+			}
+		}
+		drain();
+	}
+
+	private int drain() {
+		int drained = 0;
+		for (TraceRing ring : rings) {
+			drained += ring.drainTo(this::record);
+		}
+		return drained;
+	}
+
+	private void record(long[] slots, int offset) {
+		long received = slots[offset + TraceStage.RECEIVED.ordinal()];
+		long previous = received;
+		for (int stage = 1; stage < TraceStage.COUNT; stage++) {
+			long stamp = slots[offset + stage];
+			if (stamp != 0) {
+				stages[stage].record(stamp - previous, TimeUnit.NANOSECONDS);
+				previous = stamp;
+			}
+		}
+		long elapsed = previous - received;
+		total.record(elapsed, TimeUnit.NANOSECONDS);
+
+		synchronized (slowest) {
+			if (slowest.size() < slowestCount || elapsed > totalOf(slowest.peek())) {
+				long[] trace = new long[WIDTH + 1];
+				System.arraycopy(slots, offset, trace, 0, WIDTH);
+				trace[TOTAL] = elapsed;
+				slowest.add(trace);
+				if (slowest.size() > slowestCount) {
+					slowest.poll();
+				}
+			}
+		}
+	}
+
+	private static long totalOf(long[] trace) {
+		return trace[TOTAL];
+	}
+}
@@ -0,0 +1,53 @@
+package ir.ramtung.tinyme.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class TraceRing {
+
+	interface Sink {
+		void accept(long[] slots, int offset);
+	}
+
+	private final long[] slots;
+	private final int width;
+	private final int capacity;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private long cachedTail;
+
+	TraceRing(int capacity, int width) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("ring capacity must be a power of two");
+		}
+		this.slots = new long[capacity * width];
+		this.width = width;
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+	}
+
+	boolean offer(long[] stamps, long requestId) {
+		long next = head.get();
+		if (next - cachedTail == capacity) {
+			cachedTail = tail.get();
+			if (next - cachedTail == capacity) {
+				return false;
+			}
+		}
+		int offset = ((int) next & mask) * width;
+		System.arraycopy(stamps, 0, slots, offset, width - 1);
+		slots[offset + width - 1] = requestId;
+		head.lazySet(next + 1);
+		return true;
+	}
+
+	int drainTo(Sink sink) {
+		long first = tail.get();
+		int count = (int) (head.get() - first);
+		for (int i = 0; i < count; i++) {
+			sink.accept(slots, ((int) (first + i) & mask) * width);
+		}
+		tail.lazySet(first + count);
+		return count;
+	}
+}
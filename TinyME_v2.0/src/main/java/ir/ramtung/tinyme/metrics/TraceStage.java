@@ -0,0 +1,29 @@
+package ir.ramtung.tinyme.metrics;
+
+/**
+ * Points on a request's path where its trace is stamped. Each stage's latency is the time since the
+ * previous stamped stage, so a rejected request that skips matching charges that time to the next stage.
+ * The trace ends once the request's events are handed to the publisher; the broker send happens later on
+ * the publisher thread and is not part of it.
+ */
+public enum TraceStage {
+	RECEIVED(null),
+	DECODED("decode"),
+	STARTED("queue"),
+	VALIDATED("validation"),
+	MATCHED("matching"),
+	EVENTS_BUILT("events"),
+	HANDED_OFF("handoff");
+
+	public static final int COUNT = values().length;
+
+	private final String label;
+
+	TraceStage(String label) {
+		this.label = label;
+	}
+
+	public String label() {
+		return label;
+	}
+}
@@ -0,0 +1,31 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tinyme.AuctionOpening")
+@Label("Auction Opening")
+@Description("One run of Matcher.auctionExecuting, from opening price calculation to the last trade")
+@Category({ "TinyME", "Matching" })
+@StackTrace(false)
+public class AuctionOpeningEvent extends Event {
+
+	@Label("ISIN")
+	public String isin;
+
+	@Label("Opening Price")
+	public int openingPrice;
+
+	@Label("Outcome")
+	public String outcome;
+
+	@Label("Trades")
+	public int trades;
+
+	@Label("Traded Quantity")
+	public long tradedQuantity;
+}
@@ -0,0 +1,25 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tinyme.ExpirySweep")
+@Label("Expiry Sweep")
+@Description("One batch of due expirations for a security handled on its shard")
+@Category({ "TinyME", "Requests" })
+@StackTrace(false)
+public class ExpirySweepEvent extends Event {
+
+	@Label("ISIN")
+	public String isin;
+
+	@Label("Due")
+	public int due;
+
+	@Label("Expired")
+	public int expired;
+}
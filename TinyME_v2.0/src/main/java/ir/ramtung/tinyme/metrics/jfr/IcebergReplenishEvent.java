@@ -0,0 +1,26 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tinyme.IcebergReplenish")
+@Label("Iceberg Replenish")
+@Category({ "TinyME", "Matching" })
+@StackTrace(false)
+public class IcebergReplenishEvent extends Event {
+
+	@Label("ISIN")
+	public String isin;
+
+	@Label("Order Id")
+	public long orderId;
+
+	@Label("Displayed Quantity")
+	public int displayedQuantity;
+
+	@Label("Remaining Quantity")
+	public int remainingQuantity;
+}
@@ -0,0 +1,32 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tinyme.Matching")
+@Label("Continuous Matching")
+@Description("One run of Matcher.continuousExecuting for an incoming or activated order")
+@Category({ "TinyME", "Matching" })
+@StackTrace(false)
+public class MatchingEvent extends Event {
+
+	@Label("ISIN")
+	public String isin;
+
+	@Label("Order Id")
+	public long orderId;
+
+	@Label("Outcome")
+	public String outcome;
+
+	@Label("Trades")
+	public int trades;
+
+	@Label("Levels Swept")
+	@Description("Distinct price levels the order traded against")
+	public int levelsSwept;
+}
@@ -0,0 +1,31 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tinyme.RequestHandled")
+@Label("Request Handled")
+@Description("One request handled by OrderHandler, from service call to the last published event")
+@Category({ "TinyME", "Requests" })
+@StackTrace(false)
+public class RequestHandledEvent extends Event {
+
+	@Label("Request Type")
+	public String requestType;
+
+	@Label("ISIN")
+	public String isin;
+
+	@Label("Request Id")
+	public long requestId;
+
+	@Label("Order Id")
+	public long orderId;
+
+	@Label("Rejected")
+	public boolean rejected;
+}
@@ -0,0 +1,22 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tinyme.Rollback")
+@Label("Trade Rollback")
+@Description("Trades undone by ContinuousMatchingControl after a failed control")
+@Category({ "TinyME", "Matching" })
+@StackTrace(false)
+public class RollbackEvent extends Event {
+
+	@Label("ISIN")
+	public String isin;
+
+	@Label("Trades Rolled Back")
+	public int trades;
+}
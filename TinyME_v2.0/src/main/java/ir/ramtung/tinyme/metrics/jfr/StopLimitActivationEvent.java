@@ -0,0 +1,26 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tinyme.StopLimitActivation")
+@Label("Stop-Limit Activation")
+@Category({ "TinyME", "Matching" })
+@StackTrace(false)
+public class StopLimitActivationEvent extends Event {
+
+	@Label("ISIN")
+	public String isin;
+
+	@Label("Order Id")
+	public long orderId;
+
+	@Label("Stop Price")
+	public int stopPrice;
+
+	@Label("Last Trade Price")
+	public int lastTradePrice;
+}
@@ -0,0 +1,34 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tinyme.TradeCreated")
+@Label("Trade Created")
+@Description("A trade created by Matcher, whether or not its controls accepted it")
+@Category({ "TinyME", "Matching" })
+@StackTrace(false)
+public class TradeCreatedEvent extends Event {
+
+	@Label("ISIN")
+	public String isin;
+
+	@Label("Price")
+	public int price;
+
+	@Label("Quantity")
+	public int quantity;
+
+	@Label("Buy Order Id")
+	public long buyOrderId;
+
+	@Label("Sell Order Id")
+	public long sellOrderId;
+
+	@Label("Accepted")
+	public boolean accepted;
+}
@@ -3,6 +3,10 @@ package ir.ramtung.tinyme.repository;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import ir.ramtung.tinyme.domain.entity.*;
+import ir.ramtung.tinyme.domain.service.ExpiringService;
+import ir.ramtung.tinyme.domain.service.OrderHandler;
+import ir.ramtung.tinyme.domain.service.ShardedOrderEngine;
+import ir.ramtung.tinyme.messaging.RequestDispatcher;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.FileReader;
@@ -10,9 +14,14 @@ import java.io.FileWriter;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.time.LocalDateTime;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
@@ -27,50 +36,103 @@ public class DataLoader {
 	private final BrokerRepository brokerRepository;
 	private final ShareholderRepository shareholderRepository;
 	private final SecurityRepository securityRepository;
+	private final ExpiringService expiringService;
+	private final RequestJournal journal;
+	private final OrderHandler orderHandler;
+	private final RequestDispatcher requestDispatcher;
+	private final ShardedOrderEngine orderEngine;
+	private final SnapshotService snapshotService;
 
 	public DataLoader(
 		BrokerRepository brokerRepository,
 		ShareholderRepository shareholderRepository,
-		SecurityRepository securityRepository
+		SecurityRepository securityRepository,
+		ExpiringService expiringService,
+		RequestJournal journal,
+		OrderHandler orderHandler,
+		RequestDispatcher requestDispatcher,
+		ShardedOrderEngine orderEngine,
+		SnapshotService snapshotService
 	) {
 		this.brokerRepository = brokerRepository;
 		this.shareholderRepository = shareholderRepository;
 		this.securityRepository = securityRepository;
+		this.expiringService = expiringService;
+		this.journal = journal;
+		this.orderHandler = orderHandler;
+		this.requestDispatcher = requestDispatcher;
+		this.orderEngine = orderEngine;
+		this.snapshotService = snapshotService;
 	}
 
-	@Value("classpath:persistence/broker.csv")
+	@Value("${engine.persistence.location:classpath:persistence}/broker.csv")
 	private Resource brokerCsvResource;
 
-	@Value("classpath:persistence/shareholder.csv")
+	@Value("${engine.persistence.location:classpath:persistence}/shareholder.csv")
 	private Resource shareholderCsvResource;
 
-	@Value("classpath:persistence/security.csv")
+	@Value("${engine.persistence.location:classpath:persistence}/security.csv")
 	private Resource securityCsvResource;
 
-	@Value("classpath:persistence/position.csv")
+	@Value("${engine.persistence.location:classpath:persistence}/position.csv")
 	private Resource positionCsvResource;
 
-	@Value("classpath:persistence/orderbook.csv")
+	@Value("${engine.persistence.location:classpath:persistence}/orderbook.csv")
 	private Resource orderBookCsvResource;
 
+	@Value("${engine.startup.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+	private int startupParallelism;
+
+	private interface LoadPhase {
+		void run() throws Exception;
+	}
+
 	@PostConstruct
 	public void loadAll() throws Exception {
-		loadBrokers();
-		loadShareholders();
-		loadSecurities();
-		loadPositions();
-		loadOrderBook();
+		long started = System.nanoTime();
+		ForkJoinPool pool = new ForkJoinPool(startupParallelism);
+		try {
+			if (snapshotService.hasSnapshot()) {
+				RequestJournal.Mark journalMark = snapshotService.load(pool);
+				timed("Journal replay", () -> replayJournal(journalMark.sequence()));
+			} else {
+				timed("Brokers", this::loadBrokers);
+				timed("Shareholders", this::loadShareholders);
+				timed("Securities", this::loadSecurities);
+				timed("Positions", this::loadPositions);
+				timed("Order books", () -> loadOrderBook(pool));
+				timed("Journal replay", () -> replayJournal(0));
+			}
+		} finally {
+			pool.shutdown();
+		}
+		log.info("Startup loading finished in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+	}
+
+	private void timed(String phase, LoadPhase body) throws Exception {
+		long started = System.nanoTime();
+		body.run();
+		log.info(phase + " phase took " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
 	}
 
 	@PreDestroy
 	public void saveAll() throws Exception {
+		requestDispatcher.stop();
+		orderEngine.shutdown();
 		System.out.print("Saving persistent data ...");
 		saveBrokers();
 		saveShareholdersAndPositions();
 		saveSecuritiesAndOrderBooks();
+		snapshotService.takeSnapshotNow();
+		journal.checkpoint();
 		System.out.println(", done!");
 	}
 
+	private void replayJournal(long fromSequence) throws Exception {
+		long replayed = journal.replay(fromSequence, orderHandler::replayRq);
+		log.info("Journal replayed: " + replayed + " requests");
+	}
+
 	private void loadBrokers() throws Exception {
 		brokerRepository.clear();
 		try (Reader reader = new FileReader(brokerCsvResource.getFile())) {
@@ -82,7 +144,7 @@ public class DataLoader {
 							.builder()
 							.brokerId(Long.parseLong(line[0]))
 							.name(line[1])
-							.credit(Long.parseLong(line[0]))
+							.credit(Long.parseLong(line[2]))
 							.build()
 					);
 				}
@@ -118,6 +180,7 @@ public class DataLoader {
 							.isin(line[0])
 							.tickSize(Integer.parseInt(line[1]))
 							.lotSize(Integer.parseInt(line[2]))
+							.expiringService(expiringService)
 							.build()
 					);
 				}
@@ -140,8 +203,8 @@ public class DataLoader {
 		log.info("Positions loaded");
 	}
 
-	private void loadOrderBook() throws Exception {
-		LinkedList<Order> orders = new LinkedList<>();
+	private void loadOrderBook(ForkJoinPool pool) throws Exception {
+		Map<Security, List<Order>> ordersBySecurity = new LinkedHashMap<>();
 		try (Reader reader = new FileReader(orderBookCsvResource.getFile())) {
 			try (CSVReader csvReader = new CSVReaderBuilder(reader).withSkipLines(1).build()) {
 				String[] line;
@@ -184,15 +247,18 @@ public class DataLoader {
 								OrderStatus.LOADING
 							);
 					}
-					orders.addFirst(order);
+					ordersBySecurity.computeIfAbsent(security, key -> new ArrayList<>()).add(order);
 				}
 			}
 		}
-		Iterator<Order> it = orders.descendingIterator();
-		while (it.hasNext()) {
-			Order order = it.next();
-			order.getSecurity().getOrderBook().enqueue(order);
+
+		List<ForkJoinTask<?>> books = new ArrayList<>(ordersBySecurity.size());
+		for (Map.Entry<Security, List<Order>> entry : ordersBySecurity.entrySet()) {
+			OrderBook orderBook = entry.getKey().getOrderBook();
+			List<Order> orders = entry.getValue();
+			books.add(pool.submit(() -> orders.forEach(orderBook::enqueue)));
 		}
+		books.forEach(ForkJoinTask::join);
 		log.info("Order Book loaded");
 	}
 
@@ -270,7 +336,7 @@ public class DataLoader {
 			.add(String.valueOf(order.getPrice()))
 			.add(String.valueOf(order.getBroker().getBrokerId()))
 			.add(String.valueOf(order.getShareholder().getShareholderId()))
-			.add(order.getEntryTimes().getFirst().toString());
+			.add(order.getEntryTime().toString());
 		if (order instanceof IcebergOrder icebergOrder) {
 			orderJoiner
 				.add(String.valueOf(icebergOrder.getPeakSize()))
@@ -0,0 +1,423 @@
+package ir.ramtung.tinyme.repository;
+
+import ir.ramtung.tinyme.messaging.codec.WireCodec;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RequestJournal {
+
+	private static final int MAGIC = 0x544a524e;
+	private static final int FORMAT_VERSION = 2;
+	private static final int FILE_HEADER_LENGTH = 24;
+	private static final int RECORD_HEADER_LENGTH = 16;
+	private static final int SCAN_WINDOW = 1 << 30;
+	private static final int SEQUENCE_DIGITS = 20;
+
+	private final Logger log = Logger.getLogger(this.getClass().getName());
+	private final WireCodec codec = new WireCodec();
+	private final CRC32C checksum = new CRC32C();
+	private final boolean enabled;
+	private final Path directory;
+	private final String prefix;
+	private final int segmentBytes;
+	private final int fsyncBatch;
+
+	private ByteBuffer scratch = WireCodec.allocate(4096);
+	private Path activeFile;
+	private FileChannel channel;
+	private MappedByteBuffer segment;
+	private long segmentStart;
+	private int dirtyFrom;
+	private int uncommitted;
+	private long firstSequence;
+	private long nextSequence;
+
+	public record Mark(long sequence, long offset) {}
+
+	public RequestJournal(
+		@Value("${engine.journal.enabled:false}") boolean enabled,
+		@Value("${engine.journal.path:journal/requests.journal}") String path,
+		@Value("${engine.journal.segment-bytes:67108864}") int segmentBytes,
+		@Value("${engine.journal.fsync-batch:256}") int fsyncBatch
+	) {
+		if (segmentBytes <= FILE_HEADER_LENGTH || fsyncBatch <= 0) {
+			throw new IllegalArgumentException("engine.journal limits must be positive");
+		}
+
+		this.enabled = enabled;
+		Path base = Path.of(path).toAbsolutePath();
+		this.directory = base.getParent();
+		this.prefix = base.getFileName() + ".";
+		this.segmentBytes = segmentBytes;
+		this.fsyncBatch = fsyncBatch;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@PostConstruct
+	public void open() throws IOException {
+		if (!enabled) {
+			return;
+		}
+
+		Files.createDirectories(directory);
+		List<Path> files = files();
+		openFile(files.isEmpty() ? createFile(1) : files.getLast());
+		log.info("Request journal opened at sequence " + nextSequence + " across " + Math.max(files.size(), 1) + " files");
+	}
+
+	public long replay(Consumer<BaseRq> sink) throws IOException {
+		return replay(0, sink);
+	}
+
+	public long replay(long fromSequence, Consumer<BaseRq> sink) throws IOException {
+		if (!enabled) {
+			return 0;
+		}
+		long[] replayed = new long[1];
+		Consumer<BaseRq> counted = rq -> {
+			replayed[0]++;
+			sink.accept(rq);
+		};
+		List<Path> files = files();
+		long expected = -1;
+		for (int i = 0; i < files.size(); i++) {
+			if (i + 1 < files.size() && sequenceOf(files.get(i + 1)) <= fromSequence) {
+				continue;
+			}
+			try (FileChannel file = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+				Mark first = readFileHeader(file, files.get(i));
+				if (expected >= 0 && first.sequence() != expected) {
+					throw new IOException("Request journal is missing records before " + files.get(i));
+				}
+				expected = scan(file, first, fromSequence, counted).sequence();
+			}
+		}
+		return replayed[0];
+	}
+
+	public static long read(Path path, long fromSequence, Consumer<BaseRq> sink) throws IOException {
+		return new RequestJournal(true, path.toString(), FILE_HEADER_LENGTH + 1, 1).replay(fromSequence, sink);
+	}
+
+	public void append(BaseRq rq) {
+		if (!enabled) {
+			return;
+		}
+
+		ByteBuffer payload = encode(rq);
+		int length = payload.remaining();
+		ensureCapacity(RECORD_HEADER_LENGTH + length);
+		checksum.reset();
+		checksum.update(payload.duplicate());
+		segment.putInt(length);
+		segment.putInt((int) checksum.getValue());
+		segment.putLong(nextSequence++);
+		segment.put(payload);
+
+		if (++uncommitted >= fsyncBatch) {
+			commit();
+		}
+	}
+
+	public void commit() {
+		if (!enabled || uncommitted == 0) {
+			return;
+		}
+		segment.force(dirtyFrom, segment.position() - dirtyFrom);
+		dirtyFrom = segment.position();
+		uncommitted = 0;
+	}
+
+	/**
+	 * Drops every record appended after the mark, so requests that are about to be redelivered are not
+	 * journaled twice. Records already forced to disk are cut off as well.
+	 */
+	public void truncate(Mark mark) {
+		if (!enabled || mark.sequence() >= nextSequence) {
+			return;
+		}
+		if (mark.sequence() < firstSequence) {
+			throw new IllegalStateException("Cannot truncate into a journal file that was already rolled");
+		}
+		if (mark.offset() < segmentStart || mark.offset() + Integer.BYTES > segmentStart + segment.limit()) {
+			try {
+				mapSegment(mark.offset(), RECORD_HEADER_LENGTH);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+		int position = (int) (mark.offset() - segmentStart);
+		segment.position(position);
+		segment.putInt(position, 0);
+		segment.force(position, Integer.BYTES);
+		dirtyFrom = position;
+		uncommitted = 0;
+		nextSequence = mark.sequence();
+	}
+
+	public Mark mark() {
+		if (!enabled) {
+			return new Mark(0, 0);
+		}
+		return new Mark(nextSequence, segmentStart + segment.position());
+	}
+
+	/**
+	 * Starts a new journal file at the next sequence and returns a mark at its start, so that a
+	 * checkpoint at that mark can delete every earlier file. An empty journal file is not rolled.
+	 */
+	public Mark roll() {
+		if (!enabled) {
+			return mark();
+		}
+		if (nextSequence > firstSequence) {
+			commit();
+			try {
+				Path file = createFile(nextSequence);
+				channel.close();
+				openFile(file);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+		return mark();
+	}
+
+	public void checkpoint() {
+		checkpoint(mark());
+	}
+
+	/**
+	 * Discards every record before the mark: journal files that end before it are deleted, and the
+	 * file holding it is told to start replaying from it. A checkpoint at the tail rolls first, so
+	 * nothing is left behind.
+	 */
+	public void checkpoint(Mark mark) {
+		if (!enabled) {
+			return;
+		}
+		commit();
+		if (mark.sequence() >= nextSequence) {
+			mark = roll();
+		}
+		try {
+			List<Path> files = files();
+			int holding = files.size() - 1;
+			while (holding >= 0 && sequenceOf(files.get(holding)) > mark.sequence()) {
+				holding--;
+			}
+			if (holding < 0) {
+				return;
+			}
+			for (Path passed : files.subList(0, holding)) {
+				Files.delete(passed);
+			}
+			if (sequenceOf(files.get(holding)) < mark.sequence()) {
+				advanceFileHeader(files.get(holding), mark);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		log.info("Request journal checkpointed at sequence " + mark.sequence());
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		if (!enabled || channel == null) {
+			return;
+		}
+		commit();
+		channel.close();
+		channel = null;
+	}
+
+	private ByteBuffer encode(BaseRq rq) {
+		while (true) {
+			scratch.clear();
+			try {
+				codec.encode(rq, scratch);
+				return scratch.flip();
+			} catch (BufferOverflowException ex) {
+				scratch = WireCodec.allocate(scratch.capacity() * 2);
+			}
+		}
+	}
+
+	private void ensureCapacity(int needed) {
+		if (segment.remaining() >= needed) {
+			return;
+		}
+		commit();
+		try {
+			mapSegment(segmentStart + segment.position(), needed);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private void mapSegment(long start, int minimumBytes) throws IOException {
+		segmentStart = start;
+		segment = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(segmentBytes, minimumBytes));
+		segment.order(ByteOrder.LITTLE_ENDIAN);
+		dirtyFrom = 0;
+	}
+
+	private List<Path> files() throws IOException {
+		List<Path> files = new ArrayList<>();
+		if (!Files.isDirectory(directory)) {
+			return files;
+		}
+		try (Stream<Path> listed = Files.list(directory)) {
+			listed.filter(this::isJournalFile).sorted(Comparator.comparingLong(this::sequenceOf)).forEach(files::add);
+		}
+		return files;
+	}
+
+	private boolean isJournalFile(Path file) {
+		String name = file.getFileName().toString();
+		return (
+			name.length() == prefix.length() + SEQUENCE_DIGITS &&
+			name.startsWith(prefix) &&
+			name.chars().skip(prefix.length()).allMatch(Character::isDigit)
+		);
+	}
+
+	private long sequenceOf(Path file) {
+		return Long.parseLong(file.getFileName().toString().substring(prefix.length()));
+	}
+
+	private Path createFile(long sequence) throws IOException {
+		Path file = directory.resolve(prefix + String.format("%0" + SEQUENCE_DIGITS + "d", sequence));
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (
+			FileChannel created = FileChannel.open(
+				temporary,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING
+			)
+		) {
+			writeFileHeader(created, new Mark(sequence, FILE_HEADER_LENGTH));
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return file;
+	}
+
+	private void openFile(Path file) throws IOException {
+		activeFile = file;
+		channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		Mark first = readFileHeader(channel, file);
+		firstSequence = first.sequence();
+		Mark tail = scan(channel, first, Long.MAX_VALUE, null);
+		nextSequence = tail.sequence();
+		mapSegment(tail.offset(), RECORD_HEADER_LENGTH);
+	}
+
+	private void advanceFileHeader(Path file, Mark first) throws IOException {
+		if (file.equals(activeFile)) {
+			writeFileHeader(channel, first);
+			firstSequence = first.sequence();
+			return;
+		}
+		try (FileChannel passed = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			writeFileHeader(passed, first);
+		}
+	}
+
+	private static void writeFileHeader(FileChannel file, Mark first) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(first.sequence()).putLong(first.offset()).flip();
+		while (header.hasRemaining()) {
+			file.write(header, header.position());
+		}
+		file.force(false);
+	}
+
+	private static Mark readFileHeader(FileChannel file, Path path) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+		while (header.hasRemaining()) {
+			if (file.read(header, header.position()) < 0) {
+				break;
+			}
+		}
+		if (header.position() < FILE_HEADER_LENGTH || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+			throw new IOException("Not a request journal: " + path);
+		}
+		return new Mark(header.getLong(8), header.getLong(16));
+	}
+
+	private Mark scan(FileChannel file, Mark first, long fromSequence, Consumer<BaseRq> sink) throws IOException {
+		long size = file.size();
+		long offset = first.offset();
+		long sequence = first.sequence();
+		ByteBuffer window = null;
+		long windowStart = 0;
+
+		while (offset + RECORD_HEADER_LENGTH <= size) {
+			if (window == null || offset + RECORD_HEADER_LENGTH > windowStart + window.limit()) {
+				windowStart = offset;
+				window = mapForRead(file, offset, size);
+			}
+			int position = (int) (offset - windowStart);
+			int length = window.getInt(position);
+			if (
+				length <= 0 ||
+				length > SCAN_WINDOW - RECORD_HEADER_LENGTH ||
+				offset + RECORD_HEADER_LENGTH + length > size ||
+				window.getLong(position + 8) != sequence
+			) {
+				break;
+			}
+			if (position + RECORD_HEADER_LENGTH + length > window.limit()) {
+				windowStart = offset;
+				window = mapForRead(file, offset, size);
+				continue;
+			}
+
+			ByteBuffer payload = window.slice(position + RECORD_HEADER_LENGTH, length).order(ByteOrder.LITTLE_ENDIAN);
+			checksum.reset();
+			checksum.update(payload.duplicate());
+			if ((int) checksum.getValue() != window.getInt(position + 4)) {
+				log.warning("Request journal ends with a torn record at sequence " + sequence);
+				break;
+			}
+			if (sink != null && sequence >= fromSequence) {
+				sink.accept((BaseRq) codec.decode(payload));
+			}
+			offset += RECORD_HEADER_LENGTH + length;
+			sequence++;
+		}
+
+		return new Mark(sequence, offset);
+	}
+
+	private static ByteBuffer mapForRead(FileChannel file, long offset, long size) throws IOException {
+		long length = Math.min(size - offset, SCAN_WINDOW);
+		return file.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
@@ -36,7 +36,7 @@ public class SecurityRepository {
 		securityByIsin.clear();
 	}
 
-	Iterable<? extends Security> allSecurities() {
+	public Iterable<Security> allSecurities() {
 		return securityByIsin.values();
 	}
 }
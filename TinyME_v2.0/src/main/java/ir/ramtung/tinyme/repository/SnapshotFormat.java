@@ -0,0 +1,299 @@
+package ir.ramtung.tinyme.repository;
+
+import static ir.ramtung.tinyme.messaging.codec.WireCodec.getString;
+import static ir.ramtung.tinyme.messaging.codec.WireCodec.getTime;
+import static ir.ramtung.tinyme.messaging.codec.WireCodec.putString;
+import static ir.ramtung.tinyme.messaging.codec.WireCodec.putTime;
+
+import ir.ramtung.tinyme.domain.entity.*;
+import ir.ramtung.tinyme.domain.service.ExpiringService;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+class SnapshotFormat {
+
+	static final int MAGIC = 0x54534e50;
+	static final int VERSION = 2;
+
+	private static final byte LIMIT_ORDER = 0;
+	private static final byte ICEBERG_ORDER = 1;
+	private static final byte STOP_LIMIT_ORDER = 2;
+	private static final int MAX_ORDER_BYTES = 128;
+	private static final int MAX_STRING_BYTES = 2 + 3 * 0xFFFF;
+
+	private static final Side[] SIDES = Side.values();
+	private static final SecurityState[] SECURITY_STATES = SecurityState.values();
+
+	private final Logger log = Logger.getLogger(this.getClass().getName());
+	private final BrokerRepository brokerRepository;
+	private final ShareholderRepository shareholderRepository;
+	private final SecurityRepository securityRepository;
+	private final ExpiringService expiringService;
+	private ByteBuffer buffer;
+
+	SnapshotFormat(
+		BrokerRepository brokerRepository,
+		ShareholderRepository shareholderRepository,
+		SecurityRepository securityRepository,
+		ExpiringService expiringService
+	) {
+		this.brokerRepository = brokerRepository;
+		this.shareholderRepository = shareholderRepository;
+		this.securityRepository = securityRepository;
+		this.expiringService = expiringService;
+	}
+
+	ByteBuffer write(RequestJournal.Mark journalMark) {
+		buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putLong(journalMark.sequence());
+		buffer.putLong(journalMark.offset());
+
+		List<Security> securities = new ArrayList<>();
+		securityRepository.allSecurities().forEach(securities::add);
+		buffer.putInt(securities.size());
+		for (Security security : securities) {
+			ensure(MAX_STRING_BYTES + 9);
+			putString(buffer, security.getIsin());
+			buffer.putInt(security.getTickSize());
+			buffer.putInt(security.getLotSize());
+			buffer.put((byte) security.getState().ordinal());
+			buffer.putInt(security.getLastTradePrice());
+		}
+
+		List<Broker> brokers = new ArrayList<>();
+		brokerRepository.allBrokers().forEach(brokers::add);
+		buffer.putInt(brokers.size());
+		for (Broker broker : brokers) {
+			ensure(MAX_STRING_BYTES + 24);
+			buffer.putLong(broker.getBrokerId());
+			putString(buffer, broker.getName());
+			buffer.putLong(broker.getCredit());
+			buffer.putLong(broker.getReservedCredit());
+		}
+
+		List<Shareholder> shareholders = new ArrayList<>();
+		shareholderRepository.allShareholders().forEach(shareholders::add);
+		buffer.putInt(shareholders.size());
+		for (Shareholder shareholder : shareholders) {
+			ensure(MAX_STRING_BYTES + 12);
+			buffer.putLong(shareholder.getShareholderId());
+			putString(buffer, shareholder.getName());
+			Map<Security, Integer> positions = Map.copyOf(shareholder.getPositions());
+			buffer.putInt(positions.size());
+			for (Map.Entry<Security, Integer> position : positions.entrySet()) {
+				ensure(MAX_STRING_BYTES + 4);
+				putString(buffer, position.getKey().getIsin());
+				buffer.putInt(position.getValue());
+			}
+		}
+
+		for (Security security : securities) {
+			ensure(4);
+			int lengthAt = buffer.position();
+			buffer.putInt(0);
+			OrderBook orderBook = security.getOrderBook();
+			writeQueue(orderBook.getBuyQueue());
+			writeQueue(orderBook.getSellQueue());
+			writeQueue(orderBook.getStopLimitOrderBuyQueue());
+			writeQueue(orderBook.getStopLimitOrderSellQueue());
+			buffer.putInt(lengthAt, buffer.position() - lengthAt - 4);
+		}
+
+		ByteBuffer written = buffer.flip();
+		buffer = null;
+		return written;
+	}
+
+	private void writeQueue(OrderQueue queue) {
+		ensure(4);
+		buffer.putInt(queue.size());
+		for (Order order : queue) {
+			ensure(MAX_ORDER_BYTES);
+			if (order instanceof IcebergOrder) {
+				buffer.put(ICEBERG_ORDER);
+			} else if (order instanceof StopLimitOrder) {
+				buffer.put(STOP_LIMIT_ORDER);
+			} else {
+				buffer.put(LIMIT_ORDER);
+			}
+			buffer.putLong(order.getOrderId());
+			buffer.put((byte) order.getSide().ordinal());
+			buffer.putInt(order.getTotalQuantity());
+			buffer.putInt(order.getMinimumExecutionQuantity());
+			buffer.putInt(order.getPrice());
+			buffer.putLong(order.getBroker().getBrokerId());
+			buffer.putLong(order.getShareholder().getShareholderId());
+			putTime(buffer, order.getEntryTime());
+			putTime(buffer, order.getExpiryDate());
+			buffer.putLong(order.getPriorityTime());
+			buffer.putLong(order.getPrioritySequence());
+			if (order instanceof IcebergOrder icebergOrder) {
+				buffer.putInt(icebergOrder.getPeakSize());
+				buffer.putInt(icebergOrder.getDisplayedQuantity());
+			} else if (order instanceof StopLimitOrder stopLimitOrder) {
+				buffer.putInt(stopLimitOrder.getStopPrice());
+				buffer.putLong(stopLimitOrder.getRequestId());
+			}
+		}
+	}
+
+	private void ensure(int bytes) {
+		if (buffer.remaining() >= bytes) {
+			return;
+		}
+		ByteBuffer grown = ByteBuffer
+			.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+			.order(ByteOrder.LITTLE_ENDIAN);
+		grown.put(buffer.flip());
+		buffer = grown;
+	}
+
+	RequestJournal.Mark read(ByteBuffer snapshot, ForkJoinPool pool) throws IOException {
+		long phaseStart = System.nanoTime();
+		snapshot.order(ByteOrder.LITTLE_ENDIAN);
+		if (snapshot.getInt() != MAGIC || snapshot.getInt() != VERSION) {
+			throw new IOException("Unsupported snapshot format");
+		}
+		RequestJournal.Mark journalMark = new RequestJournal.Mark(snapshot.getLong(), snapshot.getLong());
+
+		securityRepository.clear();
+		int securityCount = snapshot.getInt();
+		List<Security> securities = new ArrayList<>(securityCount);
+		for (int i = 0; i < securityCount; i++) {
+			Security security = Security
+				.builder()
+				.isin(getString(snapshot))
+				.tickSize(snapshot.getInt())
+				.lotSize(snapshot.getInt())
+				.expiringService(expiringService)
+				.build();
+			security.restoreState(SECURITY_STATES[snapshot.get()], snapshot.getInt());
+			securityRepository.addSecurity(security);
+			securities.add(security);
+		}
+		phaseStart = logPhase("securities", phaseStart);
+
+		brokerRepository.clear();
+		int brokerCount = snapshot.getInt();
+		for (int i = 0; i < brokerCount; i++) {
+			Broker broker = Broker.builder().brokerId(snapshot.getLong()).name(getString(snapshot)).credit(snapshot.getLong()).build();
+			broker.reinstateReservedCredit(snapshot.getLong());
+			brokerRepository.addBroker(broker);
+		}
+		phaseStart = logPhase("brokers", phaseStart);
+
+		shareholderRepository.clear();
+		int shareholderCount = snapshot.getInt();
+		for (int i = 0; i < shareholderCount; i++) {
+			Shareholder shareholder = Shareholder.builder().shareholderId(snapshot.getLong()).name(getString(snapshot)).build();
+			int positionCount = snapshot.getInt();
+			for (int j = 0; j < positionCount; j++) {
+				shareholder.incPosition(securityRepository.findSecurityByIsin(getString(snapshot)), snapshot.getInt());
+			}
+			shareholderRepository.addShareholder(shareholder);
+		}
+		phaseStart = logPhase("shareholders and positions", phaseStart);
+
+		List<ForkJoinTask<?>> books = new ArrayList<>(securities.size());
+		for (Security security : securities) {
+			int length = snapshot.getInt();
+			ByteBuffer book = snapshot.slice(snapshot.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+			snapshot.position(snapshot.position() + length);
+			books.add(pool.submit(() -> readBook(book, security)));
+		}
+		books.forEach(ForkJoinTask::join);
+		logPhase("order books", phaseStart);
+		return journalMark;
+	}
+
+	private long logPhase(String phase, long phaseStart) {
+		long now = System.nanoTime();
+		log.info("Snapshot " + phase + " loaded in " + TimeUnit.NANOSECONDS.toMillis(now - phaseStart) + " ms");
+		return now;
+	}
+
+	private void readBook(ByteBuffer book, Security security) {
+		for (int queue = 0; queue < 4; queue++) {
+			readQueue(book, security);
+		}
+	}
+
+	private void readQueue(ByteBuffer snapshot, Security security) {
+		int size = snapshot.getInt();
+		for (int i = 0; i < size; i++) {
+			byte kind = snapshot.get();
+			long orderId = snapshot.getLong();
+			Side side = SIDES[snapshot.get()];
+			int quantity = snapshot.getInt();
+			int minimumExecutionQuantity = snapshot.getInt();
+			int price = snapshot.getInt();
+			Broker broker = brokerRepository.findBrokerById(snapshot.getLong());
+			Shareholder shareholder = shareholderRepository.findShareholderById(snapshot.getLong());
+			LocalDateTime entryTime = getTime(snapshot);
+			LocalDateTime expiryDate = getTime(snapshot);
+			long priorityTime = snapshot.getLong();
+			long prioritySequence = snapshot.getLong();
+
+			Order order = switch (kind) {
+				case ICEBERG_ORDER -> new IcebergOrder(
+					orderId,
+					security,
+					side,
+					quantity,
+					minimumExecutionQuantity,
+					price,
+					broker,
+					shareholder,
+					entryTime,
+					expiryDate,
+					snapshot.getInt(),
+					snapshot.getInt(),
+					OrderStatus.LOADING
+				);
+				case STOP_LIMIT_ORDER -> new StopLimitOrder(
+					orderId,
+					security,
+					side,
+					quantity,
+					price,
+					broker,
+					shareholder,
+					entryTime,
+					expiryDate,
+					snapshot.getInt(),
+					snapshot.getLong(),
+					OrderStatus.LOADING
+				);
+				default -> new Order(
+					orderId,
+					security,
+					side,
+					quantity,
+					minimumExecutionQuantity,
+					price,
+					broker,
+					shareholder,
+					entryTime,
+					expiryDate,
+					OrderStatus.LOADING
+				);
+			};
+			order.restorePriority(priorityTime, prioritySequence);
+			security.getOrderBook().enqueueRestored(order);
+			if (expiryDate != null && expiringService != null) {
+				expiringService.scheduleexpiryDate(order);
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package ir.ramtung.tinyme.repository;
+
+import ir.ramtung.tinyme.domain.service.ExpiringService;
+import ir.ramtung.tinyme.domain.service.ShardedOrderEngine;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SnapshotService {
+
+	private final Logger log = Logger.getLogger(this.getClass().getName());
+	private final SnapshotFormat format;
+	private final RequestJournal journal;
+	private final ShardedOrderEngine orderEngine;
+	private final ExecutorService writer;
+	private final boolean enabled;
+	private final Path path;
+	private final long intervalMillis;
+	private volatile RequestJournal.Mark pendingCheckpoint;
+	private volatile boolean writing;
+	private long nextSnapshotAt;
+
+	public SnapshotService(
+		BrokerRepository brokerRepository,
+		ShareholderRepository shareholderRepository,
+		SecurityRepository securityRepository,
+		ExpiringService expiringService,
+		RequestJournal journal,
+		ShardedOrderEngine orderEngine,
+		@Value("${engine.snapshot.enabled:false}") boolean enabled,
+		@Value("${engine.snapshot.path:snapshot/tinyme.snapshot}") String path,
+		@Value("${engine.snapshot.interval-seconds:300}") long intervalSeconds
+	) {
+		if (intervalSeconds <= 0) {
+			throw new IllegalArgumentException("engine.snapshot.interval-seconds must be positive");
+		}
+
+		this.format = new SnapshotFormat(brokerRepository, shareholderRepository, securityRepository, expiringService);
+		this.journal = journal;
+		this.orderEngine = orderEngine;
+		this.writer = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("tinyme-snapshot").daemon().factory());
+		this.enabled = enabled;
+		this.path = Path.of(path);
+		this.intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+		this.nextSnapshotAt = System.currentTimeMillis() + intervalMillis;
+	}
+
+	public boolean hasSnapshot() {
+		return enabled && Files.exists(path);
+	}
+
+	public RequestJournal.Mark load(ForkJoinPool pool) throws IOException {
+		RequestJournal.Mark journalMark = read(format, path, pool);
+		log.info("Snapshot loaded from " + path);
+		return journalMark;
+	}
+
+	public static RequestJournal.Mark load(
+		Path path,
+		BrokerRepository brokerRepository,
+		ShareholderRepository shareholderRepository,
+		SecurityRepository securityRepository,
+		ForkJoinPool pool
+	) throws IOException {
+		return read(new SnapshotFormat(brokerRepository, shareholderRepository, securityRepository, null), path, pool);
+	}
+
+	private static RequestJournal.Mark read(SnapshotFormat format, Path path, ForkJoinPool pool) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return format.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), pool);
+		}
+	}
+
+	public void takeSnapshotIfDue() throws InterruptedException {
+		if (!enabled) {
+			return;
+		}
+
+		RequestJournal.Mark checkpoint = pendingCheckpoint;
+		if (checkpoint != null) {
+			pendingCheckpoint = null;
+			journal.checkpoint(checkpoint);
+		}
+		if (writing || System.currentTimeMillis() < nextSnapshotAt) {
+			return;
+		}
+
+		nextSnapshotAt = System.currentTimeMillis() + intervalMillis;
+		RequestJournal.Mark journalMark = journal.roll();
+		ByteBuffer[] captured = new ByteBuffer[1];
+		orderEngine.quiesce(() -> captured[0] = format.write(journalMark));
+
+		writing = true;
+		writer.execute(() -> {
+			try {
+				store(captured[0]);
+				pendingCheckpoint = journalMark;
+			} catch (IOException ex) {
+				log.log(Level.SEVERE, "Failed to write snapshot", ex);
+			} finally {
+				writing = false;
+			}
+		});
+	}
+
+	public void takeSnapshotNow() throws IOException, InterruptedException {
+		if (!enabled) {
+			return;
+		}
+
+		ByteBuffer captured = format.write(journal.roll());
+		try {
+			writer.submit(() -> {
+				store(captured);
+				return null;
+			}).get();
+		} catch (ExecutionException ex) {
+			throw new IOException("Failed to write snapshot", ex.getCause());
+		}
+	}
+
+	private void store(ByteBuffer captured) throws IOException {
+		Path parent = path.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try (
+			FileChannel channel = FileChannel.open(
+				temporary,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING
+			)
+		) {
+			while (captured.hasRemaining()) {
+				channel.write(captured);
+			}
+			channel.force(true);
+		}
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		log.info("Snapshot written to " + path);
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		writer.shutdown();
+		writer.awaitTermination(30, TimeUnit.SECONDS);
+	}
+}
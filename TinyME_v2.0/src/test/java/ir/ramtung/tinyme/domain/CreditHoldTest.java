@@ -0,0 +1,76 @@
+package ir.ramtung.tinyme.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.SecurityResponse;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.entity.stats.SituationalStats;
+import ir.ramtung.tinyme.domain.entity.stats.SituationalStatsType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CreditHoldTest {
+
+	private Security security;
+	private Shareholder shareholder;
+	private Broker sellerBroker;
+
+	@BeforeEach
+	void setup() {
+		security = Security.builder().isin("ABC").build();
+		shareholder = Shareholder.builder().shareholderId(1).build();
+		shareholder.incPosition(security, 1_000);
+		sellerBroker = spy(Broker.builder().brokerId(1).credit(0).build());
+		security.addNewOrder(new Order(2, security, Side.SELL, 5, 110, sellerBroker, shareholder));
+		security.addNewOrder(new Order(3, security, Side.SELL, 5, 120, sellerBroker, shareholder));
+	}
+
+	private Broker queueBuy(long credit) {
+		Broker buyerBroker = spy(Broker.builder().brokerId(2).credit(credit).build());
+		security.addNewOrder(new Order(1, security, Side.BUY, 10, 100, buyerBroker, shareholder));
+		assertThat(buyerBroker.getReservedCredit()).isEqualTo(1_000);
+		return buyerBroker;
+	}
+
+	@Test
+	void an_amended_buy_pays_its_trades_from_its_reservation_first() {
+		Broker buyerBroker = queueBuy(1_000 + 150 + 240);
+
+		security.updateOrder(new Order(1, security, Side.BUY, 12, 120, buyerBroker, shareholder));
+
+		assertThat(security.getOrderBook().getSellQueue()).isEmpty();
+		assertThat(buyerBroker.getReservedCredit()).isEqualTo(2 * 120);
+		assertThat(buyerBroker.getCredit()).isZero();
+		assertThat(sellerBroker.getCredit()).isEqualTo(5 * 110 + 5 * 120);
+	}
+
+	@Test
+	void a_failed_amend_keeps_the_original_reservation_and_pays_no_seller() {
+		Broker buyerBroker = queueBuy(1_000 + 100);
+
+		SecurityResponse response = security.updateOrder(
+			new Order(1, security, Side.BUY, 10, 120, buyerBroker, shareholder)
+		);
+
+		assertThat(response.getStats().getFirst())
+			.isInstanceOfSatisfying(
+				SituationalStats.class,
+				stats -> assertThat(stats.getType()).isEqualTo(SituationalStatsType.NOT_ENOUGH_CREDIT)
+			);
+		assertThat(buyerBroker.getReservedCredit()).isEqualTo(1_000);
+		assertThat(buyerBroker.getCredit()).isEqualTo(100);
+		assertThat(security.getOrderBook().findByOrderId(Side.BUY, 1).getPrice()).isEqualTo(100);
+		assertThat(security.getOrderBook().getSellQueue()).extracting(Order::getQuantity).containsExactly(5, 5);
+		verify(buyerBroker, never()).releaseReservedCredit(anyLong());
+		verify(sellerBroker, never()).increaseCreditBy(anyLong());
+		assertThat(sellerBroker.getCredit()).isZero();
+	}
+}
@@ -0,0 +1,84 @@
+package ir.ramtung.tinyme.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.entity.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IndicativePriceTrackerTest {
+
+	private final Broker broker = Broker.builder().credit(Long.MAX_VALUE / 2).build();
+	private final Shareholder shareholder = Shareholder.builder().build();
+
+	private static int scanTradableQuantity(OrderBook orderBook, int price) {
+		int buysQuantity = 0;
+		for (Order order : orderBook.getBuyQueue()) {
+			if (order.canTradeWithPrice(price)) {
+				buysQuantity += order.getTotalQuantity();
+			}
+		}
+		int sellsQuantity = 0;
+		for (Order order : orderBook.getSellQueue()) {
+			if (order.canTradeWithPrice(price)) {
+				sellsQuantity += order.getTotalQuantity();
+			}
+		}
+		return Math.min(buysQuantity, sellsQuantity);
+	}
+
+	@Test
+	void tracks_the_per_price_scan_through_random_book_changes() {
+		Random random = new Random(5_2024);
+		for (int tickSize : new int[] { 1, 10 }) {
+			Security security = Security.builder().tickSize(tickSize).build();
+			OrderBook orderBook = security.getOrderBook();
+			IndicativePriceTracker tracker = orderBook.getIndicativePriceTracker();
+			List<Order> queued = new ArrayList<>();
+			for (long orderId = 1; orderId <= 3_000; orderId++) {
+				OpeningPriceCalculatorTest.mutateRandomly(random, security, queued, orderId, broker, shareholder);
+				int lastTradePrice = 80 * tickSize + random.nextInt(60 * tickSize);
+
+				int expected = OpeningPriceCalculatorTest.scanOpeningPrice(orderBook, lastTradePrice, tickSize);
+				assertThat(tracker.getOpeningPrice(lastTradePrice, tickSize))
+					.as("tick %d after order %d, last trade %d", tickSize, orderId, lastTradePrice)
+					.isEqualTo(expected);
+				assertThat(tracker.getTradableQuantity(lastTradePrice, tickSize))
+					.isEqualTo(scanTradableQuantity(orderBook, expected));
+			}
+		}
+	}
+
+	@Test
+	void repeated_queries_on_an_unchanged_book_agree() {
+		Security security = Security.builder().build();
+		OrderBook orderBook = security.getOrderBook();
+		orderBook.enqueue(new Order(1, security, Side.BUY, 100, 150, broker, shareholder));
+		orderBook.enqueue(new Order(2, security, Side.BUY, 100, 100, broker, shareholder));
+		orderBook.enqueue(new Order(3, security, Side.SELL, 100, 100, broker, shareholder));
+		orderBook.enqueue(new Order(4, security, Side.SELL, 100, 150, broker, shareholder));
+		IndicativePriceTracker tracker = orderBook.getIndicativePriceTracker();
+
+		assertThat(tracker.getOpeningPrice(120, 1)).isEqualTo(120);
+		assertThat(tracker.getOpeningPrice(90, 1)).isEqualTo(100);
+		assertThat(tracker.getOpeningPrice(200, 1)).isEqualTo(150);
+		assertThat(tracker.getOpeningPrice(120, 1)).isEqualTo(120);
+		assertThat(tracker.getTradableQuantity(120, 1)).isEqualTo(100);
+	}
+
+	@Test
+	void ties_at_equal_distance_go_to_the_lower_price() {
+		Security security = Security.builder().tickSize(10).build();
+		OrderBook orderBook = security.getOrderBook();
+		orderBook.enqueue(new Order(1, security, Side.BUY, 100, 150, broker, shareholder));
+		orderBook.enqueue(new Order(2, security, Side.BUY, 100, 100, broker, shareholder));
+		orderBook.enqueue(new Order(3, security, Side.SELL, 100, 100, broker, shareholder));
+		orderBook.enqueue(new Order(4, security, Side.SELL, 100, 150, broker, shareholder));
+
+		assertThat(orderBook.getIndicativePriceTracker().getOpeningPrice(125, 10))
+			.isEqualTo(120)
+			.isEqualTo(OpeningPriceCalculatorTest.scanOpeningPrice(orderBook, 125, 10));
+	}
+}
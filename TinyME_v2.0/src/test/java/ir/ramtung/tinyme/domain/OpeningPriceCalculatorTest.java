@@ -0,0 +1,136 @@
+package ir.ramtung.tinyme.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.entity.*;
+import ir.ramtung.tinyme.domain.service.OpeningPriceCalculator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class OpeningPriceCalculatorTest {
+
+	private final OpeningPriceCalculator calculator = new OpeningPriceCalculator();
+	private final Broker broker = Broker.builder().credit(Long.MAX_VALUE / 2).build();
+	private final Shareholder shareholder = Shareholder.builder().build();
+
+	/** The per-price scan the calculator replaced, stepping by {@code step} from the lowest buy price. */
+	static int scanOpeningPrice(OrderBook orderBook, int lastTradePrice, int step) {
+		if (!orderBook.hasOrderOfType(Side.BUY) || !orderBook.hasOrderOfType(Side.SELL)) {
+			return lastTradePrice;
+		}
+
+		int minPrice = orderBook.getLowestPriorityActiveOrder(Side.BUY).getPrice();
+		int maxPrice = orderBook.getLowestPriorityActiveOrder(Side.SELL).getPrice();
+		int maxTradableQuantity = 0;
+		int openingPrice = lastTradePrice;
+		for (int price = minPrice; price <= maxPrice; price += step) {
+			int tradableQuantity = Math.min(
+				scanQuantity(orderBook.getBuyQueue(), price),
+				scanQuantity(orderBook.getSellQueue(), price)
+			);
+			if (
+				tradableQuantity > maxTradableQuantity ||
+				(
+					tradableQuantity == maxTradableQuantity &&
+					Math.abs(price - lastTradePrice) < Math.abs(openingPrice - lastTradePrice)
+				)
+			) {
+				openingPrice = price;
+				maxTradableQuantity = tradableQuantity;
+			}
+		}
+		return openingPrice;
+	}
+
+	private static int scanQuantity(List<Order> queue, int price) {
+		return queue.stream().filter(order -> order.canTradeWithPrice(price)).mapToInt(Order::getTotalQuantity).sum();
+	}
+
+	static void mutateRandomly(Random random, Security security, List<Order> queued, long orderId, Broker broker, Shareholder shareholder) {
+		OrderBook orderBook = security.getOrderBook();
+		int action = random.nextInt(10);
+		if (queued.isEmpty() || action < 5) {
+			Side side = random.nextBoolean() ? Side.BUY : Side.SELL;
+			int price = security.getTickSize() * (90 + random.nextInt(40));
+			int quantity = 1 + random.nextInt(500);
+			Order order = random.nextInt(4) == 0
+				? new IcebergOrder(orderId, security, side, quantity, price, broker, shareholder, 1 + random.nextInt(quantity))
+				: new Order(orderId, security, side, quantity, price, broker, shareholder);
+			orderBook.enqueue(order);
+			queued.add(order);
+		} else if (action < 8) {
+			Order order = queued.get(random.nextInt(queued.size()));
+			if (order.getQuantity() > 1) {
+				int previousQuantity = order.getTotalQuantity();
+				order.decreaseQuantity(1 + random.nextInt(order.getQuantity() - 1));
+				orderBook.updateQueuedQuantity(order, previousQuantity);
+			}
+		} else {
+			Order order = queued.remove(random.nextInt(queued.size()));
+			orderBook.removeByOrderId(order.getSide(), order.getOrderId());
+		}
+	}
+
+	@Test
+	void level_totals_follow_enqueue_update_and_removal() {
+		Security security = Security.builder().build();
+		OrderBook orderBook = security.getOrderBook();
+		Order first = new Order(1, security, Side.BUY, 300, 100, broker, shareholder);
+		Order second = new IcebergOrder(2, security, Side.BUY, 500, 100, broker, shareholder, 100);
+		orderBook.enqueue(first);
+		orderBook.enqueue(second);
+		assertThat(orderBook.findLevel(Side.BUY, 100).getTotalQuantity()).isEqualTo(800);
+
+		first.decreaseQuantity(120);
+		orderBook.updateQueuedQuantity(first, 300);
+		assertThat(orderBook.findLevel(Side.BUY, 100).getTotalQuantity()).isEqualTo(680);
+
+		orderBook.removeByOrderId(Side.BUY, 2);
+		assertThat(orderBook.findLevel(Side.BUY, 100).getTotalQuantity()).isEqualTo(180);
+	}
+
+	@Test
+	void tick_stepped_price_equals_the_per_price_scan_on_random_books() {
+		Random random = new Random(4_2024);
+		for (int tickSize : new int[] { 1, 5 }) {
+			Security security = Security.builder().tickSize(tickSize).build();
+			List<Order> queued = new ArrayList<>();
+			for (long orderId = 1; orderId <= 2_000; orderId++) {
+				mutateRandomly(random, security, queued, orderId, broker, shareholder);
+				int lastTradePrice = tickSize * (80 + random.nextInt(60));
+
+				assertLevelTotals(security.getOrderBook().getBuyQueue());
+				assertLevelTotals(security.getOrderBook().getSellQueue());
+				assertThat(calculator.calcOpeningPrice(security.getOrderBook(), lastTradePrice, tickSize))
+					.as("tick %d after order %d, last trade %d", tickSize, orderId, lastTradePrice)
+					.isEqualTo(scanOpeningPrice(security.getOrderBook(), lastTradePrice, tickSize));
+			}
+		}
+	}
+
+	@Test
+	void ties_go_to_the_price_closest_to_the_last_trade() {
+		Security security = Security.builder().tickSize(5).build();
+		OrderBook orderBook = security.getOrderBook();
+		orderBook.enqueue(new Order(1, security, Side.BUY, 100, 150, broker, shareholder));
+		orderBook.enqueue(new Order(2, security, Side.BUY, 100, 100, broker, shareholder));
+		orderBook.enqueue(new Order(3, security, Side.SELL, 100, 100, broker, shareholder));
+		orderBook.enqueue(new Order(4, security, Side.SELL, 100, 150, broker, shareholder));
+
+		assertThat(calculator.calcOpeningPrice(orderBook, 120, 5)).isEqualTo(120).isEqualTo(scanOpeningPrice(orderBook, 120, 5));
+		assertThat(calculator.calcOpeningPrice(orderBook, 90, 5)).isEqualTo(100).isEqualTo(scanOpeningPrice(orderBook, 90, 5));
+		assertThat(calculator.calcOpeningPrice(orderBook, 200, 5)).isEqualTo(150).isEqualTo(scanOpeningPrice(orderBook, 200, 5));
+	}
+
+	private static void assertLevelTotals(OrderQueue queue) {
+		for (PriceLevel level : queue.levels()) {
+			long totalQuantity = 0;
+			for (Order order : level) {
+				totalQuantity += order.getTotalQuantity();
+			}
+			assertThat(level.getTotalQuantity()).isEqualTo(totalQuantity);
+		}
+	}
+}
@@ -78,4 +78,146 @@ class OrderBookTest {
 		orderBook.removeByOrderId(Side.SELL, 10);
 		assertThat(orderBook.getSellQueue()).isEqualTo(orders.subList(5, 9));
 	}
+
+	@Test
+	void the_id_index_follows_an_order_moved_to_another_level_by_update() {
+		OrderBook orderBook = security.getOrderBook();
+		Order moved = orders.get(5);
+
+		security.updateOrder(new Order(6, security, Side.SELL, 350, 15810, moved.getBroker(), moved.getShareholder()));
+
+		assertThat(orderBook.findByOrderId(Side.SELL, 6)).isSameAs(moved);
+		assertThat(orderBook.findLevel(Side.SELL, 15800)).isNull();
+		assertThat(orderBook.findLevel(Side.SELL, 15810)).containsExactly(orders.get(6), orders.get(7), moved);
+
+		orderBook.removeByOrderId(Side.SELL, 6);
+		assertThat(orderBook.isThereOrderWithId(Side.SELL, 6)).isFalse();
+		assertThat(orderBook.findLevel(Side.SELL, 15810)).containsExactly(orders.get(6), orders.get(7));
+	}
+
+	@Test
+	void the_id_index_follows_an_order_whose_quantity_is_updated_in_place() {
+		OrderBook orderBook = security.getOrderBook();
+		Order updated = orders.get(8);
+
+		security.updateOrder(new Order(9, security, Side.SELL, 100, 15820, updated.getBroker(), updated.getShareholder()));
+
+		assertThat(orderBook.findByOrderId(Side.SELL, 9)).isSameAs(updated);
+		assertThat(orderBook.findLevel(Side.SELL, 15820)).containsExactly(updated, orders.get(9));
+		assertThat(orderBook.findLevel(Side.SELL, 15820).getTotalQuantity()).isEqualTo(100 + 65);
+		assertThat(orderBook.findLevel(Side.SELL, 15820).getDisplayedQuantity()).isEqualTo(100 + 65);
+
+		orderBook.removeByOrderId(Side.SELL, 9);
+		assertThat(orderBook.findLevel(Side.SELL, 15820)).containsExactly(orders.get(9));
+	}
+
+	@Test
+	void the_id_index_follows_an_iceberg_requeued_by_replenish() {
+		OrderBook orderBook = security.getOrderBook();
+		Broker broker = Broker.builder().credit(100_000_000L).build();
+		Shareholder shareholder = Shareholder.builder().build();
+		shareholder.incPosition(security, 1_000);
+		IcebergOrder iceberg = new IcebergOrder(11, security, Side.SELL, 300, 15790, broker, shareholder, 100);
+		orderBook.enqueue(iceberg);
+
+		security.addNewOrder(new Order(12, security, Side.BUY, 100, 15790, broker, shareholder));
+
+		assertThat(orderBook.findByOrderId(Side.SELL, 11)).isSameAs(iceberg);
+		assertThat(iceberg.getDisplayedQuantity()).isEqualTo(100);
+		assertThat(orderBook.findLevel(Side.SELL, 15790)).containsExactly(iceberg);
+		assertThat(orderBook.findLevel(Side.SELL, 15790).getTotalQuantity()).isEqualTo(200);
+		assertThat(orderBook.findLevel(Side.SELL, 15790).getDisplayedQuantity()).isEqualTo(100);
+		assertThat(orderBook.isThereOrderWithId(Side.BUY, 12)).isFalse();
+
+		orderBook.removeByOrderId(Side.SELL, 11);
+		assertThat(orderBook.isThereOrderWithId(Side.SELL, 11)).isFalse();
+		assertThat(orderBook.findLevel(Side.SELL, 15790)).isNull();
+	}
+
+	@Test
+	void reports_each_changed_level_once_with_displayed_depth() {
+		OrderBook orderBook = security.getOrderBook();
+		orderBook.getChangedLevels().clear();
+		Broker broker = Broker.builder().credit(100_000_000L).build();
+		Shareholder shareholder = Shareholder.builder().build();
+		orderBook.enqueue(new IcebergOrder(11, security, Side.BUY, 1000, 15450, broker, shareholder, 100));
+		orderBook.removeByOrderId(Side.BUY, 3);
+		orderBook.removeByOrderId(Side.SELL, 6);
+
+		ChangedLevels changedLevels = orderBook.getChangedLevels();
+		assertThat(changedLevels.size()).isEqualTo(2);
+		assertThat(changedLevels.sideAt(0)).isEqualTo(Side.BUY);
+		assertThat(changedLevels.priceAt(0)).isEqualTo(15450);
+		assertThat(changedLevels.sideAt(1)).isEqualTo(Side.SELL);
+		assertThat(orderBook.findLevel(Side.BUY, 15450).getDisplayedQuantity()).isEqualTo(526 + 100);
+		assertThat(orderBook.findLevel(Side.BUY, 15450).getSize()).isEqualTo(2);
+		assertThat(orderBook.findLevel(Side.SELL, 15800)).isNull();
+	}
+
+	@Test
+	void top_of_book_follows_the_best_levels() {
+		TopOfBook topOfBook = security.getOrderBook().getTopOfBook();
+		assertThat(topOfBook.getBestPrice(Side.BUY)).isEqualTo(15700);
+		assertThat(topOfBook.getBestQuantity(Side.BUY)).isEqualTo(304);
+		assertThat(topOfBook.getBestPrice(Side.SELL)).isEqualTo(15800);
+		assertThat(topOfBook.getBestOrderCount(Side.SELL)).isEqualTo(1);
+
+		security.getOrderBook().removeByOrderId(Side.BUY, 1);
+		security.getOrderBook().removeByOrderId(Side.SELL, 6);
+
+		assertThat(topOfBook.getBestPrice(Side.BUY)).isEqualTo(15500);
+		assertThat(topOfBook.getBestPrice(Side.SELL)).isEqualTo(15810);
+		assertThat(topOfBook.getBestQuantity(Side.SELL)).isEqualTo(285 + 800);
+		assertThat(topOfBook.getBestOrderCount(Side.SELL)).isEqualTo(2);
+	}
+
+	@Test
+	void the_displayed_depth_of_a_level_follows_partial_fills_and_rollbacks() {
+		OrderBook orderBook = security.getOrderBook();
+		Broker broker = Broker.builder().credit(0).build();
+		Shareholder shareholder = Shareholder.builder().build();
+		shareholder.incPosition(security, 1_000);
+		IcebergOrder iceberg = new IcebergOrder(11, security, Side.SELL, 300, 15800, broker, shareholder, 100);
+		orderBook.enqueue(iceberg);
+
+		iceberg.decreaseQuantity(40);
+		orderBook.updateQueuedQuantity(iceberg, 300);
+		assertThat(orderBook.getTopOfBook().getBestQuantity(Side.SELL)).isEqualTo(350 + 60);
+
+		orderBook.getUndoJournal().record(iceberg);
+		iceberg.decreaseQuantity(60);
+		orderBook.updateQueuedQuantity(iceberg, 260);
+		assertThat(orderBook.findLevel(Side.SELL, 15800).getDisplayedQuantity()).isEqualTo(350);
+
+		orderBook.getUndoJournal().restoreLast();
+		orderBook.updateQueuedQuantity(iceberg, 200);
+		assertThat(orderBook.findLevel(Side.SELL, 15800).getDisplayedQuantity()).isEqualTo(350 + 60);
+		assertThat(orderBook.findLevel(Side.SELL, 15800).getTotalQuantity()).isEqualTo(350 + 260);
+
+		orderBook.removeByOrderId(Side.SELL, 6);
+		assertThat(orderBook.getTopOfBook().getBestQuantity(Side.SELL)).isEqualTo(60);
+	}
+
+	@Test
+	void top_of_book_reports_an_empty_side_without_throwing() {
+		OrderBook orderBook = new OrderBook();
+
+		assertThat(orderBook.getTopOfBook().isEmpty(Side.BUY)).isTrue();
+		assertThat(orderBook.getTopOfBook().getBestPrice(Side.SELL)).isEqualTo(TopOfBook.NO_PRICE);
+		assertThat(orderBook.getTopOfBook().getBestQuantity(Side.SELL)).isZero();
+		assertThat(orderBook.getTopOfBook().crosses(orders.get(0))).isFalse();
+	}
+
+	@Test
+	void top_of_book_change_is_taken_only_when_the_top_moves() {
+		TopOfBook topOfBook = security.getOrderBook().getTopOfBook();
+		assertThat(topOfBook.takeChange()).isTrue();
+
+		security.getOrderBook().removeByOrderId(Side.BUY, 5);
+		assertThat(topOfBook.takeChange()).isFalse();
+
+		security.getOrderBook().removeByOrderId(Side.SELL, 6);
+		assertThat(topOfBook.takeChange()).isTrue();
+		assertThat(topOfBook.takeChange()).isFalse();
+	}
 }
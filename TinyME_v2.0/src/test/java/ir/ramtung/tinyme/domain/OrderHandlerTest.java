@@ -442,7 +442,7 @@ public class OrderHandlerTest {
 				1,
 				incomingSellOrder.getSecurity().getIsin(),
 				incomingSellOrder.getOrderId(),
-				incomingSellOrder.getEntryTimes().getFirst(),
+				incomingSellOrder.getEntryTime(),
 				incomingSellOrder.getSide(),
 				incomingSellOrder.getTotalQuantity(),
 				incomingSellOrder.getPrice(),
@@ -483,7 +483,7 @@ public class OrderHandlerTest {
 				1,
 				incomingSellOrder.getSecurity().getIsin(),
 				incomingSellOrder.getOrderId(),
-				incomingSellOrder.getEntryTimes().getFirst(),
+				incomingSellOrder.getEntryTime(),
 				incomingSellOrder.getSide(),
 				incomingSellOrder.getTotalQuantity(),
 				incomingSellOrder.getPrice(),
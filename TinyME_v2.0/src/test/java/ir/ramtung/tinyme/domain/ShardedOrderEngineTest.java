@@ -0,0 +1,92 @@
+package ir.ramtung.tinyme.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.service.OrderHandler;
+import ir.ramtung.tinyme.domain.service.ShardedOrderEngine;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardedOrderEngineTest {
+
+	private CountDownLatch started;
+	private CountDownLatch released;
+	private List<Long> handled;
+	private ShardedOrderEngine orderEngine;
+
+	@BeforeEach
+	void setup() {
+		started = new CountDownLatch(1);
+		released = new CountDownLatch(1);
+		handled = new CopyOnWriteArrayList<>();
+		OrderHandler orderHandler = mock(OrderHandler.class);
+		doAnswer(invocation -> {
+				started.countDown();
+				released.await();
+				handled.add(invocation.<DeleteOrderRq>getArgument(0).getRequestId());
+				return null;
+			})
+			.when(orderHandler)
+			.handleRq(any(BaseRq.class));
+		orderEngine = new ShardedOrderEngine(orderHandler, 1, 2);
+	}
+
+	@AfterEach
+	void teardown() throws InterruptedException {
+		released.countDown();
+		orderEngine.shutdown();
+	}
+
+	private static DeleteOrderRq request(long requestId) {
+		return new DeleteOrderRq(requestId, "ABC", Side.BUY, requestId);
+	}
+
+	@Test
+	void a_full_shard_queue_blocks_the_submitter_until_it_drains() throws InterruptedException {
+		orderEngine.submit(request(1));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		orderEngine.submit(request(2));
+		orderEngine.submit(request(3));
+
+		Thread submitter = Thread.ofPlatform().start(() -> orderEngine.submit(request(4)));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (submitter.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+			Thread.yield();
+		}
+		assertThat(submitter.getState()).isEqualTo(Thread.State.WAITING);
+		assertThat(handled).isEmpty();
+
+		released.countDown();
+		submitter.join(5_000);
+		assertThat(submitter.isAlive()).isFalse();
+		orderEngine.shutdown();
+
+		assertThat(handled).containsExactly(1L, 2L, 3L, 4L);
+	}
+
+	@Test
+	void submitting_to_a_shut_down_engine_is_rejected() throws InterruptedException {
+		orderEngine.shutdown();
+
+		assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> orderEngine.submit(request(1)));
+	}
+
+	@Test
+	void the_queue_capacity_must_be_positive() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+			.isThrownBy(() -> new ShardedOrderEngine(mock(OrderHandler.class), 1, 0));
+	}
+}
@@ -0,0 +1,119 @@
+package ir.ramtung.tinyme.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.service.TimingWheel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+	private TimingWheel<String> wheel;
+	private List<String> expired;
+
+	@BeforeEach
+	void setup() {
+		wheel = new TimingWheel<>(0);
+		expired = new ArrayList<>();
+	}
+
+	private void advanceTo(long tick) {
+		wheel.advanceTo(tick, expired::add);
+	}
+
+	@Test
+	void timeouts_on_every_level_expire_exactly_at_their_deadline() {
+		long[] deadlines = { 1, 255, 256, 257, 65_535, 65_536, 65_537, 300_000, 16_777_216 };
+		for (long deadline : deadlines) {
+			wheel.schedule("t" + deadline, deadline);
+		}
+
+		for (long deadline : deadlines) {
+			advanceTo(deadline - 1);
+			assertThat(expired).doesNotContain("t" + deadline);
+			advanceTo(deadline);
+			assertThat(expired).endsWith("t" + deadline);
+		}
+		assertThat(expired).hasSize(deadlines.length);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void a_timeout_scheduled_mid_rotation_cascades_to_its_deadline() {
+		advanceTo(200);
+		wheel.schedule("mid", 200 + 70_000);
+
+		advanceTo(200 + 69_999);
+		assertThat(expired).isEmpty();
+		advanceTo(200 + 70_000);
+		assertThat(expired).containsExactly("mid");
+	}
+
+	@Test
+	void a_timeout_cancelled_after_cascading_never_expires() {
+		TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 70_000);
+		wheel.schedule("kept", 70_001);
+
+		advanceTo(69_990);
+		assertThat(cancelled.isScheduled()).isTrue();
+		assertThat(wheel.cancel(cancelled)).isTrue();
+		assertThat(wheel.cancel(cancelled)).isFalse();
+		assertThat(wheel.size()).isEqualTo(1);
+
+		advanceTo(80_000);
+		assertThat(expired).containsExactly("kept");
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void cancelling_one_of_several_cascaded_timeouts_keeps_the_others() {
+		List<TimingWheel.Timeout<String>> timeouts = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			timeouts.add(wheel.schedule("t" + i, 600));
+		}
+
+		advanceTo(520);
+		wheel.cancel(timeouts.get(0));
+		wheel.cancel(timeouts.get(2));
+		wheel.cancel(timeouts.get(4));
+
+		advanceTo(600);
+		assertThat(expired).containsExactlyInAnyOrder("t1", "t3");
+	}
+
+	@Test
+	void an_expired_timeout_can_no_longer_be_cancelled() {
+		TimingWheel.Timeout<String> timeout = wheel.schedule("done", 300);
+
+		advanceTo(300);
+
+		assertThat(timeout.isScheduled()).isFalse();
+		assertThat(wheel.cancel(timeout)).isFalse();
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void random_deadlines_expire_in_deadline_order() {
+		Random random = new Random(11);
+		List<Long> deadlines = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			long deadline = 1 + random.nextInt(200_000);
+			deadlines.add(deadline);
+			wheel.schedule(Long.toString(deadline), deadline);
+		}
+
+		List<Long> seen = new ArrayList<>();
+		for (long tick = 0; tick <= 200_000; tick += 1 + random.nextInt(5_000)) {
+			wheel.advanceTo(tick, task -> {
+				assertThat(Long.parseLong(task)).isLessThanOrEqualTo(wheel.getCurrentTick());
+				seen.add(Long.parseLong(task));
+			});
+		}
+		wheel.advanceTo(200_000, task -> seen.add(Long.parseLong(task)));
+
+		assertThat(seen).isSorted().containsExactlyInAnyOrderElementsOf(deadlines);
+	}
+}
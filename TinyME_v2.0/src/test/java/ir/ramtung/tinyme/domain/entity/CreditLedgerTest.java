@@ -0,0 +1,134 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CreditLedgerTest {
+
+	private CreditLedger ledger;
+
+	@BeforeEach
+	void setup() {
+		ledger = new CreditLedger(1_000);
+	}
+
+	@Test
+	void reserve_moves_credit_from_available_to_reserved() {
+		assertThat(ledger.tryReserve(300)).isTrue();
+
+		assertThat(ledger.getAvailable()).isEqualTo(700);
+		assertThat(ledger.getReserved()).isEqualTo(300);
+	}
+
+	@Test
+	void reserve_beyond_available_credit_changes_nothing() {
+		assertThat(ledger.tryReserve(1_001)).isFalse();
+
+		assertThat(ledger.getAvailable()).isEqualTo(1_000);
+		assertThat(ledger.getReserved()).isZero();
+	}
+
+	@Test
+	void commit_consumes_the_reservation() {
+		ledger.tryReserve(300);
+
+		ledger.commit(200);
+
+		assertThat(ledger.getAvailable()).isEqualTo(700);
+		assertThat(ledger.getReserved()).isEqualTo(100);
+	}
+
+	@Test
+	void release_returns_the_reservation_to_available() {
+		ledger.tryReserve(300);
+
+		ledger.release(300);
+
+		assertThat(ledger.getAvailable()).isEqualTo(1_000);
+		assertThat(ledger.getReserved()).isZero();
+	}
+
+	@Test
+	void reinstate_undoes_a_commit() {
+		ledger.tryReserve(300);
+		ledger.commit(200);
+
+		ledger.reinstate(200);
+
+		assertThat(ledger.getAvailable()).isEqualTo(700);
+		assertThat(ledger.getReserved()).isEqualTo(300);
+	}
+
+	@Test
+	void replace_counts_the_old_reservation_as_available() {
+		ledger.tryReserve(800);
+
+		assertThat(ledger.tryReplace(800, 1_000)).isTrue();
+
+		assertThat(ledger.getAvailable()).isZero();
+		assertThat(ledger.getReserved()).isEqualTo(1_000);
+	}
+
+	@Test
+	void failed_replace_keeps_the_old_reservation() {
+		ledger.tryReserve(800);
+
+		assertThat(ledger.tryReplace(800, 1_001)).isFalse();
+
+		assertThat(ledger.getAvailable()).isEqualTo(200);
+		assertThat(ledger.getReserved()).isEqualTo(800);
+	}
+
+	@Test
+	void withdraw_beyond_available_credit_fails() {
+		assertThat(ledger.tryWithdraw(1_000)).isTrue();
+		assertThat(ledger.tryWithdraw(1)).isFalse();
+
+		assertThat(ledger.getAvailable()).isZero();
+	}
+
+	@Test
+	void concurrent_reservations_never_overdraw() throws Exception {
+		int threads = 8;
+		int attempts = 10_000;
+		CreditLedger shared = new CreditLedger(threads * attempts / 2);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			results.add(
+				executor.submit(() -> {
+					start.await();
+					int reserved = 0;
+					for (int i = 0; i < attempts; i++) {
+						if (shared.tryReserve(1)) {
+							reserved++;
+						}
+					}
+					return reserved;
+				})
+			);
+		}
+		start.countDown();
+
+		int reserved = 0;
+		for (Future<Integer> result : results) {
+			reserved += result.get();
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(reserved).isEqualTo(threads * attempts / 2);
+		assertThat(shared.getAvailable()).isZero();
+		assertThat(shared.getReserved()).isEqualTo(reserved);
+	}
+}
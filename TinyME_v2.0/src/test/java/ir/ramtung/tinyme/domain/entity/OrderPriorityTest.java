@@ -0,0 +1,138 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrderPriorityTest {
+
+	private static final LocalDateTime ENTRY = LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_000);
+
+	private Security security;
+	private Broker broker;
+	private Shareholder shareholder;
+
+	@BeforeEach
+	void setup() {
+		security = Security.builder().build();
+		broker = Broker.builder().build();
+		shareholder = Shareholder.builder().build();
+	}
+
+	private Order buy(long orderId, LocalDateTime entryTime) {
+		return new Order(orderId, security, Side.BUY, 100, 15000, broker, shareholder, entryTime);
+	}
+
+	@Test
+	void equal_timestamps_are_ordered_by_arrival_in_the_book() {
+		OrderBook orderBook = security.getOrderBook();
+		Order second = buy(2, ENTRY);
+		Order first = buy(1, ENTRY);
+
+		orderBook.enqueue(second);
+		orderBook.enqueue(first);
+
+		assertThat(second.getPriorityTime()).isEqualTo(first.getPriorityTime());
+		assertThat(second.hasPriorityOver(first)).isTrue();
+		assertThat(first.hasPriorityOver(second)).isFalse();
+		assertThat(orderBook.getBuyQueue()).containsExactly(second, first);
+	}
+
+	@Test
+	void an_order_never_has_priority_over_itself() {
+		Order order = buy(1, ENTRY);
+		assertThat(order.hasPriorityOver(order)).isFalse();
+
+		security.getOrderBook().enqueue(order);
+		assertThat(order.hasPriorityOver(order)).isFalse();
+		assertThat(order.queuesBefore(order)).isFalse();
+	}
+
+	@Test
+	void unsequenced_orders_with_equal_timestamps_keep_insertion_order() {
+		Order first = buy(1, ENTRY);
+		Order second = buy(2, ENTRY);
+
+		assertThat(first.hasPriorityOver(second)).isFalse();
+		assertThat(second.hasPriorityOver(first)).isFalse();
+
+		PriceLevel level = new PriceLevel(15000);
+		level.add(first);
+		level.add(second);
+		assertThat(level).containsExactly(first, second);
+	}
+
+	@Test
+	void an_earlier_timestamp_wins_over_an_earlier_arrival() {
+		OrderBook orderBook = security.getOrderBook();
+		Order later = buy(1, ENTRY.plusNanos(1_000));
+		Order earlier = buy(2, ENTRY);
+
+		orderBook.enqueue(later);
+		orderBook.enqueue(earlier);
+
+		assertThat(earlier.hasPriorityOver(later)).isTrue();
+		assertThat(orderBook.getBuyQueue()).containsExactly(earlier, later);
+	}
+
+	@Test
+	void timestamps_within_the_same_microsecond_tie() {
+		Order first = buy(1, ENTRY);
+		Order second = buy(2, ENTRY.plusNanos(999));
+
+		assertThat(second.getPriorityTime()).isEqualTo(first.getPriorityTime());
+
+		OrderBook orderBook = security.getOrderBook();
+		orderBook.enqueue(second);
+		orderBook.enqueue(first);
+		assertThat(orderBook.getBuyQueue()).containsExactly(second, first);
+	}
+
+	@Test
+	void a_reset_order_requeues_behind_an_order_with_the_same_timestamp() {
+		OrderBook orderBook = security.getOrderBook();
+		Order reset = buy(1, ENTRY);
+		Order other = buy(2, ENTRY);
+		orderBook.enqueue(reset);
+		orderBook.enqueue(other);
+
+		orderBook.removeOrder(reset);
+		reset.resetPriority(ENTRY);
+		orderBook.enqueue(reset);
+
+		assertThat(orderBook.getBuyQueue()).containsExactly(other, reset);
+	}
+
+	@Test
+	void a_requeued_order_ranks_behind_a_later_entry_at_its_price() {
+		OrderBook orderBook = security.getOrderBook();
+		Order requeued = buy(1, ENTRY);
+		Order later = buy(2, ENTRY.plusSeconds(10));
+		orderBook.enqueue(requeued);
+		orderBook.enqueue(later);
+
+		orderBook.removeOrder(requeued);
+		requeued.losePriority();
+		orderBook.enqueue(requeued);
+
+		assertThat(orderBook.getBuyQueue()).containsExactly(later, requeued);
+		assertThat(requeued.getPriorityTime()).isEqualTo(later.getPriorityTime());
+	}
+
+	@Test
+	void a_requeued_order_alone_at_its_price_keeps_its_own_time() {
+		OrderBook orderBook = security.getOrderBook();
+		Order requeued = buy(1, ENTRY);
+		long priorityTime = requeued.getPriorityTime();
+
+		requeued.losePriority();
+		orderBook.enqueue(requeued);
+		Order next = buy(2, ENTRY);
+		orderBook.enqueue(next);
+
+		assertThat(requeued.getPriorityTime()).isEqualTo(priorityTime);
+		assertThat(orderBook.getBuyQueue()).containsExactly(requeued, next);
+	}
+}
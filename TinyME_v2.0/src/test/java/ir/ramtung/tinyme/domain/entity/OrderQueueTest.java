@@ -0,0 +1,109 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrderQueueTest {
+
+	private static final LocalDateTime OPEN = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+	private Security security;
+	private Broker broker;
+	private Shareholder shareholder;
+	private OrderQueue queue;
+
+	@BeforeEach
+	void setup() {
+		security = Security.builder().build();
+		broker = Broker.builder().build();
+		shareholder = Shareholder.builder().build();
+		queue = OrderQueue.createBuyQueue();
+	}
+
+	private Order buy(long orderId, int quantity, int price) {
+		return new Order(orderId, security, Side.BUY, quantity, price, broker, shareholder, OPEN.plusSeconds(orderId));
+	}
+
+	@Test
+	void removing_from_the_middle_of_a_level_keeps_the_rest_in_time_order() {
+		Order first = buy(1, 100, 15000);
+		Order middle = buy(2, 200, 15000);
+		Order last = buy(3, 300, 15000);
+		queue.insert(first);
+		PriceLevel.Node middleNode = queue.insert(middle);
+		queue.insert(last);
+
+		queue.remove(middleNode);
+
+		PriceLevel level = queue.findLevel(15000);
+		assertThat(level).containsExactly(first, last);
+		assertThat(level.getSize()).isEqualTo(2);
+		assertThat(level.getTotalQuantity()).isEqualTo(400);
+		assertThat(level.getFirst()).isSameAs(first);
+		assertThat(level.getLast()).isSameAs(last);
+		assertThat(queue).containsExactly(first, last);
+		assertThat(queue.get(1)).isSameAs(last);
+	}
+
+	@Test
+	void a_level_stays_linked_after_its_head_and_tail_are_removed() {
+		PriceLevel.Node head = queue.insert(buy(1, 100, 15000));
+		Order middle = buy(2, 200, 15000);
+		queue.insert(middle);
+		PriceLevel.Node tail = queue.insert(buy(3, 300, 15000));
+
+		queue.remove(head);
+		queue.remove(tail);
+
+		PriceLevel level = queue.findLevel(15000);
+		assertThat(level).containsExactly(middle);
+		assertThat(level.getFirst()).isSameAs(middle);
+		assertThat(level.getLast()).isSameAs(middle);
+
+		Order later = buy(4, 400, 15000);
+		queue.insert(later);
+		assertThat(level).containsExactly(middle, later);
+	}
+
+	@Test
+	void removing_the_last_order_of_a_level_drops_the_level() {
+		Order better = buy(1, 100, 15100);
+		PriceLevel.Node only = queue.insert(buy(2, 200, 15000));
+		Order worse = buy(3, 300, 14900);
+		queue.insert(better);
+		queue.insert(worse);
+
+		queue.remove(only);
+
+		assertThat(queue.findLevel(15000)).isNull();
+		assertThat(queue.levelCount()).isEqualTo(2);
+		assertThat(queue.levels()).extracting(PriceLevel::getPrice).containsExactly(15100, 14900);
+		assertThat(queue).containsExactly(better, worse);
+		assertThat(queue.size()).isEqualTo(2);
+	}
+
+	@Test
+	void an_emptied_level_is_recreated_fresh_on_the_next_insert() {
+		PriceLevel.Node node = queue.insert(buy(1, 100, 15000));
+		PriceLevel emptied = node.getLevel();
+		queue.remove(node);
+
+		assertThat(emptied.isEmpty()).isTrue();
+		assertThat(emptied.getTotalQuantity()).isZero();
+		assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(emptied::getFirst);
+		assertThat(queue.isEmpty()).isTrue();
+		assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(queue::getFirst);
+
+		Order next = buy(2, 250, 15000);
+		queue.insert(next);
+
+		PriceLevel level = queue.findLevel(15000);
+		assertThat(level).isNotSameAs(emptied).containsExactly(next);
+		assertThat(level.getTotalQuantity()).isEqualTo(250);
+	}
+}
@@ -13,7 +13,6 @@ import ir.ramtung.tinyme.domain.exception.NotFoundException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,10 +44,10 @@ public class SecurityTest {
 		private Integer exceptedSellerPosition;
 		private Integer exceptedBuyerPosition;
 		private Integer exceptedLastTradePrice;
-		private LinkedList<Order> sellQueue;
-		private LinkedList<Order> buyQueue;
-		private LinkedList<Order> sellStopLimitQueue;
-		private LinkedList<Order> buyStopLimitQueue;
+		private List<Order> sellQueue;
+		private List<Order> buyQueue;
+		private List<Order> sellStopLimitQueue;
+		private List<Order> buyStopLimitQueue;
 
 		private AssertingPack() {
 			exceptedSellerCredit = SecurityTest.this.sellerBroker.getCredit();
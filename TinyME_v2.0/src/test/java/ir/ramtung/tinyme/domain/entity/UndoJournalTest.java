@@ -0,0 +1,142 @@
+package ir.ramtung.tinyme.domain.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UndoJournalTest {
+
+	private Security security;
+	private Broker broker;
+	private Shareholder shareholder;
+	private UndoJournal journal;
+
+	@BeforeEach
+	void setup() {
+		security = Security.builder().build();
+		broker = Broker.builder().build();
+		shareholder = Shareholder.builder().build();
+		journal = new UndoJournal();
+	}
+
+	private Order order(long orderId, Side side, int quantity) {
+		return new Order(orderId, security, side, quantity, 15000, broker, shareholder);
+	}
+
+	@Test
+	void entries_are_restored_last_in_first_out() {
+		Order buy = order(1, Side.BUY, 500);
+		Order firstSell = order(2, Side.SELL, 100);
+		Order secondSell = order(3, Side.SELL, 200);
+
+		journal.record(buy);
+		journal.record(firstSell);
+		buy.decreaseQuantity(100);
+		firstSell.decreaseQuantity(100);
+		journal.record(buy);
+		journal.record(secondSell);
+		buy.decreaseQuantity(200);
+		secondSell.decreaseQuantity(200);
+
+		assertThat(journal.peekOrder()).isSameAs(secondSell);
+		journal.restoreLast();
+		assertThat(secondSell.getQuantity()).isEqualTo(200);
+
+		assertThat(journal.peekOrder()).isSameAs(buy);
+		journal.restoreLast();
+		assertThat(buy.getQuantity()).isEqualTo(400);
+
+		assertThat(journal.peekOrder()).isSameAs(firstSell);
+		journal.restoreLast();
+		assertThat(firstSell.getQuantity()).isEqualTo(100);
+
+		assertThat(journal.peekOrder()).isSameAs(buy);
+		journal.restoreLast();
+		assertThat(buy.getQuantity()).isEqualTo(500);
+
+		assertThat(journal.peekOrder()).isNull();
+	}
+
+	@Test
+	void restore_brings_back_the_priority_held_when_recorded() {
+		Order order = order(1, Side.BUY, 500);
+		long priorityTime = order.getPriorityTime();
+		long prioritySequence = order.getPrioritySequence();
+
+		journal.record(order);
+		order.resetPriority(LocalDateTime.of(2030, 1, 1, 0, 0));
+		journal.restoreLast();
+
+		assertThat(order.getPriorityTime()).isEqualTo(priorityTime);
+		assertThat(order.getPrioritySequence()).isEqualTo(prioritySequence);
+	}
+
+	@Test
+	void restore_brings_back_the_status_held_when_recorded() {
+		OrderBook orderBook = security.getOrderBook();
+		Order order = order(1, Side.SELL, 100);
+		orderBook.enqueue(order);
+
+		journal.record(order);
+		order.decreaseQuantity(100);
+		assertThat(order.isDone()).isTrue();
+		journal.restoreLast();
+
+		assertThat(order.isQueued()).isTrue();
+		assertThat(order.getQuantity()).isEqualTo(100);
+	}
+
+	@Test
+	void restore_brings_back_the_displayed_quantity_of_an_iceberg_instead_of_a_full_peak() {
+		OrderBook orderBook = security.getOrderBook();
+		IcebergOrder iceberg = new IcebergOrder(1, security, Side.SELL, 500, 15000, broker, shareholder, 100);
+		orderBook.enqueue(iceberg);
+		iceberg.decreaseQuantity(70);
+
+		journal.record(iceberg);
+		iceberg.decreaseQuantity(30);
+		iceberg.replenish();
+		assertThat(iceberg.getDisplayedQuantity()).isEqualTo(100);
+		journal.restoreLast();
+
+		assertThat(iceberg.getTotalQuantity()).isEqualTo(430);
+		assertThat(iceberg.getDisplayedQuantity()).isEqualTo(30);
+		assertThat(iceberg.getQuantity()).isEqualTo(30);
+	}
+
+	@Test
+	void entries_past_the_initial_capacity_are_restored_in_order() {
+		List<Order> orders = new ArrayList<>();
+		for (long orderId = 1; orderId <= 100; orderId++) {
+			Order order = order(orderId, Side.SELL, 1_000);
+			journal.record(order);
+			order.decreaseQuantity((int) orderId);
+			orders.add(order);
+		}
+
+		for (int i = orders.size() - 1; i >= 0; i--) {
+			assertThat(journal.peekOrder()).isSameAs(orders.get(i));
+			journal.restoreLast();
+			assertThat(orders.get(i).getQuantity()).isEqualTo(1_000);
+		}
+		assertThat(journal.peekOrder()).isNull();
+	}
+
+	@Test
+	void clear_forgets_every_entry() {
+		Order order = order(1, Side.BUY, 500);
+		journal.record(order);
+		journal.record(order);
+
+		journal.clear();
+
+		assertThat(journal.peekOrder()).isNull();
+		journal.record(order(2, Side.SELL, 100));
+		journal.restoreLast();
+		assertThat(journal.peekOrder()).isNull();
+	}
+}
@@ -2,17 +2,18 @@ package ir.ramtung.tinyme.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Timer;
+import java.util.Map;
 import java.time.Duration;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import ir.ramtung.tinyme.domain.entity.Broker;
@@ -48,8 +49,35 @@ public class expiryDateTest {
     AssertingPack assertPack;
     ScenarioGenerator scenarioGenerator;
 
-    @Mock
-    Timer mockedTimer;
+    MutableClock clock;
+    ExpiringService expiringService;
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
 
     private class AssertingPack {
 
@@ -58,10 +86,10 @@ public class expiryDateTest {
 		private Integer exceptedSellerPosition;
 		private Integer exceptedBuyerPosition;
 		private Integer exceptedLastTradePrice;
-		private LinkedList<Order> sellQueue;
-		private LinkedList<Order> buyQueue;
-		private LinkedList<Order> sellStopLimitQueue;
-		private LinkedList<Order> buyStopLimitQueue;
+		private List<Order> sellQueue;
+		private List<Order> buyQueue;
+		private List<Order> sellStopLimitQueue;
+		private List<Order> buyStopLimitQueue;
 
 		private AssertingPack() {
 			exceptedSellerCredit = expiryDateTest.this.sellerBroker.getCredit();
@@ -223,10 +251,15 @@ public class expiryDateTest {
 		}
 
         private long getOrderDelayByIndex(int index) {
-            LocalDateTime startTime = orders.get(index).getEntryTimes().get(0);
+            LocalDateTime startTime = orders.get(index).getEntryTime();
             LocalDateTime expireTime = orders.get(index).getExpiryDate();        
             return Duration.between(startTime, expireTime).toSeconds() * 1000;
         }
+
+        private void assertExpiryScheduled(Side side, long orderId, int index) {
+            Instant deadline = clock.instant().plusMillis(getOrderDelayByIndex(index));
+            assertThat(expiringService.getExpiryDeadline(security, side, orderId)).isEqualTo(deadline);
+        }
 	}
 
     private class ScenarioGenerator {
@@ -263,7 +296,9 @@ public class expiryDateTest {
 
     @BeforeEach
 	void setup() {
-		security = Security.builder().lastTradePrice(550).expiringService(new ExpiringService(mockedTimer)).build();
+		clock = new MutableClock(Instant.parse("2024-01-01T09:00:00Z"));
+		expiringService = new ExpiringService(clock, Duration.ofMillis(1));
+		security = Security.builder().lastTradePrice(550).expiringService(expiringService).build();
 		sellerBroker = Broker.builder().credit(0).build();
 		buyerBroker = Broker.builder().credit(32_500).build();
 		sellerShareholder = Shareholder.builder().build();
@@ -291,38 +326,32 @@ public class expiryDateTest {
 
     @Test
     public void buy_limit_order_expire_scheduling_check() {
-        long delay = assertPack.getOrderDelayByIndex(0);
-        Mockito.verify(mockedTimer).schedule(new ScheduleexpiryDate(security, Side.BUY, 1), delay);
+        assertPack.assertExpiryScheduled(Side.BUY, 1, 0);
     }
     
     @Test
     public void buy_stop_limit_order_expire_scheduling_check() {    
-        long delay = assertPack.getOrderDelayByIndex(2);
-        Mockito.verify(mockedTimer).schedule(new ScheduleexpiryDate(security, Side.BUY, 3), delay);
+        assertPack.assertExpiryScheduled(Side.BUY, 3, 2);
     }
     
     @Test
     public void buy_iceberg_order_expire_scheduling_check() {
-        long delay = assertPack.getOrderDelayByIndex(4);
-        Mockito.verify(mockedTimer).schedule(new ScheduleexpiryDate(security, Side.BUY, 5), delay);
+        assertPack.assertExpiryScheduled(Side.BUY, 5, 4);
     }
     
     @Test
     public void sell_limit_order_expire_scheduling_check() {
-        long delay = assertPack.getOrderDelayByIndex(5);
-        Mockito.verify(mockedTimer).schedule(new ScheduleexpiryDate(security, Side.SELL, 1), delay);
+        assertPack.assertExpiryScheduled(Side.SELL, 1, 5);
     }
     
     @Test
     public void sell_stop_limit_order_expire_scheduling_check() {
-        long delay = assertPack.getOrderDelayByIndex(7);
-        Mockito.verify(mockedTimer).schedule(new ScheduleexpiryDate(security, Side.SELL, 3), delay);
+        assertPack.assertExpiryScheduled(Side.SELL, 3, 7);
     }
     
     @Test
     public void sell_iceberg_order_expire_scheduling_check() {
-        long delay = assertPack.getOrderDelayByIndex(9);
-        Mockito.verify(mockedTimer).schedule(new ScheduleexpiryDate(security, Side.BUY, 5), delay);
+        assertPack.assertExpiryScheduled(Side.SELL, 5, 9);
     }
     
     @Test
@@ -559,4 +588,44 @@ public class expiryDateTest {
         assertPack.assertOrderInQueue(Side.BUY, 3, 1, 10, 100);
         assertThat(orderBook.getBuyQueue().size()).isEqualTo(4);
     }
+
+    @Test
+    public void orders_without_expiry_date_are_not_scheduled() {
+        assertThat(expiringService.isScheduled(security, Side.BUY, 2)).isFalse();
+        assertThat(expiringService.isScheduled(security, Side.SELL, 4)).isFalse();
+    }
+
+    @Test
+    public void deleting_order_cancels_its_expiry() {
+        security.deleteOrder(Side.BUY, 1);
+        assertThat(expiringService.isScheduled(security, Side.BUY, 1)).isFalse();
+        assertThat(expiringService.isScheduled(security, Side.SELL, 1)).isTrue();
+    }
+
+    @Test
+    public void collecting_due_expirations_before_deadline_returns_nothing() {
+        clock.advance(Duration.ofMillis(999));
+        assertThat(expiringService.collectDue()).isEmpty();
+    }
+
+    @Test
+    public void collecting_due_expirations_batches_them_per_security() {
+        clock.advance(Duration.ofSeconds(1));
+        Map<Security, List<ScheduleexpiryDate>> due = expiringService.collectDue();
+        assertThat(due.keySet()).containsExactly(security);
+        assertThat(due.get(security)).containsExactly(
+            new ScheduleexpiryDate(security, Side.BUY, 1),
+            new ScheduleexpiryDate(security, Side.SELL, 1)
+        );
+        assertThat(expiringService.isScheduled(security, Side.BUY, 1)).isFalse();
+        assertThat(expiringService.isScheduled(security, Side.BUY, 3)).isTrue();
+    }
+
+    @Test
+    public void collecting_due_expirations_far_in_the_future_cascades_through_wheel() {
+        clock.advance(Duration.ofDays(4));
+        List<ScheduleexpiryDate> due = expiringService.collectDue().get(security);
+        assertThat(due.size()).isEqualTo(6);
+        assertThat(expiringService.isScheduled(security, Side.SELL, 5)).isFalse();
+    }
 }
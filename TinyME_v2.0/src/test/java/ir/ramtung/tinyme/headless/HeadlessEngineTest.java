@@ -0,0 +1,100 @@
+package ir.ramtung.tinyme.headless;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.repository.BrokerRepository;
+import ir.ramtung.tinyme.repository.RequestJournal;
+import ir.ramtung.tinyme.repository.SecurityRepository;
+import ir.ramtung.tinyme.repository.ShareholderRepository;
+import ir.ramtung.tinyme.repository.SnapshotService;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HeadlessEngineTest {
+
+	@TempDir
+	Path directory;
+
+	private Path snapshot;
+	private Path journal;
+
+	@BeforeEach
+	void setup() throws Exception {
+		SecurityRepository securityRepository = new SecurityRepository();
+		BrokerRepository brokerRepository = new BrokerRepository();
+		ShareholderRepository shareholderRepository = new ShareholderRepository();
+		Security security = Security.builder().isin("ABC").build();
+		Shareholder shareholder = Shareholder.builder().shareholderId(1).name("holder").build();
+		shareholder.incPosition(security, 100_000);
+		securityRepository.addSecurity(security);
+		brokerRepository.addBroker(Broker.builder().brokerId(1).name("broker").credit(100_000_000L).build());
+		shareholderRepository.addShareholder(shareholder);
+
+		snapshot = directory.resolve("tinyme.snapshot");
+		SnapshotService snapshotService = new SnapshotService(
+			brokerRepository,
+			shareholderRepository,
+			securityRepository,
+			null,
+			new RequestJournal(false, directory.resolve("unused.journal").toString(), 4096, 1),
+			null,
+			true,
+			snapshot.toString(),
+			300
+		);
+		snapshotService.takeSnapshotNow();
+		snapshotService.shutdown();
+
+		journal = directory.resolve("requests.journal");
+		RequestJournal recorder = new RequestJournal(true, journal.toString(), 4096, 1);
+		recorder.open();
+		LocalDateTime entryTime = LocalDateTime.of(2024, 3, 1, 9, 0);
+		recorder.append(EnterOrderRq.createNewOrderRq(1, "ABC", 10, entryTime, Side.BUY, 300, 15400, 1, 1, 0, 0));
+		recorder.append(EnterOrderRq.createNewOrderRq(2, "ABC", 11, entryTime, Side.SELL, 100, 15400, 1, 1, 0, 0));
+		recorder.append(new DeleteOrderRq(3, "ABC", Side.BUY, 10));
+		recorder.close();
+	}
+
+	private List<BaseRq> recorded() throws Exception {
+		List<BaseRq> requests = new ArrayList<>();
+		RequestJournal.read(journal, 0, requests::add);
+		return requests;
+	}
+
+	@Test
+	void replay_publishes_every_event_of_the_recorded_flow() throws Exception {
+		StringWriter output = new StringWriter();
+		RecordingEventPublisher eventPublisher = new RecordingEventPublisher(output);
+		HeadlessEngine engine = new HeadlessEngine(snapshot, eventPublisher);
+
+		long[] latencies = engine.run(recorded());
+
+		assertThat(latencies).hasSize(3);
+		assertThat(output.toString())
+			.contains("OrderAcceptedEvent", "OrderExecutedEvent", "OrderDeletedEvent", "BestBidOfferChangedEvent");
+		assertThat(eventPublisher.getPublished()).isEqualTo(7);
+	}
+
+	@Test
+	void replays_of_the_same_input_have_the_same_fingerprint() throws Exception {
+		RecordingEventPublisher first = new RecordingEventPublisher(null);
+		new HeadlessEngine(snapshot, first).run(recorded());
+		RecordingEventPublisher second = new RecordingEventPublisher(null);
+		new HeadlessEngine(snapshot, second).run(recorded());
+
+		assertThat(first.fingerprint()).isEqualTo(second.fingerprint());
+	}
+}
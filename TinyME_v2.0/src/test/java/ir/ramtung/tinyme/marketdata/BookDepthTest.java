@@ -0,0 +1,83 @@
+package ir.ramtung.tinyme.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.DepthLevelDTO;
+import ir.ramtung.tinyme.messaging.event.DepthSnapshotEvent;
+import ir.ramtung.tinyme.messaging.event.DepthUpdateEvent;
+import ir.ramtung.tinyme.messaging.event.Event;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookDepthTest {
+
+	private static final long SNAPSHOT_INTERVAL = 1_000;
+
+	private BookDepth depth;
+	private List<Event> events;
+
+	@BeforeEach
+	void setup() {
+		depth = new BookDepth("ABC");
+		depth.reset();
+		depth.apply(Side.BUY, 15400, 300, 2);
+		depth.apply(Side.SELL, 15500, 100, 1);
+		events = new ArrayList<>();
+		depth.flush(0, SNAPSHOT_INTERVAL, events);
+	}
+
+	private List<Event> flush(long now) {
+		List<Event> flushed = new ArrayList<>();
+		depth.flush(now, SNAPSHOT_INTERVAL, flushed);
+		return flushed;
+	}
+
+	@Test
+	void a_reset_is_published_as_a_snapshot() {
+		assertThat(events).containsExactly(
+			new DepthSnapshotEvent(
+				"ABC",
+				1,
+				List.of(new DepthLevelDTO(Side.BUY, 15400, 300, 2), new DepthLevelDTO(Side.SELL, 15500, 100, 1))
+			)
+		);
+	}
+
+	@Test
+	void changes_within_a_window_are_merged_into_one_update() {
+		depth.apply(Side.BUY, 15400, 200, 1);
+		depth.apply(Side.BUY, 15400, 150, 1);
+		depth.apply(Side.SELL, 15500, 0, 0);
+
+		assertThat(flush(10)).containsExactly(
+			new DepthUpdateEvent(
+				"ABC",
+				2,
+				List.of(new DepthLevelDTO(Side.BUY, 15400, 150, 1), new DepthLevelDTO(Side.SELL, 15500, 0, 0))
+			)
+		);
+	}
+
+	@Test
+	void a_level_changed_back_within_a_window_is_not_published() {
+		depth.apply(Side.BUY, 15300, 50, 1);
+		depth.apply(Side.BUY, 15300, 0, 0);
+
+		assertThat(flush(10)).isEmpty();
+		depth.apply(Side.SELL, 15600, 50, 1);
+		assertThat(flush(20)).extracting(event -> ((DepthUpdateEvent) event).getSequence()).containsExactly(2L);
+	}
+
+	@Test
+	void snapshots_are_repeated_with_the_last_sequence() {
+		depth.apply(Side.SELL, 15500, 0, 0);
+		flush(10);
+
+		assertThat(flush(SNAPSHOT_INTERVAL)).containsExactly(
+			new DepthSnapshotEvent("ABC", 2, List.of(new DepthLevelDTO(Side.BUY, 15400, 300, 2)))
+		);
+	}
+}
@@ -0,0 +1,87 @@
+package ir.ramtung.tinyme.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ir.ramtung.tinyme.messaging.event.OrderAcceptedEvent;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class EventPublisherRetryTest {
+
+	private ConnectionFactory connectionFactory;
+	private Connection connection;
+	private Session session;
+	private MessageProducer producer;
+	private MessageConverter converter;
+	private EventPublisher eventPublisher;
+
+	@BeforeEach
+	void setup() throws JMSException {
+		producer = mock(MessageProducer.class);
+		session = mock(Session.class);
+		when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+		when(session.createProducer(any())).thenReturn(producer);
+		connection = mock(Connection.class);
+		when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+		connectionFactory = mock(ConnectionFactory.class);
+		converter = mock(MessageConverter.class);
+		when(converter.toMessage(any(), any())).thenReturn(mock(Message.class));
+
+		JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
+		jmsTemplate.setMessageConverter(converter);
+		eventPublisher = new EventPublisher(jmsTemplate);
+		ReflectionTestUtils.setField(eventPublisher, "responseQueue", "responses");
+		ReflectionTestUtils.setField(eventPublisher, "maxBatch", 256);
+		ReflectionTestUtils.setField(eventPublisher, "maxDelayMicros", 500L);
+		ReflectionTestUtils.setField(eventPublisher, "ringSize", 1024);
+		ReflectionTestUtils.setField(eventPublisher, "waitStrategy", PublishWaitStrategy.BLOCKING);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		eventPublisher.stop();
+	}
+
+	@Test
+	void a_batch_that_fails_to_send_is_kept_and_sent_once_the_broker_is_back() throws JMSException {
+		when(connectionFactory.createConnection())
+			.thenThrow(new JMSException("broker down"))
+			.thenThrow(new JMSException("broker down"))
+			.thenReturn(connection);
+		eventPublisher.start();
+
+		for (long orderId = 1; orderId <= 3; orderId++) {
+			eventPublisher.publish(new OrderAcceptedEvent(1, orderId));
+		}
+
+		verify(session, timeout(5_000)).commit();
+		verify(connectionFactory, atLeast(3)).createConnection();
+		ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+		verify(converter, times(3)).toMessage(sent.capture(), any());
+		assertThat(sent.getAllValues())
+			.isEqualTo(List.of(new OrderAcceptedEvent(1, 1), new OrderAcceptedEvent(1, 2), new OrderAcceptedEvent(1, 3)));
+	}
+}
@@ -2,6 +2,7 @@ package ir.ramtung.tinyme.messaging;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import ir.ramtung.tinyme.messaging.event.OrderAcceptedEvent;
 import ir.ramtung.tinyme.messaging.event.OrderExecutedEvent;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -52,4 +53,47 @@ public class EventPublisherTest {
 
 		jmsTemplate.setReceiveTimeout(receiveTimeout);
 	}
+
+	@Test
+	@Disabled("Needs Artemis running to work.")
+	void batched_events_arrive_in_publish_order() {
+		for (long orderId = 1; orderId <= 300; orderId++) {
+			eventPublisher.publish(new OrderAcceptedEvent(1, orderId));
+		}
+
+		long receiveTimeout = jmsTemplate.getReceiveTimeout();
+		jmsTemplate.setReceiveTimeout(1000);
+		for (long orderId = 1; orderId <= 300; orderId++) {
+			assertEquals(new OrderAcceptedEvent(1, orderId), jmsTemplate.receiveAndConvert(responseQueue));
+		}
+
+		jmsTemplate.setReceiveTimeout(receiveTimeout);
+	}
+
+	@Test
+	@Disabled("Needs Artemis running to work.")
+	void events_from_different_threads_keep_their_own_order() throws InterruptedException {
+		Thread first = Thread.ofPlatform().start(() -> publishAccepted(1));
+		Thread second = Thread.ofPlatform().start(() -> publishAccepted(2));
+		first.join();
+		second.join();
+
+		long receiveTimeout = jmsTemplate.getReceiveTimeout();
+		jmsTemplate.setReceiveTimeout(1000);
+		long[] lastOrderId = new long[3];
+		for (int i = 0; i < 600; i++) {
+			OrderAcceptedEvent event = (OrderAcceptedEvent) jmsTemplate.receiveAndConvert(responseQueue);
+			int requestId = (int) event.getRequestId();
+			assertEquals(lastOrderId[requestId] + 1, event.getOrderId());
+			lastOrderId[requestId] = event.getOrderId();
+		}
+
+		jmsTemplate.setReceiveTimeout(receiveTimeout);
+	}
+
+	private void publishAccepted(long requestId) {
+		for (long orderId = 1; orderId <= 300; orderId++) {
+			eventPublisher.publish(new OrderAcceptedEvent(requestId, orderId));
+		}
+	}
 }
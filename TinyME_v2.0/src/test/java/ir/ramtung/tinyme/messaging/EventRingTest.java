@@ -0,0 +1,151 @@
+package ir.ramtung.tinyme.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import ir.ramtung.tinyme.messaging.event.Event;
+import ir.ramtung.tinyme.messaging.event.OrderAcceptedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EventRingTest {
+
+	private static OrderAcceptedEvent accepted(long orderId) {
+		return new OrderAcceptedEvent(1, orderId);
+	}
+
+	@Test
+	void capacity_must_be_a_power_of_two() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new EventRing(6));
+		assertThatIllegalArgumentException().isThrownBy(() -> new EventRing(0));
+	}
+
+	@Test
+	void a_full_ring_refuses_offers_until_drained() {
+		EventRing ring = new EventRing(4);
+		for (long orderId = 1; orderId <= 4; orderId++) {
+			assertThat(ring.offer(accepted(orderId))).isTrue();
+		}
+
+		assertThat(ring.offer(accepted(5))).isFalse();
+
+		List<Event> drained = new ArrayList<>();
+		assertThat(ring.drainTo(drained, 1)).isEqualTo(1);
+		assertThat(ring.offer(accepted(5))).isTrue();
+		assertThat(ring.offer(accepted(6))).isFalse();
+		ring.drainTo(drained, Integer.MAX_VALUE);
+		assertThat(drained).containsExactly(accepted(1), accepted(2), accepted(3), accepted(4), accepted(5));
+		assertThat(ring.isEmpty()).isTrue();
+	}
+
+	@Test
+	void events_keep_their_order_across_wrap_around() {
+		EventRing ring = new EventRing(4);
+		List<Event> drained = new ArrayList<>();
+		long next = 1;
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 3; i++) {
+				assertThat(ring.offer(accepted(next++))).isTrue();
+			}
+			assertThat(ring.drainTo(drained, Integer.MAX_VALUE)).isEqualTo(3);
+		}
+
+		assertThat(drained).hasSize(30);
+		for (int i = 0; i < drained.size(); i++) {
+			assertThat(drained.get(i)).isEqualTo(accepted(i + 1));
+		}
+	}
+
+	@Test
+	void drain_respects_the_limit() {
+		EventRing ring = new EventRing(8);
+		for (long orderId = 1; orderId <= 5; orderId++) {
+			ring.offer(accepted(orderId));
+		}
+		List<Event> drained = new ArrayList<>();
+
+		assertThat(ring.drainTo(drained, 3)).isEqualTo(3);
+		assertThat(ring.isEmpty()).isFalse();
+		assertThat(ring.drainTo(drained, 3)).isEqualTo(2);
+		assertThat(ring.drainTo(drained, 3)).isZero();
+	}
+
+	@Test
+	void a_response_becomes_visible_only_when_it_ends() {
+		EventRing ring = new EventRing(8);
+		ring.beginResponse();
+		ring.offer(accepted(1));
+		ring.offer(accepted(2));
+
+		assertThat(ring.isEmpty()).isTrue();
+		assertThat(ring.drainTo(new ArrayList<>(), 8)).isZero();
+
+		ring.endResponse();
+		List<Event> drained = new ArrayList<>();
+		assertThat(ring.drainTo(drained, 8)).isEqualTo(2);
+		assertThat(drained).containsExactly(accepted(1), accepted(2));
+	}
+
+	@Test
+	void drain_finishes_the_response_it_stopped_in() {
+		EventRing ring = new EventRing(8);
+		ring.offer(accepted(1));
+		ring.beginResponse();
+		ring.offer(accepted(2));
+		ring.offer(accepted(3));
+		ring.offer(accepted(4));
+		ring.endResponse();
+		ring.offer(accepted(5));
+		List<Event> drained = new ArrayList<>();
+
+		assertThat(ring.drainTo(drained, 2)).isEqualTo(4);
+		assertThat(ring.drainTo(drained, 2)).isEqualTo(1);
+		assertThat(drained).containsExactly(accepted(1), accepted(2), accepted(3), accepted(4), accepted(5));
+	}
+
+	@Test
+	void a_response_larger_than_the_free_space_is_released_in_parts() {
+		EventRing ring = new EventRing(4);
+		List<Event> drained = new ArrayList<>();
+		ring.beginResponse();
+		for (long orderId = 1; orderId <= 4; orderId++) {
+			ring.offer(accepted(orderId));
+		}
+
+		assertThat(ring.offer(accepted(5))).isFalse();
+		assertThat(ring.drainTo(drained, 1)).isEqualTo(4);
+		assertThat(ring.offer(accepted(5))).isTrue();
+		ring.endResponse();
+		ring.drainTo(drained, 1);
+
+		assertThat(drained).containsExactly(accepted(1), accepted(2), accepted(3), accepted(4), accepted(5));
+	}
+
+	@Test
+	void a_single_producer_and_consumer_see_every_event_in_order() throws InterruptedException {
+		int events = 20_000;
+		EventRing ring = new EventRing(64);
+		Thread producer = Thread.ofPlatform().start(() -> {
+			for (long orderId = 1; orderId <= events; orderId++) {
+				while (!ring.offer(accepted(orderId))) {
+					Thread.yield();
+				}
+			}
+		});
+
+		List<Event> drained = new ArrayList<>(events);
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (drained.size() < events && System.nanoTime() < deadline) {
+			if (ring.drainTo(drained, 16) == 0) {
+				Thread.yield();
+			}
+		}
+		producer.join(1_000);
+
+		assertThat(drained).hasSize(events);
+		for (int i = 0; i < events; i++) {
+			assertThat(((OrderAcceptedEvent) drained.get(i)).getOrderId()).isEqualTo(i + 1);
+		}
+	}
+}
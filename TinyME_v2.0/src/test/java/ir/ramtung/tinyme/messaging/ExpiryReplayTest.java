@@ -0,0 +1,211 @@
+package ir.ramtung.tinyme.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.service.ApplicationServices;
+import ir.ramtung.tinyme.domain.service.ExpiringService;
+import ir.ramtung.tinyme.domain.service.OrderHandler;
+import ir.ramtung.tinyme.domain.service.ShardedOrderEngine;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import ir.ramtung.tinyme.messaging.event.OrderDeletedEvent;
+import ir.ramtung.tinyme.messaging.event.OrderRejectedEvent;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.messaging.request.ExpireOrderRq;
+import ir.ramtung.tinyme.metrics.TraceCollector;
+import ir.ramtung.tinyme.repository.BrokerRepository;
+import ir.ramtung.tinyme.repository.RequestJournal;
+import ir.ramtung.tinyme.repository.SecurityRepository;
+import ir.ramtung.tinyme.repository.ShareholderRepository;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExpiryReplayTest {
+
+	private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+	@TempDir
+	Path directory;
+
+	private MutableClock clock;
+	private Market live;
+	private RequestJournal journal;
+	private ShardedOrderEngine orderEngine;
+	private RequestDispatcher dispatcher;
+
+	private static class MutableClock extends Clock {
+
+		private Instant instant;
+
+		private MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		private void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+
+	private static class Market {
+
+		final Security security;
+		final Broker sellerBroker;
+		final Broker buyerBroker;
+		final Shareholder shareholder;
+		final EventPublisher eventPublisher;
+		final OrderHandler orderHandler;
+
+		Market(ExpiringService expiringService) {
+			SecurityRepository securityRepository = new SecurityRepository();
+			BrokerRepository brokerRepository = new BrokerRepository();
+			ShareholderRepository shareholderRepository = new ShareholderRepository();
+			security = Security.builder().isin("ABC").expiringService(expiringService).build();
+			sellerBroker = Broker.builder().brokerId(1).name("seller").credit(0).build();
+			buyerBroker = Broker.builder().brokerId(2).name("buyer").credit(10_000_000L).build();
+			shareholder = Shareholder.builder().shareholderId(1).name("holder").build();
+			shareholder.incPosition(security, 100_000);
+			securityRepository.addSecurity(security);
+			brokerRepository.addBroker(sellerBroker);
+			brokerRepository.addBroker(buyerBroker);
+			shareholderRepository.addShareholder(shareholder);
+			eventPublisher = mock(EventPublisher.class);
+			orderHandler = new OrderHandler(
+				new ApplicationServices(securityRepository, brokerRepository, shareholderRepository),
+				eventPublisher
+			);
+		}
+	}
+
+	@BeforeEach
+	void setup() throws Exception {
+		clock = new MutableClock(Instant.parse("2024-03-01T09:00:00Z"));
+		ExpiringService expiringService = new ExpiringService(clock, Duration.ofMillis(100));
+		live = new Market(expiringService);
+		journal = new RequestJournal(true, directory.resolve("requests.journal").toString(), 4096, 1);
+		journal.open();
+		orderEngine = new ShardedOrderEngine(live.orderHandler, 1, 1024);
+		dispatcher = new RequestDispatcher(orderEngine, expiringService, null, null, journal, null, TraceCollector.disabled());
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		orderEngine.shutdown();
+	}
+
+	private void receive(BaseRq rq) throws InterruptedException {
+		journal.append(rq);
+		journal.commit();
+		orderEngine.submit(rq);
+		orderEngine.quiesce(() -> {});
+	}
+
+	private Market crashAndRecover() throws Exception {
+		journal.close();
+		Market recovered = new Market(new ExpiringService(clock, Duration.ofMillis(100)));
+		RequestJournal reopened = new RequestJournal(true, directory.resolve("requests.journal").toString(), 4096, 1);
+		reopened.open();
+		reopened.replay(recovered.orderHandler::replayRq);
+		reopened.close();
+		return recovered;
+	}
+
+	@Test
+	void replay_after_a_crash_expires_the_same_orders_before_the_same_requests() throws Exception {
+		EnterOrderRq sell = EnterOrderRq.createNewOrderRq(1, "ABC", 10, ENTRY_TIME, Side.SELL, 100, 15400, 1, 1, 0, 0);
+		sell.setExpiryDate(ENTRY_TIME.plusSeconds(1));
+		receive(sell);
+		clock.advance(Duration.ofSeconds(2));
+		dispatcher.sweepExpirations();
+		orderEngine.quiesce(() -> {});
+		receive(EnterOrderRq.createNewOrderRq(2, "ABC", 20, ENTRY_TIME.plusSeconds(2), Side.BUY, 100, 15400, 2, 1, 0, 0));
+
+		assertThat(live.security.isThereOrderWithId(Side.SELL, 10)).isFalse();
+		assertThat(live.security.isThereOrderWithId(Side.BUY, 20)).isTrue();
+
+		Market recovered = crashAndRecover();
+
+		assertThat(recovered.security.isThereOrderWithId(Side.SELL, 10)).isFalse();
+		assertThat(recovered.security.isThereOrderWithId(Side.BUY, 20)).isTrue();
+		assertThat(recovered.sellerBroker.getCredit()).isEqualTo(live.sellerBroker.getCredit()).isZero();
+		assertThat(recovered.buyerBroker.getCredit()).isEqualTo(live.buyerBroker.getCredit());
+		assertThat(recovered.shareholder.getPositionBySecurity(recovered.security))
+			.isEqualTo(live.shareholder.getPositionBySecurity(live.security));
+	}
+
+	@Test
+	void expirations_are_journaled_between_the_requests_they_fell_due_after() throws Exception {
+		EnterOrderRq sell = EnterOrderRq.createNewOrderRq(1, "ABC", 10, ENTRY_TIME, Side.SELL, 100, 15400, 1, 1, 0, 0);
+		sell.setExpiryDate(ENTRY_TIME.plusSeconds(1));
+		receive(sell);
+		dispatcher.sweepExpirations();
+		clock.advance(Duration.ofSeconds(2));
+		dispatcher.sweepExpirations();
+		orderEngine.quiesce(() -> {});
+		receive(new DeleteOrderRq(2, "ABC", Side.SELL, 10));
+		journal.close();
+
+		List<BaseRq> replayed = new ArrayList<>();
+		RequestJournal reopened = new RequestJournal(true, directory.resolve("requests.journal").toString(), 4096, 1);
+		reopened.open();
+		reopened.replay(replayed::add);
+		reopened.close();
+
+		assertThat(replayed).hasSize(3);
+		assertThat(replayed.get(1)).isInstanceOfSatisfying(
+			ExpireOrderRq.class,
+			expiry -> {
+				assertThat(expiry.getOrderId()).isEqualTo(10);
+				assertThat(expiry.getSide()).isEqualTo(Side.SELL);
+			}
+		);
+		assertThat(replayed.get(2)).isExactlyInstanceOf(DeleteOrderRq.class);
+	}
+
+	@Test
+	void a_client_delete_with_request_id_zero_is_an_ordinary_delete() throws Exception {
+		receive(EnterOrderRq.createNewOrderRq(1, "ABC", 10, ENTRY_TIME, Side.SELL, 100, 15400, 1, 1, 0, 0));
+		receive(new DeleteOrderRq(0, "ABC", Side.SELL, 10));
+		receive(new DeleteOrderRq(0, "ABC", Side.SELL, 10));
+
+		assertThat(live.security.isThereOrderWithId(Side.SELL, 10)).isFalse();
+		verify(live.eventPublisher).publish(new OrderDeletedEvent(0, 10));
+		verify(live.eventPublisher).publish(any(OrderRejectedEvent.class));
+
+		Market recovered = crashAndRecover();
+
+		assertThat(recovered.security.isThereOrderWithId(Side.SELL, 10)).isFalse();
+	}
+}
@@ -0,0 +1,140 @@
+package ir.ramtung.tinyme.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.service.ApplicationServices;
+import ir.ramtung.tinyme.domain.service.OrderHandler;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.repository.BrokerRepository;
+import ir.ramtung.tinyme.repository.RequestJournal;
+import ir.ramtung.tinyme.repository.SecurityRepository;
+import ir.ramtung.tinyme.repository.ShareholderRepository;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PriorityReplayTest {
+
+	private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+	@TempDir
+	Path directory;
+
+	private Market live;
+	private RequestJournal journal;
+
+	private static class Market {
+
+		final Security security;
+		final Broker sellerBroker;
+		final Broker buyerBroker;
+		final OrderHandler orderHandler;
+
+		Market() {
+			SecurityRepository securityRepository = new SecurityRepository();
+			BrokerRepository brokerRepository = new BrokerRepository();
+			ShareholderRepository shareholderRepository = new ShareholderRepository();
+			security = Security.builder().isin("ABC").build();
+			sellerBroker = Broker.builder().brokerId(1).name("seller").credit(0).build();
+			buyerBroker = Broker.builder().brokerId(2).name("buyer").credit(10_000_000L).build();
+			Shareholder shareholder = Shareholder.builder().shareholderId(1).name("holder").build();
+			shareholder.incPosition(security, 100_000);
+			securityRepository.addSecurity(security);
+			brokerRepository.addBroker(sellerBroker);
+			brokerRepository.addBroker(buyerBroker);
+			shareholderRepository.addShareholder(shareholder);
+			orderHandler = new OrderHandler(
+				new ApplicationServices(securityRepository, brokerRepository, shareholderRepository),
+				mock(EventPublisher.class)
+			);
+		}
+
+		List<Order> sellQueue() {
+			return security.getOrderBook().getSellQueue();
+		}
+	}
+
+	@BeforeEach
+	void setup() throws Exception {
+		live = new Market();
+		journal = new RequestJournal(true, directory.resolve("requests.journal").toString(), 4096, 1);
+		journal.open();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		journal.close();
+	}
+
+	private void receive(BaseRq rq) throws Exception {
+		journal.append(rq);
+		journal.commit();
+		live.orderHandler.handleRq(rq);
+	}
+
+	private Market crashAndRecover() throws Exception {
+		journal.close();
+		Market recovered = new Market();
+		RequestJournal reopened = new RequestJournal(true, directory.resolve("requests.journal").toString(), 4096, 1);
+		reopened.open();
+		reopened.replay(recovered.orderHandler::replayRq);
+		reopened.close();
+		return recovered;
+	}
+
+	private static EnterOrderRq sell(long requestId, long orderId, int seconds, int quantity, int price, int peakSize) {
+		return EnterOrderRq.createNewOrderRq(
+			requestId,
+			"ABC",
+			orderId,
+			ENTRY_TIME.plusSeconds(seconds),
+			Side.SELL,
+			quantity,
+			price,
+			1,
+			1,
+			peakSize,
+			0
+		);
+	}
+
+	@Test
+	void replay_after_a_crash_queues_replenished_and_amended_orders_in_the_same_place() throws Exception {
+		receive(sell(1, 1, 0, 300, 15400, 100));
+		receive(sell(2, 2, 1, 100, 15400, 0));
+		receive(sell(3, 3, 2, 50, 15500, 0));
+		receive(sell(4, 4, 3, 70, 15400, 0));
+		receive(EnterOrderRq.createNewOrderRq(5, "ABC", 10, ENTRY_TIME.plusSeconds(4), Side.BUY, 100, 15400, 2, 1, 0, 0));
+		receive(EnterOrderRq.createUpdateOrderRq(6, "ABC", 3, ENTRY_TIME.plusSeconds(5), Side.SELL, 50, 15400, 1, 1, 0, 0));
+
+		assertThat(live.sellQueue()).extracting(Order::getOrderId).containsExactly(2L, 4L, 1L, 3L);
+
+		Market recovered = crashAndRecover();
+
+		assertThat(recovered.sellQueue())
+			.extracting(Order::getOrderId, Order::getQuantity, Order::getPriorityTime, Order::getPrioritySequence)
+			.containsExactlyElementsOf(
+				live
+					.sellQueue()
+					.stream()
+					.map(order ->
+						tuple(order.getOrderId(), order.getQuantity(), order.getPriorityTime(), order.getPrioritySequence())
+					)
+					.toList()
+			);
+		assertThat(recovered.sellerBroker.getCredit()).isEqualTo(live.sellerBroker.getCredit());
+		assertThat(recovered.buyerBroker.getCredit()).isEqualTo(live.buyerBroker.getCredit());
+	}
+}
@@ -0,0 +1,136 @@
+package ir.ramtung.tinyme.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.service.ExpiringService;
+import ir.ramtung.tinyme.domain.service.ShardedOrderEngine;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.metrics.TraceCollector;
+import ir.ramtung.tinyme.repository.RequestJournal;
+import ir.ramtung.tinyme.repository.SnapshotService;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RequestDispatcherFailureTest {
+
+	@Test
+	void a_failed_append_abandons_the_whole_batch_for_redelivery() throws Exception {
+		Message first = mock(Message.class);
+		Message second = mock(Message.class);
+		for (Message message : List.of(first, second)) {
+			when(message.getStringProperty(MessagingConfig.TYPE_ID_PROPERTY)).thenReturn(EnterOrderRq.class.getName());
+		}
+		MessageConsumer messageConsumer = mock(MessageConsumer.class);
+		when(messageConsumer.receive(anyLong())).thenReturn(first);
+		when(messageConsumer.receiveNoWait()).thenReturn(second);
+		Session session = mock(Session.class);
+		when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+		when(session.createConsumer(any())).thenReturn(messageConsumer);
+		Connection connection = mock(Connection.class);
+		when(connection.createSession(false, Session.CLIENT_ACKNOWLEDGE)).thenReturn(session);
+		ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+		when(connectionFactory.createConnection()).thenReturn(connection);
+		EnterOrderRq firstRq = EnterOrderRq.createNewOrderRq(1, "ABC", 1, LocalDateTime.now(), Side.BUY, 10, 15450, 1, 1, 0, 0);
+		EnterOrderRq secondRq = EnterOrderRq.createNewOrderRq(2, "ABC", 2, LocalDateTime.now(), Side.BUY, 10, 15450, 1, 1, 0, 0);
+		MessageConverter messageConverter = mock(MessageConverter.class);
+		when(messageConverter.fromMessage(first)).thenReturn(firstRq);
+		when(messageConverter.fromMessage(second)).thenReturn(secondRq);
+		RequestJournal journal = mock(RequestJournal.class);
+		RequestJournal.Mark start = new RequestJournal.Mark(7, 1024);
+		when(journal.mark()).thenReturn(start);
+		doThrow(new UncheckedIOException(new IOException("disk full"))).when(journal).append(secondRq);
+		ShardedOrderEngine orderEngine = mock(ShardedOrderEngine.class);
+
+		RequestDispatcher dispatcher = new RequestDispatcher(
+			orderEngine,
+			mock(ExpiringService.class),
+			connectionFactory,
+			messageConverter,
+			journal,
+			mock(SnapshotService.class),
+			TraceCollector.disabled()
+		);
+		ReflectionTestUtils.setField(dispatcher, "requestQueue", "requests");
+		ReflectionTestUtils.setField(dispatcher, "maxBatch", 2);
+		ReflectionTestUtils.setField(dispatcher, "receiveTimeoutMillis", 10L);
+		dispatcher.start();
+
+		Thread consumer = (Thread) ReflectionTestUtils.getField(dispatcher, "consumer");
+		consumer.join(5_000);
+
+		assertThat(consumer.isAlive()).isFalse();
+		verify(journal).append(firstRq);
+		verify(journal, never()).commit();
+		verify(journal).truncate(start);
+		verify(session).recover();
+		verify(orderEngine, never()).submit(any());
+		verify(first, never()).acknowledge();
+		verify(second, never()).acknowledge();
+		assertThat((List<?>) ReflectionTestUtils.getField(dispatcher, "batch")).isEmpty();
+	}
+
+	@Test
+	void a_failed_journal_commit_stops_ingest_without_submitting_or_acknowledging() throws Exception {
+		Message message = mock(Message.class);
+		when(message.getStringProperty(MessagingConfig.TYPE_ID_PROPERTY)).thenReturn(EnterOrderRq.class.getName());
+		MessageConsumer messageConsumer = mock(MessageConsumer.class);
+		when(messageConsumer.receive(anyLong())).thenReturn(message);
+		Session session = mock(Session.class);
+		when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+		when(session.createConsumer(any())).thenReturn(messageConsumer);
+		Connection connection = mock(Connection.class);
+		when(connection.createSession(false, Session.CLIENT_ACKNOWLEDGE)).thenReturn(session);
+		ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+		when(connectionFactory.createConnection()).thenReturn(connection);
+		MessageConverter messageConverter = mock(MessageConverter.class);
+		when(messageConverter.fromMessage(message))
+			.thenReturn(EnterOrderRq.createNewOrderRq(1, "ABC", 1, LocalDateTime.now(), Side.BUY, 10, 15450, 1, 1, 0, 0));
+		RequestJournal journal = mock(RequestJournal.class);
+		doThrow(new UncheckedIOException(new IOException("disk full"))).when(journal).commit();
+		ExpiringService expiringService = mock(ExpiringService.class);
+		ShardedOrderEngine orderEngine = mock(ShardedOrderEngine.class);
+
+		RequestDispatcher dispatcher = new RequestDispatcher(
+			orderEngine,
+			expiringService,
+			connectionFactory,
+			messageConverter,
+			journal,
+			mock(SnapshotService.class),
+			TraceCollector.disabled()
+		);
+		ReflectionTestUtils.setField(dispatcher, "requestQueue", "requests");
+		ReflectionTestUtils.setField(dispatcher, "maxBatch", 1);
+		ReflectionTestUtils.setField(dispatcher, "receiveTimeoutMillis", 10L);
+		dispatcher.start();
+
+		Thread consumer = (Thread) ReflectionTestUtils.getField(dispatcher, "consumer");
+		consumer.join(5_000);
+
+		assertThat(consumer.isAlive()).isFalse();
+		verify(orderEngine, never()).submit(any());
+		verify(message, never()).acknowledge();
+		verify(connection).close();
+		assertThat((List<?>) ReflectionTestUtils.getField(dispatcher, "batch")).isEmpty();
+	}
+}
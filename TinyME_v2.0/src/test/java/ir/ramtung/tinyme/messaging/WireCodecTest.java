@@ -0,0 +1,84 @@
+package ir.ramtung.tinyme.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.codec.WireCodec;
+import ir.ramtung.tinyme.messaging.event.*;
+import ir.ramtung.tinyme.messaging.request.ChangeMatchingStateRq;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.messaging.request.ExpireOrderRq;
+import ir.ramtung.tinyme.messaging.request.MatchingState;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class WireCodecTest {
+
+	private final WireCodec codec = new WireCodec();
+
+	private Object roundTrip(Object message) {
+		ByteBuffer buffer = WireCodec.allocate(1024);
+		codec.encode(message, buffer);
+		buffer.flip();
+		return codec.decode(buffer);
+	}
+
+	@Test
+	void enter_order_request_survives_round_trip() {
+		EnterOrderRq rq = EnterOrderRq.createUpdateOrderRq(1, "ABC", 200, LocalDateTime.of(2024, 3, 1, 9, 0, 0, 123_456_789), Side.SELL, 300, 15450, 2, 3, 100, 0, 0);
+		rq.setExpiryDate(LocalDateTime.of(2024, 3, 2, 9, 0));
+
+		assertThat(roundTrip(rq)).usingRecursiveComparison().isEqualTo(rq);
+	}
+
+	@Test
+	void stop_limit_request_without_expiry_survives_round_trip() {
+		EnterOrderRq rq = EnterOrderRq.createNewOrderRq(1, "ABC", 200, LocalDateTime.now(), Side.BUY, 300, 15450, 2, 3, 0, 0, 15500);
+
+		assertThat(roundTrip(rq)).usingRecursiveComparison().isEqualTo(rq);
+	}
+
+	@Test
+	void delete_and_change_state_requests_survive_round_trip() {
+		DeleteOrderRq deleteRq = new DeleteOrderRq(1, "ABC", Side.BUY, 200);
+		ChangeMatchingStateRq changeRq = new ChangeMatchingStateRq("ABC", MatchingState.AUCTION);
+
+		assertThat(roundTrip(deleteRq)).usingRecursiveComparison().isEqualTo(deleteRq);
+		assertThat(roundTrip(changeRq)).usingRecursiveComparison().isEqualTo(changeRq);
+	}
+
+	@Test
+	void expire_requests_keep_their_own_template() {
+		ExpireOrderRq expireRq = new ExpireOrderRq("ABC", Side.SELL, 200);
+
+		assertThat(roundTrip(expireRq)).isExactlyInstanceOf(ExpireOrderRq.class).usingRecursiveComparison().isEqualTo(expireRq);
+		assertThat(roundTrip(new DeleteOrderRq(0, "ABC", Side.SELL, 200))).isExactlyInstanceOf(DeleteOrderRq.class);
+	}
+
+	@Test
+	void events_survive_round_trip_with_their_time() {
+		List<Event> events = List.of(
+			new OrderAcceptedEvent(1, 200),
+			new OrderUpdatedEvent(1, 200),
+			new OrderDeletedEvent(1, 200),
+			new OrderActivatedEvent(200),
+			new OrderRejectedEvent(1, 200, List.of(Message.INVALID_PEAK_SIZE, Message.UNKNOWN_SECURITY_ISIN)),
+			new OrderExecutedEvent(1, 200, List.of(new TradeDTO("ABC", 15450, 300, 200, 7), new TradeDTO("ABC", 15500, 10, 200, 8))),
+			new TradeEvent("ABC", 15450, 300, 200, 7),
+			new OpeningPriceEvent("ABC", 15450, 1000),
+			new SecurityStateChangedEvent("ABC", MatchingState.CONTINUOUS),
+			new DepthUpdateEvent("ABC", 7, List.of(new DepthLevelDTO(Side.BUY, 15450, 300, 2), new DepthLevelDTO(Side.SELL, 15500, 0, 0))),
+			new DepthSnapshotEvent("ABC", 7, List.of(new DepthLevelDTO(Side.BUY, 15450, 300, 2))),
+			new BestBidOfferChangedEvent("ABC", 15450, 300, 0, 0)
+		);
+
+		for (Event event : events) {
+			Event decoded = (Event) roundTrip(event);
+			assertThat(decoded).isEqualTo(event);
+			assertThat(decoded.getTime()).isEqualTo(event.getTime());
+		}
+	}
+}
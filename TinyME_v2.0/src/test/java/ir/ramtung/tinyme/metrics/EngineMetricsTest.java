@@ -0,0 +1,76 @@
+package ir.ramtung.tinyme.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.entity.StopLimitOrder;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EngineMetricsTest {
+
+	private SimpleMeterRegistry registry;
+	private EngineMetrics engineMetrics;
+	private Security security;
+	private Broker broker;
+	private Shareholder shareholder;
+
+	@BeforeEach
+	void setup() {
+		registry = new SimpleMeterRegistry();
+		security = Security.builder().isin("ABC").build();
+		broker = Broker.builder().brokerId(1).credit(100_000_000L).build();
+		shareholder = Shareholder.builder().shareholderId(1).build();
+		shareholder.incPosition(security, 100_000);
+		engineMetrics = new EngineMetrics(registry);
+		engineMetrics.registerBooks(List.of(security));
+	}
+
+	@Test
+	void book_gauges_follow_the_order_book() {
+		security.getOrderBook().enqueue(new Order(1, security, Side.BUY, 100, 15400, broker, shareholder));
+		security.getOrderBook().enqueue(new Order(2, security, Side.BUY, 100, 15300, broker, shareholder));
+		security.getOrderBook().enqueue(new Order(3, security, Side.SELL, 100, 15500, broker, shareholder));
+		security.getOrderBook().enqueue(new StopLimitOrder(4, security, Side.BUY, 100, 15600, broker, shareholder, 15550));
+
+		assertThat(registry.get("tinyme.book.depth").tags("security", "ABC", "side", "buy").gauge().value()).isEqualTo(2);
+		assertThat(registry.get("tinyme.book.orders").tags("security", "ABC", "side", "sell").gauge().value()).isEqualTo(1);
+		assertThat(registry.get("tinyme.book.stop_limit_backlog").tag("security", "ABC").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void matching_and_stop_limit_activation_are_recorded_per_security() {
+		security.getOrderBook().enqueue(new Order(1, security, Side.SELL, 100, 15500, broker, shareholder));
+		security.getOrderBook().enqueue(new StopLimitOrder(2, security, Side.BUY, 50, 15600, broker, shareholder, 15500));
+		broker.reserveCredit(50L * 15600);
+
+		security.addNewOrder(new Order(3, security, Side.BUY, 10, 15500, broker, shareholder));
+
+		assertThat(registry.get("tinyme.matching").tags("security", "ABC", "mode", "continuous").timer().count()).isPositive();
+		assertThat(registry.get("tinyme.stop_limit.activated").tag("security", "ABC").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void requests_are_recorded_per_kind() {
+		engineMetrics.recordRequest(EngineMetrics.RequestKind.NEW_ORDER, 1_000);
+
+		assertThat(registry.get("tinyme.request").tag("type", "new").timer().count()).isEqualTo(1);
+		assertThat(registry.get("tinyme.request").tag("type", "delete").timer().count()).isZero();
+	}
+
+	@Test
+	void books_of_the_disabled_instance_record_nothing() {
+		Security unregistered = Security.builder().isin("XYZ").build();
+		EngineMetrics.disabled().registerBooks(List.of(unregistered));
+
+		unregistered.addNewOrder(new Order(1, unregistered, Side.BUY, 10, 15500, broker, shareholder));
+
+		assertThat(unregistered.getOrderBook().getMetrics()).isSameAs(BookMetrics.DISABLED);
+	}
+}
@@ -0,0 +1,86 @@
+package ir.ramtung.tinyme.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TraceCollectorTest {
+
+	private SimpleMeterRegistry registry;
+	private TraceCollector collector;
+
+	@BeforeEach
+	void setup() {
+		registry = new SimpleMeterRegistry();
+		collector = new TraceCollector(registry, true, 4, 2);
+		collector.start();
+	}
+
+	@AfterEach
+	void teardown() throws InterruptedException {
+		collector.stop();
+	}
+
+	private static DeleteOrderRq traced(long requestId, long received, long matchingNanos) {
+		DeleteOrderRq rq = new DeleteOrderRq(requestId, "ABC", Side.BUY, 1);
+		rq.startTrace(received);
+		rq.trace()[TraceStage.VALIDATED.ordinal()] = received + 1_000;
+		rq.trace()[TraceStage.MATCHED.ordinal()] = received + 1_000 + matchingNanos;
+		rq.trace()[TraceStage.HANDED_OFF.ordinal()] = received + 2_000 + matchingNanos;
+		return rq;
+	}
+
+	@Test
+	void completed_traces_are_aggregated_per_stage() throws InterruptedException {
+		collector.complete(traced(1, 1_000_000, 5_000));
+
+		collector.stop();
+
+		assertThat(registry.get("tinyme.trace.total").timer().count()).isEqualTo(1);
+		assertThat(registry.get("tinyme.trace.stage").tag("stage", "matching").timer().totalTime(TimeUnit.NANOSECONDS))
+			.isEqualTo(5_000);
+		assertThat(registry.get("tinyme.trace.total").timer().totalTime(TimeUnit.NANOSECONDS)).isEqualTo(7_000);
+		assertThat(registry.get("tinyme.trace.stage").tag("stage", "decode").timer().count()).isZero();
+	}
+
+	@Test
+	void only_the_slowest_traces_are_kept() throws InterruptedException {
+		collector.complete(traced(1, 1_000_000, 5_000));
+		collector.complete(traced(2, 1_000_000, 50_000));
+		collector.complete(traced(3, 1_000_000, 500));
+		collector.complete(traced(4, 1_000_000, 20_000));
+
+		collector.stop();
+
+		assertThat(registry.get("tinyme.trace.total").timer().count()).isEqualTo(4);
+		assertThat(collector.slowestTraces()).extracting(trace -> trace[TraceStage.COUNT]).containsExactly(2L, 4L);
+		assertThat(collector.describeSlowest()).contains("\n2 52 ");
+	}
+
+	@Test
+	void untraced_requests_are_ignored() {
+		collector.complete(new DeleteOrderRq(1, "ABC", Side.BUY, 1));
+
+		assertThat(collector.isActive()).isTrue();
+		assertThat(registry.get("tinyme.trace.dropped").counter().count()).isZero();
+		assertThat(collector.slowestTraces()).isEmpty();
+	}
+
+	@Test
+	void a_disabled_collector_is_never_active() throws InterruptedException {
+		TraceCollector disabled = TraceCollector.disabled();
+		disabled.start();
+
+		disabled.complete(traced(1, 1_000_000, 5_000));
+
+		assertThat(disabled.isActive()).isFalse();
+		assertThat(disabled.slowestTraces()).isEmpty();
+		disabled.stop();
+	}
+}
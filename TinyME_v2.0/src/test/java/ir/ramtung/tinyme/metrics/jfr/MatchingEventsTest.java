@@ -0,0 +1,75 @@
+package ir.ramtung.tinyme.metrics.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MatchingEventsTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void matching_records_trades_and_levels_swept() throws Exception {
+		Security security = Security.builder().isin("ABC").build();
+		Broker broker = Broker.builder().brokerId(1).credit(100_000_000L).build();
+		Shareholder shareholder = Shareholder.builder().shareholderId(1).build();
+		shareholder.incPosition(security, 100_000);
+		security.getOrderBook().enqueue(new Order(1, security, Side.SELL, 100, 15500, broker, shareholder));
+		security.getOrderBook().enqueue(new Order(2, security, Side.SELL, 100, 15600, broker, shareholder));
+
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable("tinyme.Matching").withThreshold(Duration.ZERO);
+			recording.enable("tinyme.TradeCreated");
+			recording.start();
+			security.addNewOrder(new Order(3, security, Side.BUY, 150, 15600, broker, shareholder));
+			recording.stop();
+			Path file = directory.resolve("matching.jfr");
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		}
+
+		RecordedEvent matching = events.stream().filter(e -> e.getEventType().getName().equals("tinyme.Matching")).findFirst().orElseThrow();
+		assertThat(matching.getString("isin")).isEqualTo("ABC");
+		assertThat(matching.getLong("orderId")).isEqualTo(3);
+		assertThat(matching.getInt("trades")).isEqualTo(2);
+		assertThat(matching.getInt("levelsSwept")).isEqualTo(2);
+		assertThat(events.stream().filter(e -> e.getEventType().getName().equals("tinyme.TradeCreated"))).hasSize(2);
+	}
+
+	@Test
+	void shipped_settings_profile_covers_every_event() throws Exception {
+		Configuration configuration;
+		try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/jfr/tinyme.jfc"), StandardCharsets.UTF_8)) {
+			configuration = Configuration.create(reader);
+		}
+
+		assertThat(configuration.getSettings()).containsKeys(
+			"tinyme.RequestHandled#enabled",
+			"tinyme.Matching#threshold",
+			"tinyme.TradeCreated#enabled",
+			"tinyme.Rollback#enabled",
+			"tinyme.IcebergReplenish#enabled",
+			"tinyme.StopLimitActivation#enabled",
+			"tinyme.AuctionOpening#enabled",
+			"tinyme.ExpirySweep#enabled"
+		);
+	}
+}
@@ -0,0 +1,183 @@
+package ir.ramtung.tinyme.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.messaging.request.ChangeMatchingStateRq;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.messaging.request.MatchingState;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RequestJournalTest {
+
+	private static final int SEGMENT_BYTES = 256;
+
+	@TempDir
+	Path directory;
+
+	private RequestJournal openJournal() throws Exception {
+		RequestJournal journal = new RequestJournal(true, directory.resolve("requests.journal").toString(), SEGMENT_BYTES, 4);
+		journal.open();
+		return journal;
+	}
+
+	private List<BaseRq> replay(RequestJournal journal) throws Exception {
+		List<BaseRq> replayed = new ArrayList<>();
+		journal.replay(replayed::add);
+		return replayed;
+	}
+
+	private List<String> journalFiles() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> file.getFileName().toString()).sorted().toList();
+		}
+	}
+
+	private List<BaseRq> sampleRequests(int count) {
+		List<BaseRq> requests = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			requests.add(EnterOrderRq.createNewOrderRq(i, "ABC", i, LocalDateTime.now(), Side.BUY, 10 * i, 15450, 1, 1, 0, 0));
+		}
+		requests.add(new DeleteOrderRq(count + 1, "ABC", Side.BUY, 1));
+		requests.add(new ChangeMatchingStateRq("ABC", MatchingState.AUCTION));
+		return requests;
+	}
+
+	@Test
+	void committed_requests_are_replayed_in_order_after_reopening() throws Exception {
+		List<BaseRq> requests = sampleRequests(20);
+		RequestJournal journal = openJournal();
+		requests.forEach(journal::append);
+		journal.close();
+
+		List<BaseRq> replayed = replay(openJournal());
+
+		assertThat(replayed).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(requests);
+	}
+
+	@Test
+	void replay_stops_at_a_torn_record() throws Exception {
+		List<BaseRq> requests = sampleRequests(3);
+		RequestJournal journal = openJournal();
+		requests.forEach(journal::append);
+		journal.close();
+
+		try (RandomAccessFile file = new RandomAccessFile(directory.resolve("requests.journal.00000000000000000001").toFile(), "rw")) {
+			file.seek(24 + 16 + 4);
+			file.write(0x7f);
+		}
+
+		assertThat(replay(openJournal())).isEmpty();
+	}
+
+	@Test
+	void checkpoint_discards_replayed_requests_and_keeps_new_ones() throws Exception {
+		RequestJournal journal = openJournal();
+		sampleRequests(5).forEach(journal::append);
+		journal.checkpoint();
+		DeleteOrderRq afterCheckpoint = new DeleteOrderRq(100, "ABC", Side.SELL, 7);
+		journal.append(afterCheckpoint);
+		journal.close();
+
+		List<BaseRq> replayed = replay(openJournal());
+
+		assertThat(replayed).usingRecursiveFieldByFieldElementComparator().containsExactly(afterCheckpoint);
+	}
+
+	@Test
+	void checkpoint_at_a_mark_keeps_requests_appended_after_it() throws Exception {
+		List<BaseRq> requests = sampleRequests(4);
+		RequestJournal journal = openJournal();
+		requests.subList(0, 3).forEach(journal::append);
+		RequestJournal.Mark mark = journal.mark();
+		requests.subList(3, requests.size()).forEach(journal::append);
+		journal.checkpoint(mark);
+		journal.close();
+
+		List<BaseRq> replayed = replay(openJournal());
+
+		assertThat(replayed)
+			.usingRecursiveFieldByFieldElementComparator()
+			.containsExactlyElementsOf(requests.subList(3, requests.size()));
+	}
+
+	@Test
+	void truncate_drops_committed_records_appended_after_the_mark_across_segments() throws Exception {
+		List<BaseRq> requests = sampleRequests(12);
+		RequestJournal journal = openJournal();
+		requests.subList(0, 2).forEach(journal::append);
+		RequestJournal.Mark mark = journal.mark();
+		requests.subList(2, requests.size()).forEach(journal::append);
+		journal.commit();
+		journal.truncate(mark);
+		DeleteOrderRq redelivered = new DeleteOrderRq(100, "ABC", Side.SELL, 7);
+		journal.append(redelivered);
+		journal.close();
+
+		List<BaseRq> replayed = replay(openJournal());
+
+		assertThat(replayed)
+			.usingRecursiveFieldByFieldElementComparator()
+			.containsExactly(requests.get(0), requests.get(1), redelivered);
+	}
+
+	@Test
+	void a_checkpoint_at_a_rolled_mark_deletes_the_files_before_it() throws Exception {
+		List<BaseRq> requests = sampleRequests(12);
+		RequestJournal journal = openJournal();
+		requests.subList(0, 10).forEach(journal::append);
+		RequestJournal.Mark mark = journal.roll();
+		requests.subList(10, requests.size()).forEach(journal::append);
+		assertThat(journalFiles()).containsExactly("requests.journal.00000000000000000001", "requests.journal.00000000000000000011");
+
+		journal.checkpoint(mark);
+		journal.close();
+
+		assertThat(journalFiles()).containsExactly("requests.journal.00000000000000000011");
+		assertThat(replay(openJournal()))
+			.usingRecursiveFieldByFieldElementComparator()
+			.containsExactlyElementsOf(requests.subList(10, requests.size()));
+	}
+
+	@Test
+	void rolling_an_empty_journal_file_keeps_it() throws Exception {
+		RequestJournal journal = openJournal();
+		RequestJournal.Mark first = journal.roll();
+		RequestJournal.Mark second = journal.roll();
+		journal.close();
+
+		assertThat(second).isEqualTo(first);
+		assertThat(journalFiles()).containsExactly("requests.journal.00000000000000000001");
+	}
+
+	@Test
+	void replay_reads_every_file_kept_since_the_last_checkpoint() throws Exception {
+		List<BaseRq> requests = sampleRequests(6);
+		RequestJournal journal = openJournal();
+		requests.subList(0, 3).forEach(journal::append);
+		journal.roll();
+		requests.subList(3, 5).forEach(journal::append);
+		journal.roll();
+		requests.subList(5, requests.size()).forEach(journal::append);
+		journal.close();
+
+		RequestJournal reopened = openJournal();
+		List<BaseRq> fromFour = new ArrayList<>();
+		reopened.replay(4, fromFour::add);
+
+		assertThat(replay(reopened)).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(requests);
+		assertThat(fromFour)
+			.usingRecursiveFieldByFieldElementComparator()
+			.containsExactlyElementsOf(requests.subList(3, requests.size()));
+	}
+}
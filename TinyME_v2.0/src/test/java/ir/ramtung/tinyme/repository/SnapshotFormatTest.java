@@ -0,0 +1,89 @@
+package ir.ramtung.tinyme.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ir.ramtung.tinyme.domain.entity.*;
+import ir.ramtung.tinyme.domain.service.ExpiringService;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SnapshotFormatTest {
+
+	private BrokerRepository brokerRepository;
+	private ShareholderRepository shareholderRepository;
+	private SecurityRepository securityRepository;
+	private SnapshotFormat format;
+	private Security security;
+	private Broker broker;
+	private Shareholder shareholder;
+
+	@BeforeEach
+	void setup() {
+		brokerRepository = new BrokerRepository();
+		shareholderRepository = new ShareholderRepository();
+		securityRepository = new SecurityRepository();
+		format = new SnapshotFormat(
+			brokerRepository,
+			shareholderRepository,
+			securityRepository,
+			new ExpiringService(Clock.systemUTC(), Duration.ofMillis(100))
+		);
+
+		security = Security.builder().isin("ABC").tickSize(5).lotSize(10).build();
+		security.restoreState(SecurityState.AUCTION, 15450);
+		broker = Broker.builder().brokerId(1).name("broker").credit(100_000_000L).build();
+		broker.reserveCredit(1_000_000L);
+		shareholder = Shareholder.builder().shareholderId(2).name("holder").build();
+		shareholder.incPosition(security, 100_000);
+		securityRepository.addSecurity(security);
+		brokerRepository.addBroker(broker);
+		shareholderRepository.addShareholder(shareholder);
+
+		LocalDateTime entryTime = LocalDateTime.of(2024, 3, 1, 9, 0);
+		OrderBook orderBook = security.getOrderBook();
+		orderBook.enqueue(new Order(1, security, Side.BUY, 300, 0, 15400, broker, shareholder, entryTime, entryTime.plusDays(1), OrderStatus.NEW));
+		orderBook.enqueue(new Order(2, security, Side.BUY, 200, 0, 15400, broker, shareholder, entryTime, OrderStatus.NEW));
+		orderBook.enqueue(new IcebergOrder(3, security, Side.SELL, 500, 0, 15500, broker, shareholder, entryTime, null, 100, 100, OrderStatus.NEW));
+		orderBook.enqueue(new StopLimitOrder(4, security, Side.BUY, 50, 15600, broker, shareholder, entryTime, null, 15550, 9, OrderStatus.NEW));
+	}
+
+	private void reload() throws Exception {
+		ByteBuffer snapshot = format.write(new RequestJournal.Mark(7, 64));
+		assertThat(format.read(snapshot, ForkJoinPool.commonPool())).isEqualTo(new RequestJournal.Mark(7, 64));
+	}
+
+	@Test
+	void books_are_restored_in_priority_order_with_every_order_kind() throws Exception {
+		List<Order> buyQueue = List.copyOf(security.getOrderBook().getBuyQueue());
+		List<Order> sellQueue = List.copyOf(security.getOrderBook().getSellQueue());
+		List<Order> stopLimitQueue = List.copyOf(security.getOrderBook().getStopLimitOrderBuyQueue());
+
+		reload();
+
+		OrderBook restored = securityRepository.findSecurityByIsin("ABC").getOrderBook();
+		assertThat(restored.getBuyQueue()).usingRecursiveFieldByFieldElementComparatorIgnoringFields("security", "broker", "shareholder").containsExactlyElementsOf(buyQueue);
+		assertThat(restored.getSellQueue()).usingRecursiveFieldByFieldElementComparatorIgnoringFields("security", "broker", "shareholder").containsExactlyElementsOf(sellQueue);
+		assertThat(restored.getStopLimitOrderBuyQueue()).usingRecursiveFieldByFieldElementComparatorIgnoringFields("security", "broker", "shareholder").containsExactlyElementsOf(stopLimitQueue);
+		assertThat(restored.totalSellQuantityByShareholder(shareholderRepository.findShareholderById(2))).isEqualTo(500);
+	}
+
+	@Test
+	void security_state_credit_and_positions_are_restored() throws Exception {
+		reload();
+
+		Security restoredSecurity = securityRepository.findSecurityByIsin("ABC");
+		Broker restoredBroker = brokerRepository.findBrokerById(1);
+		assertThat(restoredSecurity.getState()).isEqualTo(SecurityState.AUCTION);
+		assertThat(restoredSecurity.getLastTradePrice()).isEqualTo(15450);
+		assertThat(restoredSecurity.getTickSize()).isEqualTo(5);
+		assertThat(restoredBroker.getCredit()).isEqualTo(broker.getCredit());
+		assertThat(restoredBroker.getReservedCredit()).isEqualTo(1_000_000L);
+		assertThat(shareholderRepository.findShareholderById(2).getPositionBySecurity(restoredSecurity)).isEqualTo(100_000);
+	}
+}
@@ -0,0 +1,135 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.IcebergOrder;
+import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.OrderBook;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.entity.StopLimitOrder;
+import ir.ramtung.tinyme.domain.service.Matcher;
+import ir.ramtung.tinyme.domain.service.controls.AuctionMatchingControl;
+import ir.ramtung.tinyme.domain.service.controls.ContinuousMatchingControl;
+import ir.ramtung.tinyme.domain.service.controls.CreditControl;
+import ir.ramtung.tinyme.domain.service.controls.PositionControl;
+import ir.ramtung.tinyme.domain.service.controls.QuantityControl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BookGenerator {
+
+	static final long SEED = 20240501L;
+	static final int BASE_PRICE = 15_000;
+	static final long UNLIMITED_CREDIT = Long.MAX_VALUE / 4;
+	static final int UNLIMITED_POSITION = Integer.MAX_VALUE / 2;
+
+	private final Random random;
+	private long nextOrderId;
+
+	BookGenerator(long seed) {
+		this.random = new Random(seed);
+		this.nextOrderId = 1;
+	}
+
+	static Matcher createMatcher() {
+		PositionControl positionControl = new PositionControl();
+		CreditControl creditControl = new CreditControl();
+		QuantityControl quantityControl = new QuantityControl();
+		return new Matcher(
+			new ContinuousMatchingControl(positionControl, creditControl, quantityControl),
+			new AuctionMatchingControl(positionControl, creditControl, quantityControl)
+		);
+	}
+
+	Security createSecurity(String isin) {
+		return Security.builder().isin(isin).lastTradePrice(BASE_PRICE).build();
+	}
+
+	Broker createBroker(long brokerId) {
+		return Broker.builder().brokerId(brokerId).credit(UNLIMITED_CREDIT).build();
+	}
+
+	Shareholder createShareholder(long shareholderId, Security security) {
+		Shareholder shareholder = Shareholder.builder().shareholderId(shareholderId).build();
+		shareholder.incPosition(security, UNLIMITED_POSITION);
+		return shareholder;
+	}
+
+	long nextOrderId() {
+		return nextOrderId++;
+	}
+
+	int nextInt(int bound) {
+		return random.nextInt(bound);
+	}
+
+	Side nextSide() {
+		return random.nextBoolean() ? Side.BUY : Side.SELL;
+	}
+
+	List<Order> fillRandomBook(
+		Security security,
+		int depth,
+		int levels,
+		Broker broker,
+		Shareholder shareholder
+	) {
+		List<Order> orders = new ArrayList<>(depth);
+		OrderBook orderBook = security.getOrderBook();
+		for (int i = 0; i < depth; i++) {
+			Side side = nextSide();
+			int offset = 1 + random.nextInt(levels);
+			int price = (side == Side.BUY) ? BASE_PRICE - offset : BASE_PRICE + offset;
+			Order order = new Order(nextOrderId(), security, side, 1 + random.nextInt(1_000), price, broker, shareholder);
+			orderBook.enqueue(order);
+			orders.add(order);
+		}
+		return orders;
+	}
+
+	void fillSellLevels(
+		Security security,
+		int levels,
+		int ordersPerLevel,
+		int quantity,
+		Broker broker,
+		Shareholder shareholder
+	) {
+		OrderBook orderBook = security.getOrderBook();
+		for (int level = 1; level <= levels; level++) {
+			for (int i = 0; i < ordersPerLevel; i++) {
+				orderBook.enqueue(
+					new Order(nextOrderId(), security, Side.SELL, quantity, BASE_PRICE + level, broker, shareholder)
+				);
+			}
+		}
+	}
+
+	void fillWideAuctionBook(Security security, int priceRange, int depth, Broker broker, Shareholder shareholder) {
+		OrderBook orderBook = security.getOrderBook();
+		int low = BASE_PRICE - priceRange / 2;
+		for (int i = 0; i < depth; i++) {
+			Side side = nextSide();
+			int price = low + random.nextInt(priceRange);
+			orderBook.enqueue(
+				new Order(nextOrderId(), security, side, 1 + random.nextInt(1_000), price, broker, shareholder)
+			);
+		}
+	}
+
+	IcebergOrder createIceberg(Security security, Side side, int quantity, int price, int peakSize, Broker broker,
+			Shareholder shareholder) {
+		return new IcebergOrder(nextOrderId(), security, side, quantity, price, broker, shareholder, peakSize);
+	}
+
+	StopLimitOrder createStopLimit(Security security, Side side, int quantity, int price, int stopPrice,
+			Broker broker, Shareholder shareholder) {
+		return new StopLimitOrder(nextOrderId(), security, side, quantity, price, broker, shareholder, stopPrice);
+	}
+
+	Order createOrder(Security security, Side side, int quantity, int price, Broker broker, Shareholder shareholder) {
+		return new Order(nextOrderId(), security, side, quantity, price, broker, shareholder);
+	}
+}
@@ -0,0 +1,116 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.domain.entity.CreditLedger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CreditLedgerBenchmark {
+
+	private static final long INITIAL_CREDIT = Long.MAX_VALUE / 2;
+	private static final long AMOUNT = 15_700;
+
+	private CreditLedger ledger;
+	private SynchronizedCredit synchronizedCredit;
+	private LongAdder adderCredit;
+
+	static final class SynchronizedCredit {
+
+		private long credit;
+
+		SynchronizedCredit(long credit) {
+			this.credit = credit;
+		}
+
+		synchronized boolean tryDecrease(long amount) {
+			if (credit < amount) {
+				return false;
+			}
+			credit -= amount;
+			return true;
+		}
+
+		synchronized void increase(long amount) {
+			credit += amount;
+		}
+
+		synchronized long get() {
+			return credit;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		ledger = new CreditLedger(INITIAL_CREDIT);
+		synchronizedCredit = new SynchronizedCredit(INITIAL_CREDIT);
+		adderCredit = new LongAdder();
+		adderCredit.add(INITIAL_CREDIT);
+	}
+
+	@Benchmark
+	public boolean ledgerReserveRelease() {
+		boolean reserved = ledger.tryReserve(AMOUNT);
+		if (reserved) {
+			ledger.release(AMOUNT);
+		}
+		return reserved;
+	}
+
+	@Benchmark
+	public boolean ledgerReserveCommitDeposit() {
+		boolean reserved = ledger.tryReserve(AMOUNT);
+		if (reserved) {
+			ledger.commit(AMOUNT);
+			ledger.deposit(AMOUNT);
+		}
+		return reserved;
+	}
+
+	@Benchmark
+	public boolean synchronizedDecreaseIncrease() {
+		boolean decreased = synchronizedCredit.tryDecrease(AMOUNT);
+		if (decreased) {
+			synchronizedCredit.increase(AMOUNT);
+		}
+		return decreased;
+	}
+
+	@Benchmark
+	public long adderDecreaseIncrease() {
+		adderCredit.add(-AMOUNT);
+		adderCredit.add(AMOUNT);
+		return AMOUNT;
+	}
+
+	@Benchmark
+	public long ledgerReadAvailable() {
+		return ledger.getAvailable();
+	}
+
+	@Benchmark
+	public long ledgerReadReserved() {
+		return ledger.getReserved();
+	}
+
+	@Benchmark
+	public long synchronizedRead() {
+		return synchronizedCredit.get();
+	}
+}
@@ -0,0 +1,64 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.SecurityResponse;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IcebergBenchmark {
+
+	private static final int ICEBERG_QUANTITY = 1_000_000_000;
+
+	@Param({ "1", "10", "1000" })
+	private int restingOrdersAtLevel;
+
+	@Param({ "10" })
+	private int peakSize;
+
+	private BookGenerator generator;
+	private Security security;
+	private Broker broker;
+	private Shareholder shareholder;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		generator = new BookGenerator(BookGenerator.SEED);
+		security = generator.createSecurity("ICEBERG");
+		broker = generator.createBroker(1);
+		shareholder = generator.createShareholder(1, security);
+
+		int price = BookGenerator.BASE_PRICE;
+		for (int i = 0; i < restingOrdersAtLevel; i++) {
+			security.getOrderBook().enqueue(
+				generator.createIceberg(security, Side.BUY, ICEBERG_QUANTITY, price, peakSize, broker, shareholder)
+			);
+		}
+	}
+
+	@Benchmark
+	public SecurityResponse sellAgainstIcebergReplenish() {
+		return security.addNewOrder(
+			generator.createOrder(security, Side.SELL, peakSize, BookGenerator.BASE_PRICE, broker, shareholder)
+		);
+	}
+}
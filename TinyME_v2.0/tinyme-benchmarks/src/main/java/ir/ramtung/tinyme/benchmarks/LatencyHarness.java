@@ -0,0 +1,442 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.TinyMeApplication;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.event.Event;
+import ir.ramtung.tinyme.messaging.event.OrderAcceptedEvent;
+import ir.ramtung.tinyme.messaging.event.OrderDeletedEvent;
+import ir.ramtung.tinyme.messaging.event.OrderExecutedEvent;
+import ir.ramtung.tinyme.messaging.event.OrderRejectedEvent;
+import ir.ramtung.tinyme.messaging.event.OrderUpdatedEvent;
+import ir.ramtung.tinyme.messaging.request.BaseRq;
+import ir.ramtung.tinyme.messaging.request.DeleteOrderRq;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jms.support.converter.MessageConverter;
+
+/**
+ * Drives a full {@link TinyMeApplication} over an embedded Artemis broker with an open-loop request flow
+ * and reports request-to-event latency per request type and per security.
+ * <p>
+ * Latency is measured from each request's scheduled send time, not its actual send time, so a stalled
+ * engine is charged for every request that queued up behind the stall. The first
+ * {@link OrderAcceptedEvent}, {@link OrderUpdatedEvent}, {@link OrderDeletedEvent}, {@link OrderExecutedEvent}
+ * or {@link OrderRejectedEvent} carrying a request's id completes that request.
+ * <p>
+ * Run with {@code mvn compile exec:java -Dexec.mainClass=ir.ramtung.tinyme.benchmarks.LatencyHarness
+ * -Dexec.args="rate=20000 duration=30 mix=new:60,amend:15,cancel:15,iceberg:5,stop-limit:5"}.
+ */
+public final class LatencyHarness {
+
+	enum RequestType {
+		NEW("new"),
+		AMEND("amend"),
+		CANCEL("cancel"),
+		ICEBERG("iceberg"),
+		STOP_LIMIT("stop-limit");
+
+		private final String label;
+
+		RequestType(String label) {
+			this.label = label;
+		}
+
+		static RequestType parse(String label) {
+			for (RequestType type : values()) {
+				if (type.label.equals(label)) {
+					return type;
+				}
+			}
+			throw new IllegalArgumentException("Unknown request type: " + label);
+		}
+	}
+
+	record Options(
+		int rate,
+		int durationSeconds,
+		int warmupSeconds,
+		int securities,
+		int priceLevels,
+		int port,
+		String wireFormat,
+		int[] mixWeights
+	) {
+		static Options parse(String[] args) {
+			Map<String, String> values = new LinkedHashMap<>();
+			values.put("rate", "10000");
+			values.put("duration", "30");
+			values.put("warmup", "10");
+			values.put("securities", "4");
+			values.put("levels", "20");
+			values.put("port", "61617");
+			values.put("wire-format", "json");
+			values.put("mix", "new:60,amend:15,cancel:15,iceberg:5,stop-limit:5");
+			for (String arg : args) {
+				int separator = arg.indexOf('=');
+				if (separator < 0 || !values.containsKey(arg.substring(0, separator))) {
+					throw new IllegalArgumentException("Unknown option: " + arg);
+				}
+				values.put(arg.substring(0, separator), arg.substring(separator + 1));
+			}
+
+			int[] mixWeights = new int[RequestType.values().length];
+			for (String entry : values.get("mix").split(",")) {
+				String[] weight = entry.split(":");
+				mixWeights[RequestType.parse(weight[0]).ordinal()] = Integer.parseInt(weight[1]);
+			}
+
+			Options options = new Options(
+				Integer.parseInt(values.get("rate")),
+				Integer.parseInt(values.get("duration")),
+				Integer.parseInt(values.get("warmup")),
+				Integer.parseInt(values.get("securities")),
+				Integer.parseInt(values.get("levels")),
+				Integer.parseInt(values.get("port")),
+				values.get("wire-format"),
+				mixWeights
+			);
+			if (options.rate <= 0 || options.durationSeconds <= 0 || options.securities <= 0 || options.priceLevels <= 0) {
+				throw new IllegalArgumentException("rate, duration, securities and levels must be positive");
+			}
+			return options;
+		}
+
+		long totalRequests() {
+			return (long) rate * (warmupSeconds + durationSeconds);
+		}
+	}
+
+	private record LiveOrder(long orderId, int security, Side side, int quantity, int price, int peakSize, int stopPrice) {}
+
+	private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+	private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+	private static final long SPIN_THRESHOLD_NANOS = 50_000;
+	private static final long BROKER_ID = 1;
+	private static final long SHAREHOLDER_ID = 1;
+
+	private final Options options;
+	private final MessageConverter converter;
+	private final String requestQueue;
+	private final String responseQueue;
+	private final Random random = new Random(BookGenerator.SEED);
+	private final List<List<LiveOrder>> liveOrders = new ArrayList<>();
+	private final long intervalNanos;
+	private final byte[] types;
+	private final int[] securities;
+	private final boolean[] completed;
+	private final Histogram[] byType = new Histogram[RequestType.values().length];
+	private final Histogram[] bySecurity;
+	private final long[] rejectedByType = new long[RequestType.values().length];
+	private final AtomicLong responded = new AtomicLong();
+	private volatile long start;
+	private long nextOrderId = 1;
+
+	private LatencyHarness(Options options, ConfigurableApplicationContext context) {
+		if (options.totalRequests() >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("rate * (warmup + duration) must fit in an int");
+		}
+
+		this.options = options;
+		this.converter = context.getBean(MessageConverter.class);
+		this.requestQueue = context.getEnvironment().getRequiredProperty("requestQueue");
+		this.responseQueue = context.getEnvironment().getRequiredProperty("responseQueue");
+		int total = (int) options.totalRequests() + 1;
+		this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+		this.types = new byte[total];
+		this.securities = new int[total];
+		this.completed = new boolean[total];
+		this.bySecurity = new Histogram[options.securities];
+		for (int i = 0; i < byType.length; i++) {
+			byType[i] = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+		}
+		for (int i = 0; i < options.securities; i++) {
+			bySecurity[i] = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+			liveOrders.add(new ArrayList<>());
+		}
+		planFlow();
+	}
+
+	private void planFlow() {
+		int[] liveCount = new int[options.securities];
+		for (int requestId = 1; requestId < types.length; requestId++) {
+			int security = random.nextInt(options.securities);
+			RequestType type = pickType();
+			if (type == RequestType.AMEND || type == RequestType.CANCEL) {
+				if (liveCount[security] == 0) {
+					type = RequestType.NEW;
+				} else if (type == RequestType.CANCEL) {
+					liveCount[security]--;
+				}
+			}
+			if (type != RequestType.AMEND && type != RequestType.CANCEL) {
+				liveCount[security]++;
+			}
+			types[requestId] = (byte) type.ordinal();
+			securities[requestId] = security;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options options = Options.parse(args);
+		Path persistence = writeFixture(options);
+
+		EmbeddedActiveMQ broker = startBroker(options.port);
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(TinyMeApplication.class)
+			.properties(
+				"spring.artemis.broker-url=tcp://127.0.0.1:" + options.port,
+				"engine.persistence.location=" + persistence.toUri(),
+				"engine.wire-format=" + options.wireFormat,
+				"engine.journal.enabled=false",
+				"engine.snapshot.enabled=false"
+			)
+			.run();
+		try {
+			new LatencyHarness(options, context).run();
+		} finally {
+			context.close();
+			broker.stop();
+		}
+	}
+
+	private static EmbeddedActiveMQ startBroker(int port) throws Exception {
+		Configuration configuration = new ConfigurationImpl()
+			.setPersistenceEnabled(false)
+			.setSecurityEnabled(false)
+			.addAcceptorConfiguration("harness", "tcp://127.0.0.1:" + port);
+		EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+		broker.setConfiguration(configuration);
+		broker.start();
+		return broker;
+	}
+
+	private static Path writeFixture(Options options) throws IOException {
+		Path directory = Files.createTempDirectory("tinyme-harness");
+		StringBuilder securityCsv = new StringBuilder("isin,tickSize,lotSize\n");
+		StringBuilder positionCsv = new StringBuilder("shareholderId,isin,positions\n");
+		for (int i = 0; i < options.securities; i++) {
+			securityCsv.append(isin(i)).append(",1,1\n");
+			positionCsv.append(SHAREHOLDER_ID).append(',').append(isin(i)).append(',').append(BookGenerator.UNLIMITED_POSITION).append('\n');
+		}
+		Files.writeString(directory.resolve("security.csv"), securityCsv);
+		Files.writeString(directory.resolve("position.csv"), positionCsv);
+		Files.writeString(directory.resolve("broker.csv"), "brokerId,name,credit\n" + BROKER_ID + ",harness," + BookGenerator.UNLIMITED_CREDIT + "\n");
+		Files.writeString(directory.resolve("shareholder.csv"), "shareholderId,name\n" + SHAREHOLDER_ID + ",harness\n");
+		Files.writeString(
+			directory.resolve("orderbook.csv"),
+			"orderId,isin,side,quantity,minimumExecutionQuantity,price,brokerId,shareholderId,entryTime,peakSize,displayedQuantity\n"
+		);
+		return directory;
+	}
+
+	private static String isin(int security) {
+		return "HRN" + security;
+	}
+
+	private void run() throws Exception {
+		ConnectionFactory connectionFactory = new ActiveMQConnectionFactory("tcp://127.0.0.1:" + options.port);
+		try (Connection producerConnection = connectionFactory.createConnection(); Connection consumerConnection = connectionFactory.createConnection()) {
+			Session consumerSession = consumerConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			MessageConsumer consumer = consumerSession.createConsumer(consumerSession.createQueue(responseQueue));
+			consumer.setMessageListener(this::onMessage);
+			consumerConnection.start();
+
+			Session producerSession = producerConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			MessageProducer producer = producerSession.createProducer(producerSession.createQueue(requestQueue));
+			producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+			sendAll(producerSession, producer);
+
+			long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+			while (responded.get() < options.totalRequests() && System.nanoTime() < deadline) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+			}
+			consumerConnection.stop();
+			report();
+		}
+	}
+
+	private void sendAll(Session session, MessageProducer producer) throws JMSException {
+		long total = options.totalRequests();
+		start = System.nanoTime();
+		for (int requestId = 1; requestId <= total; requestId++) {
+			long scheduled = scheduledAt(requestId);
+			BaseRq rq = nextRequest(requestId);
+
+			long wait;
+			while ((wait = scheduled - System.nanoTime()) > 0) {
+				if (wait > SPIN_THRESHOLD_NANOS) {
+					LockSupport.parkNanos(wait - SPIN_THRESHOLD_NANOS);
+				} else {
+					Thread.onSpinWait();
+				}
+			}
+			producer.send(converter.toMessage(rq, session));
+		}
+	}
+
+	private long scheduledAt(long requestId) {
+		return start + (requestId - 1) * intervalNanos;
+	}
+
+	private BaseRq nextRequest(int requestId) {
+		int security = securities[requestId];
+		RequestType type = RequestType.values()[types[requestId]];
+		List<LiveOrder> live = liveOrders.get(security);
+
+		Side side = random.nextBoolean() ? Side.BUY : Side.SELL;
+		int quantity = 1 + random.nextInt(100);
+		int price = BookGenerator.BASE_PRICE - options.priceLevels / 2 + random.nextInt(options.priceLevels);
+		LocalDateTime now = LocalDateTime.now();
+		switch (type) {
+			case AMEND -> {
+				LiveOrder order = live.get(random.nextInt(live.size()));
+				int amendedPrice = order.price + (random.nextBoolean() ? 1 : -1);
+				return EnterOrderRq.createUpdateOrderRq(requestId, isin(security), order.orderId, now, order.side, order.quantity, amendedPrice, BROKER_ID, SHAREHOLDER_ID, order.peakSize, 0, order.stopPrice);
+			}
+			case CANCEL -> {
+				int index = random.nextInt(live.size());
+				LiveOrder order = live.get(index);
+				live.set(index, live.get(live.size() - 1));
+				live.remove(live.size() - 1);
+				return new DeleteOrderRq(requestId, isin(security), order.side, order.orderId);
+			}
+			case ICEBERG -> {
+				quantity *= 10;
+				return enter(requestId, new LiveOrder(nextOrderId++, security, side, quantity, price, 1 + quantity / 10, 0), now);
+			}
+			case STOP_LIMIT -> {
+				int stopPrice = (side == Side.BUY) ? price + options.priceLevels : price - options.priceLevels;
+				return enter(requestId, new LiveOrder(nextOrderId++, security, side, quantity, price, 0, stopPrice), now);
+			}
+			default -> {
+				return enter(requestId, new LiveOrder(nextOrderId++, security, side, quantity, price, 0, 0), now);
+			}
+		}
+	}
+
+	private EnterOrderRq enter(int requestId, LiveOrder order, LocalDateTime now) {
+		liveOrders.get(order.security).add(order);
+		return EnterOrderRq.createNewOrderRq(requestId, isin(order.security), order.orderId, now, order.side, order.quantity, order.price, BROKER_ID, SHAREHOLDER_ID, order.peakSize, 0, order.stopPrice);
+	}
+
+	private RequestType pickType() {
+		int totalWeight = 0;
+		for (int weight : options.mixWeights) {
+			totalWeight += weight;
+		}
+		int pick = random.nextInt(totalWeight);
+		for (RequestType type : RequestType.values()) {
+			pick -= options.mixWeights[type.ordinal()];
+			if (pick < 0) {
+				return type;
+			}
+		}
+		return RequestType.NEW;
+	}
+
+	private void onMessage(Message message) {
+		long received = System.nanoTime();
+		Event event;
+		try {
+			event = (Event) converter.fromMessage(message);
+		} catch (JMSException ex) {
+			throw new IllegalStateException(ex);
+		}
+
+		long requestId;
+		boolean rejected = false;
+		if (event instanceof OrderAcceptedEvent accepted) {
+			requestId = accepted.getRequestId();
+		} else if (event instanceof OrderUpdatedEvent updated) {
+			requestId = updated.getRequestId();
+		} else if (event instanceof OrderDeletedEvent deleted) {
+			requestId = deleted.getRequestId();
+		} else if (event instanceof OrderExecutedEvent executed) {
+			requestId = executed.getRequestId();
+		} else if (event instanceof OrderRejectedEvent rejection) {
+			requestId = rejection.getRequestId();
+			rejected = true;
+		} else {
+			return;
+		}
+		if (requestId <= 0 || requestId >= completed.length || completed[(int) requestId]) {
+			return;
+		}
+
+		int index = (int) requestId;
+		completed[index] = true;
+		if (index > (long) options.rate * options.warmupSeconds) {
+			long latency = Math.min(received - scheduledAt(index), HIGHEST_TRACKABLE_NANOS);
+			byType[types[index]].recordValue(latency);
+			bySecurity[securities[index]].recordValue(latency);
+			if (rejected) {
+				rejectedByType[types[index]]++;
+			}
+		}
+		responded.incrementAndGet();
+	}
+
+	private void report() {
+		long total = options.totalRequests();
+		System.out.printf(
+			"%d requests at %d rq/s (%d s warmup, %d s measured), %d without a response%n%n",
+			total,
+			options.rate,
+			options.warmupSeconds,
+			options.durationSeconds,
+			total - responded.get()
+		);
+		printHeader("type");
+		for (RequestType type : RequestType.values()) {
+			printRow(type.label, byType[type.ordinal()], rejectedByType[type.ordinal()]);
+		}
+		System.out.println();
+		printHeader("security");
+		for (int i = 0; i < options.securities; i++) {
+			printRow(isin(i), bySecurity[i], -1);
+		}
+	}
+
+	private static void printHeader(String key) {
+		System.out.printf("%-12s %10s %9s %10s %10s %10s %10s %10s   (us)%n", key, "count", "rejected", "p50", "p90", "p99", "p99.9", "max");
+	}
+
+	private static void printRow(String key, Histogram histogram, long rejected) {
+		System.out.printf(
+			"%-12s %10d %9s %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+			key,
+			histogram.getTotalCount(),
+			rejected < 0 ? "-" : Long.toString(rejected),
+			histogram.getValueAtPercentile(50) / 1e3,
+			histogram.getValueAtPercentile(90) / 1e3,
+			histogram.getValueAtPercentile(99) / 1e3,
+			histogram.getValueAtPercentile(99.9) / 1e3,
+			histogram.getMaxValue() / 1e3
+		);
+	}
+}
@@ -0,0 +1,112 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.MatchResult;
+import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.OrderBook;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.service.Matcher;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatcherBenchmark {
+
+	@State(Scope.Thread)
+	public static class SweepState {
+
+		@Param({ "1", "10", "100" })
+		private int levels;
+
+		@Param({ "1", "10" })
+		private int ordersPerLevel;
+
+		private Matcher matcher;
+		private Security security;
+		private Order incoming;
+
+		@Setup(Level.Invocation)
+		public void setup() {
+			BookGenerator generator = new BookGenerator(BookGenerator.SEED);
+			matcher = BookGenerator.createMatcher();
+			security = generator.createSecurity("SWEEP");
+			Broker broker = generator.createBroker(1);
+			Shareholder shareholder = generator.createShareholder(1, security);
+
+			generator.fillSellLevels(security, levels, ordersPerLevel, 10, broker, shareholder);
+			incoming = generator.createOrder(
+				security,
+				Side.BUY,
+				levels * ordersPerLevel * 10,
+				BookGenerator.BASE_PRICE + levels,
+				broker,
+				shareholder
+			);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class AuctionState {
+
+		@Param({ "100", "10000", "1000000" })
+		private int priceRange;
+
+		@Param({ "1000", "50000" })
+		private int depth;
+
+		private Matcher matcher;
+		private Security security;
+		private Order probe;
+
+		@Setup
+		public void setup() {
+			BookGenerator generator = new BookGenerator(BookGenerator.SEED);
+			matcher = BookGenerator.createMatcher();
+			security = generator.createSecurity("AUCTION");
+			Broker broker = generator.createBroker(1);
+			Shareholder shareholder = generator.createShareholder(1, security);
+			generator.fillWideAuctionBook(security, priceRange, depth, broker, shareholder);
+			probe = generator.createOrder(security, Side.BUY, 500, BookGenerator.BASE_PRICE, broker, shareholder);
+		}
+	}
+
+	@Benchmark
+	public MatchResult continuousMatchSweep(SweepState state) {
+		return state.matcher.continuousMatch(state.incoming, state.security.getOrderBook());
+	}
+
+	@Benchmark
+	public int calcOpeningAuctionPrice(AuctionState state) {
+		OrderBook orderBook = state.security.getOrderBook();
+		orderBook.enqueue(state.probe);
+		int withProbe = state.matcher.calcOpeningAuctionPrice(orderBook, BookGenerator.BASE_PRICE);
+		orderBook.removeOrder(state.probe);
+		return withProbe + state.matcher.calcOpeningAuctionPrice(orderBook, BookGenerator.BASE_PRICE);
+	}
+
+	@Benchmark
+	public int indicativeOpeningPrice(AuctionState state) {
+		OrderBook orderBook = state.security.getOrderBook();
+		orderBook.enqueue(state.probe);
+		int withProbe = state.matcher.calcIndicativeAuctionStats(orderBook, BookGenerator.BASE_PRICE).getOpeningPrice();
+		orderBook.removeOrder(state.probe);
+		return withProbe + state.matcher.calcIndicativeAuctionStats(orderBook, BookGenerator.BASE_PRICE).getOpeningPrice();
+	}
+}
@@ -0,0 +1,22 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.messaging.EventPublisher;
+import ir.ramtung.tinyme.messaging.event.Event;
+
+final class NoOpEventPublisher extends EventPublisher {
+
+	private long published;
+
+	NoOpEventPublisher() {
+		super(null);
+	}
+
+	@Override
+	public void publish(Event event) {
+		published++;
+	}
+
+	long getPublished() {
+		return published;
+	}
+}
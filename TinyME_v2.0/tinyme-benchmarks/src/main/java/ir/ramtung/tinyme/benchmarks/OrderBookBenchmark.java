@@ -0,0 +1,85 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.OrderBook;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBookBenchmark {
+
+	private static final int LEVELS = 200;
+
+	@Param({ "100", "10000", "100000" })
+	private int depth;
+
+	private BookGenerator generator;
+	private Security security;
+	private OrderBook orderBook;
+	private Broker broker;
+	private Shareholder shareholder;
+	private long[] orderIds;
+	private Side[] orderSides;
+	private Order[] incoming;
+	private int cursor;
+
+	@Setup
+	public void setup() {
+		generator = new BookGenerator(BookGenerator.SEED);
+		security = generator.createSecurity("BENCH");
+		orderBook = security.getOrderBook();
+		broker = generator.createBroker(1);
+		shareholder = generator.createShareholder(1, security);
+
+		List<Order> orders = generator.fillRandomBook(security, depth, LEVELS, broker, shareholder);
+		orderIds = orders.stream().mapToLong(Order::getOrderId).toArray();
+		orderSides = orders.stream().map(Order::getSide).toArray(Side[]::new);
+
+		incoming = new Order[1 << 12];
+		for (int i = 0; i < incoming.length; i++) {
+			Side side = generator.nextSide();
+			int offset = 1 + generator.nextInt(LEVELS);
+			int price = (side == Side.BUY) ? BookGenerator.BASE_PRICE - offset : BookGenerator.BASE_PRICE + offset;
+			incoming[i] = generator.createOrder(security, side, 1 + generator.nextInt(1_000), price, broker, shareholder);
+		}
+	}
+
+	@Benchmark
+	public OrderBook enqueueAndRemove() {
+		Order order = incoming[cursor++ & (incoming.length - 1)];
+		orderBook.enqueue(order);
+		orderBook.removeByOrderId(order.getSide(), order.getOrderId());
+		return orderBook;
+	}
+
+	@Benchmark
+	public Order findByOrderId() {
+		int i = cursor++ % orderIds.length;
+		return orderBook.findByOrderId(orderSides[i], orderIds[i]);
+	}
+
+	@Benchmark
+	public int totalSellQuantityByShareholder() {
+		return orderBook.totalSellQuantityByShareholder(shareholder);
+	}
+}
@@ -0,0 +1,101 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.domain.service.ApplicationServices;
+import ir.ramtung.tinyme.domain.service.OrderHandler;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.repository.BrokerRepository;
+import ir.ramtung.tinyme.repository.SecurityRepository;
+import ir.ramtung.tinyme.repository.ShareholderRepository;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderHandlerBenchmark {
+
+	private static final String ISIN = "HANDLER";
+	private static final int WORKLOAD_SIZE = 1 << 14;
+
+	@Param({ "20" })
+	private int priceLevels;
+
+	private OrderHandler orderHandler;
+	private NoOpEventPublisher eventPublisher;
+	private Side[] sides;
+	private int[] prices;
+	private int[] quantities;
+	private long nextId;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		BookGenerator generator = new BookGenerator(BookGenerator.SEED);
+		SecurityRepository securityRepository = new SecurityRepository();
+		BrokerRepository brokerRepository = new BrokerRepository();
+		ShareholderRepository shareholderRepository = new ShareholderRepository();
+
+		Security security = generator.createSecurity(ISIN);
+		Broker broker = generator.createBroker(1);
+		Shareholder shareholder = generator.createShareholder(1, security);
+		securityRepository.addSecurity(security);
+		brokerRepository.addBroker(broker);
+		shareholderRepository.addShareholder(shareholder);
+
+		eventPublisher = new NoOpEventPublisher();
+		orderHandler = new OrderHandler(
+			new ApplicationServices(securityRepository, brokerRepository, shareholderRepository),
+			eventPublisher
+		);
+
+		sides = new Side[WORKLOAD_SIZE];
+		prices = new int[WORKLOAD_SIZE];
+		quantities = new int[WORKLOAD_SIZE];
+		for (int i = 0; i < WORKLOAD_SIZE; i++) {
+			sides[i] = generator.nextSide();
+			prices[i] = BookGenerator.BASE_PRICE - priceLevels / 2 + generator.nextInt(priceLevels);
+			quantities[i] = 1 + generator.nextInt(100);
+		}
+		nextId = 1;
+	}
+
+	@Benchmark
+	public long handleNewOrderRq() {
+		long id = nextId++;
+		int i = (int) (id & (WORKLOAD_SIZE - 1));
+		orderHandler.handleRq(
+			EnterOrderRq.createNewOrderRq(
+				id,
+				ISIN,
+				id,
+				LocalDateTime.now(),
+				sides[i],
+				quantities[i],
+				prices[i],
+				1,
+				1,
+				0,
+				0
+			)
+		);
+		return eventPublisher.getPublished();
+	}
+}
@@ -0,0 +1,66 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import ir.ramtung.tinyme.repository.RequestJournal;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestJournalBenchmark {
+
+	private static final int SEGMENT_BYTES = 64 << 20;
+
+	@Param({ "1", "16", "256", "4096" })
+	private int fsyncBatch;
+
+	private Path directory;
+	private RequestJournal journal;
+	private EnterOrderRq rq;
+
+	@Setup(Level.Iteration)
+	public void setup() throws IOException {
+		directory = Files.createTempDirectory("tinyme-journal");
+		journal = new RequestJournal(true, directory.resolve("requests.journal").toString(), SEGMENT_BYTES, fsyncBatch);
+		journal.open();
+		rq = EnterOrderRq.createNewOrderRq(1, "JOURNAL", 1, LocalDateTime.now(), Side.BUY, 300, 15450, 1, 1, 0, 0);
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() throws IOException {
+		journal.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	@Benchmark
+	public void append() {
+		journal.append(rq);
+	}
+}
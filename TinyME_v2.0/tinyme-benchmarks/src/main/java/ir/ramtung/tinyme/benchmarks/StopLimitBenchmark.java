@@ -0,0 +1,68 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import ir.ramtung.tinyme.domain.entity.Broker;
+import ir.ramtung.tinyme.domain.entity.Order;
+import ir.ramtung.tinyme.domain.entity.Security;
+import ir.ramtung.tinyme.domain.entity.SecurityResponse;
+import ir.ramtung.tinyme.domain.entity.Shareholder;
+import ir.ramtung.tinyme.domain.entity.Side;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StopLimitBenchmark {
+
+	private static final int QUANTITY = 10;
+
+	@Param({ "1", "10", "100" })
+	private int cascadeLength;
+
+	private Security security;
+	private Order trigger;
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		BookGenerator generator = new BookGenerator(BookGenerator.SEED);
+		security = generator.createSecurity("CASCADE");
+		Broker broker = generator.createBroker(1);
+		Shareholder shareholder = generator.createShareholder(1, security);
+		int basePrice = BookGenerator.BASE_PRICE;
+
+		generator.fillSellLevels(security, cascadeLength + 1, 1, QUANTITY, broker, shareholder);
+		for (int i = 1; i <= cascadeLength; i++) {
+			security.addNewOrder(
+				generator.createStopLimit(
+					security,
+					Side.BUY,
+					QUANTITY,
+					basePrice + i + 1,
+					basePrice + i,
+					broker,
+					shareholder
+				)
+			);
+		}
+		trigger = generator.createOrder(security, Side.BUY, QUANTITY, basePrice + 1, broker, shareholder);
+	}
+
+	@Benchmark
+	public SecurityResponse activationCascade() {
+		return security.addNewOrder(trigger);
+	}
+}
@@ -0,0 +1,87 @@
+package ir.ramtung.tinyme.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.ramtung.tinyme.domain.entity.Side;
+import ir.ramtung.tinyme.messaging.TradeDTO;
+import ir.ramtung.tinyme.messaging.codec.WireCodec;
+import ir.ramtung.tinyme.messaging.event.OrderExecutedEvent;
+import ir.ramtung.tinyme.messaging.request.EnterOrderRq;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireCodecBenchmark {
+
+	private static final String ISIN = "CODEC";
+
+	@Param({ "1", "10" })
+	private int tradesPerExecution;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final WireCodec codec = new WireCodec();
+	private final ByteBuffer buffer = WireCodec.allocate(64 * 1024);
+
+	private EnterOrderRq enterOrderRq;
+	private OrderExecutedEvent executedEvent;
+	private String enterOrderJson;
+	private byte[] enterOrderBinary;
+
+	@Setup
+	public void setup() throws JsonProcessingException {
+		enterOrderRq = EnterOrderRq.createNewOrderRq(1, ISIN, 200, LocalDateTime.now(), Side.BUY, 300, 15450, 1, 1, 0, 0);
+
+		List<TradeDTO> trades = new ArrayList<>(tradesPerExecution);
+		for (int i = 0; i < tradesPerExecution; i++) {
+			trades.add(new TradeDTO(ISIN, 15450 + i, 10, 200, 1000 + i));
+		}
+		executedEvent = new OrderExecutedEvent(1, 200, trades);
+
+		enterOrderJson = objectMapper.writeValueAsString(enterOrderRq);
+		buffer.clear();
+		codec.encode(enterOrderRq, buffer);
+		enterOrderBinary = new byte[buffer.position()];
+		buffer.flip().get(enterOrderBinary);
+	}
+
+	@Benchmark
+	public Object decodeEnterOrderJson() throws JsonProcessingException {
+		return objectMapper.readValue(enterOrderJson, EnterOrderRq.class);
+	}
+
+	@Benchmark
+	public Object decodeEnterOrderBinary() {
+		return codec.decode(WireCodec.wrap(enterOrderBinary));
+	}
+
+	@Benchmark
+	public String encodeExecutedEventJson() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(executedEvent);
+	}
+
+	@Benchmark
+	public int encodeExecutedEventBinary() {
+		buffer.clear();
+		codec.encode(executedEvent, buffer);
+		return buffer.position();
+	}
+}